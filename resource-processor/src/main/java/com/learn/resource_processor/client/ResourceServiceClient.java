@@ -1,17 +1,28 @@
 package com.learn.resource_processor.client;
 
+import com.learn.resource_processor.storage.ObjectRange;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Service
 public class ResourceServiceClient {
     private final RestTemplate restTemplate;
     private final String resourceServiceUrl;
 
-    public ResourceServiceClient(RestTemplate restTemplate,
+    public ResourceServiceClient(@Qualifier("resourceServiceRestTemplate") RestTemplate restTemplate,
                                  @Value("${resource-service.url}") String url,
                                  @Value("${resource-service.port}") String port) {
         this.restTemplate = restTemplate;
@@ -23,4 +34,35 @@ public class ResourceServiceClient {
         String url = resourceServiceUrl + "/" + resourceId;
         return restTemplate.getForObject(url, byte[].class);
     }
+
+    /** Bytes {@code start} to {@code end} inclusive, cut back at the end of the resource. */
+    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 2000))
+    public ObjectRange getResourceRange(Long resourceId, long start, long end) {
+        return getRange(resourceId, HttpRange.createByteRange(start, end));
+    }
+
+    /** The last {@code length} bytes, or the whole resource when it is shorter. */
+    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 2000))
+    public ObjectRange getResourceTail(Long resourceId, int length) {
+        return getRange(resourceId, HttpRange.createSuffixRange(length));
+    }
+
+    private ObjectRange getRange(Long resourceId, HttpRange range) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setRange(List.of(range));
+        ResponseEntity<byte[]> response = restTemplate.exchange(resourceServiceUrl + "/" + resourceId,
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+        if (response.getStatusCode() == HttpStatus.PARTIAL_CONTENT) {
+            return ObjectRange.ofContentRange(body, response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        }
+
+        // The range was ignored, e.g. for a resource without a recorded size; cut it from the whole body
+        if (body.length == 0) {
+            return new ObjectRange(body, 0, 0);
+        }
+        long start = range.getRangeStart(body.length);
+        long end = Math.min(range.getRangeEnd(body.length), body.length - 1);
+        return new ObjectRange(Arrays.copyOfRange(body, (int) start, (int) end + 1), start, body.length);
+    }
 }
@@ -1,24 +1,41 @@
 package com.learn.resource_processor.client;
 
 import com.learn.resource_processor.dto.SongDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Optional;
+
 @Service
 public class SongServiceClient {
     private final RestTemplate restTemplate;
     private final String songServiceUrl;
 
-    public SongServiceClient(RestTemplate restTemplate,
+    public SongServiceClient(@Qualifier("songServiceRestTemplate") RestTemplate restTemplate,
                              @Value("${song-service.url}") String url,
                              @Value("${song-service.port}") String port) {
         this.restTemplate = restTemplate;
         this.songServiceUrl = "http://" + url + ":" + port + "/songs";
     }
 
+    /**
+     * Metadata song-service already holds for audio with this checksum. Not
+     * retried: the caller can always parse the audio instead.
+     */
+    public Optional<SongDTO> findSongByChecksum(String checksum) {
+        try {
+            return Optional.ofNullable(restTemplate.getForObject(songServiceUrl + "?checksum={checksum}",
+                    SongDTO.class, checksum));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
     @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public void saveSongMetadata(SongDTO songDTO) {
         restTemplate.postForObject(songServiceUrl, songDTO, SongDTO.class);
@@ -1,13 +1,38 @@
 package com.learn.resource_processor.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, S3Properties.class, LocalStorageProperties.class,
+        KafkaConsumerProperties.class})
 public class AppConfig {
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public CloseableHttpClient resourceServiceHttpClient(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        return PooledHttpClients.create("resource-service", properties.forService("resource-service"), meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate resourceServiceRestTemplate(RestTemplateBuilder builder,
+                                                    @Qualifier("resourceServiceHttpClient") CloseableHttpClient httpClient) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient)).build();
+    }
+
+    @Bean
+    public CloseableHttpClient songServiceHttpClient(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        return PooledHttpClients.create("song-service", properties.forService("song-service"), meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate songServiceRestTemplate(RestTemplateBuilder builder,
+                                                @Qualifier("songServiceHttpClient") CloseableHttpClient httpClient) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient)).build();
     }
 }
@@ -0,0 +1,50 @@
+package com.learn.resource_processor.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+
+    /** Connection pool settings per target service, keyed by service name; missing entries use the defaults. */
+    private Map<String, Pool> services = new HashMap<>();
+
+    public Pool forService(String name) {
+        return services.getOrDefault(name, new Pool());
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        /** Connections open to the service at once. */
+        private int maxConnections = 50;
+
+        /** Connections per host and port; a Kubernetes service is a single route. */
+        private int maxConnectionsPerRoute = 50;
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /** Longest wait for a free pooled connection before the call fails. */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+        /** Longest silence on an open socket. */
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        /** Longest wait for the response after the request was sent. */
+        private Duration responseTimeout = Duration.ofSeconds(10);
+
+        /** Idle connections are reused for this long, then evicted; keep it below the peer's keep-alive timeout. */
+        private Duration keepAlive = Duration.ofSeconds(15);
+
+        /** Connections are replaced after this long so DNS and endpoint changes are picked up. */
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+}
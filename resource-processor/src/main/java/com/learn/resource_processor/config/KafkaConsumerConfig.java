@@ -0,0 +1,36 @@
+package com.learn.resource_processor.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    // KafkaAdmin creates the topic on startup, or adds partitions to an existing one; it never removes any
+    @Bean
+    public NewTopic resourceCreatedTopic(KafkaConsumerProperties properties) {
+        return TopicBuilder.name(properties.getTopic())
+                .partitions(properties.getPartitions())
+                .replicas(properties.getReplicas())
+                .build();
+    }
+
+    // Replaces Boot's factory but goes through its configurer, so spring.kafka.listener.* and the
+    // virtual-thread executor still apply
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaConsumerProperties properties) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setConcurrency(properties.getConcurrency());
+        factory.setBatchListener(properties.isBatch());
+        return factory;
+    }
+}
@@ -0,0 +1,26 @@
+package com.learn.resource_processor.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "processor.kafka")
+public class KafkaConsumerProperties {
+
+    private String topic = "resource-created";
+
+    /**
+     * Partitions the topic is created or grown to. Listener threads across all
+     * processor instances beyond this number sit idle, so it caps scale-out.
+     */
+    private int partitions = 6;
+    private short replicas = 1;
+
+    /** Listener threads per instance, each owning its share of the partitions. */
+    private int concurrency = 3;
+
+    /** Hand each poll to the listener as one list instead of record by record. */
+    private boolean batch;
+}
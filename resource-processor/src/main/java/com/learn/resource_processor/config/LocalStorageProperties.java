@@ -0,0 +1,16 @@
+package com.learn.resource_processor.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "storage.local")
+public class LocalStorageProperties {
+
+    /** resource-service's storage directory when storage.type=local; only read, never written. */
+    private Path directory = Path.of(System.getProperty("user.home"), "resource-service-storage");
+}
@@ -0,0 +1,70 @@
+package com.learn.resource_processor.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.time.Duration;
+
+/**
+ * Builds one pooled HTTP client per target service, so a slow peer can only
+ * exhaust its own connections.
+ */
+public final class PooledHttpClients {
+
+    private PooledHttpClients() {
+    }
+
+    /**
+     * Creates a client with its own connection pool and registers the pool's
+     * leased, available and pending counts as {@code httpcomponents.httpclient.pool.*}
+     * gauges tagged with the service name. The caller owns the client and must close it.
+     */
+    public static CloseableHttpClient create(String service, HttpClientProperties.Pool pool, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxConnections())
+                .setMaxConnPerRoute(pool.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(pool.getConnectTimeout()))
+                        .setSocketTimeout(timeout(pool.getReadTimeout()))
+                        .setTimeToLive(timeValue(pool.getTimeToLive()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, service).bindTo(meterRegistry);
+
+        TimeValue keepAlive = timeValue(pool.getKeepAlive());
+        // Honour a shorter Keep-Alive header from the peer, never a longer one
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            TimeValue offered = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return TimeValue.isPositive(offered) && offered.compareTo(keepAlive) < 0 ? offered : keepAlive;
+        };
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(pool.getConnectionRequestTimeout()))
+                        .setResponseTimeout(timeout(pool.getResponseTimeout()))
+                        .build())
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .build();
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
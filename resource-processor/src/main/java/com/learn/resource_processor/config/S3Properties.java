@@ -0,0 +1,29 @@
+package com.learn.resource_processor.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "s3")
+public class S3Properties {
+
+    /** Endpoint override for S3-compatible stores such as MinIO or LocalStack. */
+    private String endpoint;
+    private boolean pathStyleAccess;
+
+    private final Client client = new Client();
+
+    @Getter
+    @Setter
+    public static class Client {
+        private int maxConnections = 20;
+        private Duration connectionAcquisitionTimeout = Duration.ofSeconds(5);
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+        private Duration socketTimeout = Duration.ofSeconds(30);
+        private Duration apiCallTimeout = Duration.ofMinutes(1);
+    }
+}
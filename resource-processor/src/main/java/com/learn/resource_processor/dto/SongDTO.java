@@ -34,4 +34,7 @@ public class SongDTO {
     @NotBlank(message = "Year is required")
     @Pattern(regexp = "^(19\\d{2}|20\\d{2}|2099)$", message = "Year must be between 1900 and 2099")
     private String year;
+
+    /** SHA-256 of the audio, so a later upload of the same bytes can reuse this metadata. */
+    private String checksum;
 }
@@ -0,0 +1,55 @@
+package com.learn.resource_processor.kafka;
+
+import com.learn.resource_processor.service.ResourceProcessorService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Listener for {@code processor.kafka.batch=true}: one call per poll, which
+ * saves the per-record listener dispatch and commits the batch's offsets at
+ * once. A failing event is reported by its index, so the error handler
+ * commits the events before it and retries from there rather than
+ * reprocessing the whole batch. A record that could not be deserialized is
+ * reported with its {@link DeserializationException}, which the error handler
+ * does not retry.
+ */
+@Service
+@ConditionalOnProperty(name = "processor.kafka.batch", havingValue = "true")
+public class ResourceBatchConsumer {
+    private static final LogAccessor LOGGER = new LogAccessor(ResourceBatchConsumer.class);
+
+    private final ResourceProcessorService resourceProcessorService;
+
+    public ResourceBatchConsumer(ResourceProcessorService resourceProcessorService) {
+        this.resourceProcessorService = resourceProcessorService;
+    }
+
+    @KafkaListener(topics = "${processor.kafka.topic:resource-created}", groupId = "resource-processor-group")
+    public void consume(List<ConsumerRecord<String, ResourceCreatedEvent>> records) {
+        System.out.println("Received batch of " + records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, ResourceCreatedEvent> record = records.get(i);
+            ResourceCreatedEvent event = record.value();
+            if (event == null) {
+                // The ErrorHandlingDeserializer leaves a null value and puts the failure in a header
+                DeserializationException cause = SerializationUtils.getExceptionFromHeader(
+                        record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOGGER);
+                throw new BatchListenerFailedException("Unreadable resource-created event at offset "
+                        + record.offset(), cause, i);
+            }
+            try {
+                resourceProcessorService.process(event);
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Failed to process resource " + event.resourceId(), e, i);
+            }
+        }
+    }
+}
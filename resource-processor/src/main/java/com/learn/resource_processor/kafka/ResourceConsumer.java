@@ -1,10 +1,12 @@
 package com.learn.resource_processor.kafka;
 
 import com.learn.resource_processor.service.ResourceProcessorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
 @Service
+@ConditionalOnProperty(name = "processor.kafka.batch", havingValue = "false", matchIfMissing = true)
 public class ResourceConsumer {
 
     private final ResourceProcessorService resourceProcessorService;
@@ -13,9 +15,9 @@ public class ResourceConsumer {
         this.resourceProcessorService = resourceProcessorService;
     }
 
-    @KafkaListener(topics = "resource-created", groupId = "resource-processor-group")
-    public void consume(Long resourceId) {
-        System.out.println("Received: " + resourceId);
-        resourceProcessorService.process(resourceId);
+    @KafkaListener(topics = "${processor.kafka.topic:resource-created}", groupId = "resource-processor-group")
+    public void consume(ResourceCreatedEvent event) {
+        System.out.println("Received: " + event.resourceId());
+        resourceProcessorService.process(event);
     }
 }
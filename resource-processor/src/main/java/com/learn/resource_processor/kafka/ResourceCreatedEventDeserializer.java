@@ -0,0 +1,24 @@
+package com.learn.resource_processor.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Reads both the binary event and the legacy {@code LongSerializer} ID. Wrapped
+ * in an ErrorHandlingDeserializer, so a record that fails here reaches the
+ * listener's error handler instead of blocking the partition.
+ */
+public class ResourceCreatedEventDeserializer implements Deserializer<ResourceCreatedEvent> {
+
+    @Override
+    public ResourceCreatedEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return ResourceCreatedEvent.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot read resource-created event from " + topic, e);
+        }
+    }
+}
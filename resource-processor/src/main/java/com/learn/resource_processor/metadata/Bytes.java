@@ -0,0 +1,25 @@
+package com.learn.resource_processor.metadata;
+
+/** Big-endian reads and ASCII marker checks shared by the tag parser and the duration estimator. */
+final class Bytes {
+
+    private Bytes() {
+    }
+
+    static boolean matches(byte[] data, int offset, String ascii) {
+        if (offset < 0 || offset + ascii.length() > data.length) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (data[offset + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16
+                | (data[offset + 2] & 0xFF) << 8 | (data[offset + 3] & 0xFF);
+    }
+}
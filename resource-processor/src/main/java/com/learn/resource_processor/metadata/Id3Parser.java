@@ -0,0 +1,272 @@
+package com.learn.resource_processor.metadata;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads title, artist, album and year from ID3v2.2, v2.3 and v2.4 tags, and
+ * from an ID3v1 tag for what those lack. Frames are walked in place and only
+ * the four values are decoded into strings; a copy of the bytes is made only
+ * for unsynchronised tags and frames, which few writers produce.
+ *
+ * <p>Broken tags are read as far as they make sense rather than rejected: a
+ * wrong frame size ends the walk, and compressed or encrypted frames are
+ * skipped. The caller falls back to defaults for whatever is missing.
+ */
+public final class Id3Parser {
+    private static final int HEADER_LENGTH = 10;
+
+    private static final int TAG_UNSYNCHRONISED = 0x80;
+    private static final int TAG_EXTENDED_HEADER = 0x40;
+
+    private static final int V23_COMPRESSED = 0x80;
+    private static final int V23_ENCRYPTED = 0x40;
+    private static final int V23_GROUPED = 0x20;
+    private static final int V24_GROUPED = 0x40;
+    private static final int V24_COMPRESSED = 0x08;
+    private static final int V24_ENCRYPTED = 0x04;
+    private static final int V24_UNSYNCHRONISED = 0x02;
+    private static final int V24_DATA_LENGTH = 0x01;
+
+    private static final int NONE = 0;
+    private static final int TITLE = 1;
+    private static final int ARTIST = 2;
+    private static final int ALBUM = 3;
+    private static final int YEAR = 4;
+    private static final int RECORDING_TIME = 5;
+
+    private Id3Parser() {
+    }
+
+    public static Id3Tags parse(Mp3Regions regions) {
+        Id3Tags tags = parseId3v2(regions.id3v2Tag());
+        return tags.isComplete() || !regions.hasId3v1() ? tags : tags.orElse(parseId3v1(regions.tail()));
+    }
+
+    public static Id3Tags parseId3v2(byte[] tag) {
+        if (tag.length < HEADER_LENGTH || !Bytes.matches(tag, 0, "ID3")) {
+            return Id3Tags.EMPTY;
+        }
+        int major = tag[3];
+        int flags = tag[5] & 0xFF;
+        if (major < 2 || major > 4 || (major == 2 && (flags & TAG_EXTENDED_HEADER) != 0)) {
+            // Unknown versions, and v2.2's flag for its never-specified compression
+            return Id3Tags.EMPTY;
+        }
+
+        byte[] data = tag;
+        int pos = HEADER_LENGTH;
+        int end = (int) Math.min(tag.length, HEADER_LENGTH + (long) syncSafe(tag, 6));
+        boolean unsynchronised = (flags & TAG_UNSYNCHRONISED) != 0;
+        if (unsynchronised && major < 4) {
+            // Before v2.4 the whole tag is unsynchronised, frame headers included
+            data = resynchronise(tag, HEADER_LENGTH, end);
+            pos = 0;
+            end = data.length;
+        }
+        if ((flags & TAG_EXTENDED_HEADER) != 0 && pos + 4 <= end) {
+            long extendedHeader = major == 3 ? 4 + (Bytes.readInt(data, pos) & 0xFFFFFFFFL)
+                    : syncSafe(data, pos);
+            pos = (int) Math.min(end, pos + extendedHeader);
+        }
+
+        int idLength = major == 2 ? 3 : 4;
+        int frameHeaderLength = major == 2 ? 6 : HEADER_LENGTH;
+        String title = null;
+        String artist = null;
+        String album = null;
+        String year = null;
+        while (pos + frameHeaderLength <= end && data[pos] != 0) {
+            int size = frameSize(data, pos, major, end);
+            int body = pos + frameHeaderLength;
+            if (size < 0 || size > end - body) {
+                break;
+            }
+            int field = field(data, pos, idLength);
+            if (field != NONE) {
+                String value = frameText(data, body, body + size, major, major == 2 ? 0 : data[pos + 9] & 0xFF,
+                        unsynchronised);
+                if (value != null) {
+                    switch (field) {
+                        case TITLE -> title = title != null ? title : value;
+                        case ARTIST -> artist = artist != null ? artist : value;
+                        case ALBUM -> album = album != null ? album : value;
+                        // TDRC, the v2.4 recording time, wins over a leftover TYER
+                        case RECORDING_TIME -> year = value;
+                        case YEAR -> year = year != null ? year : value;
+                        default -> {
+                        }
+                    }
+                }
+            }
+            pos = body + size;
+        }
+        return title == null && artist == null && album == null && year == null
+                ? Id3Tags.EMPTY
+                : new Id3Tags(title, artist, album, year);
+    }
+
+    /** The fixed-width ID3v1 tag in the last 128 bytes; v1.1's track number is ignored. */
+    public static Id3Tags parseId3v1(byte[] tail) {
+        if (tail.length != Mp3Regions.ID3V1_LENGTH || !Bytes.matches(tail, 0, "TAG")) {
+            return Id3Tags.EMPTY;
+        }
+        return new Id3Tags(
+                latin1(tail, 3, 30),
+                latin1(tail, 33, 30),
+                latin1(tail, 63, 30),
+                latin1(tail, 93, 4));
+    }
+
+    private static int field(byte[] data, int pos, int idLength) {
+        if (data[pos] != 'T') {
+            return NONE;
+        }
+        if (idLength == 3) {
+            return Bytes.matches(data, pos, "TT2") ? TITLE
+                    : Bytes.matches(data, pos, "TP1") ? ARTIST
+                    : Bytes.matches(data, pos, "TAL") ? ALBUM
+                    : Bytes.matches(data, pos, "TYE") ? YEAR
+                    : NONE;
+        }
+        return Bytes.matches(data, pos, "TIT2") ? TITLE
+                : Bytes.matches(data, pos, "TPE1") ? ARTIST
+                : Bytes.matches(data, pos, "TALB") ? ALBUM
+                : Bytes.matches(data, pos, "TYER") ? YEAR
+                : Bytes.matches(data, pos, "TDRC") ? RECORDING_TIME
+                : NONE;
+    }
+
+    private static int frameSize(byte[] data, int pos, int major, int end) {
+        if (major == 2) {
+            return (data[pos + 3] & 0xFF) << 16 | (data[pos + 4] & 0xFF) << 8 | (data[pos + 5] & 0xFF);
+        }
+        int plain = Bytes.readInt(data, pos + 4);
+        if (major == 3) {
+            return plain;
+        }
+        // v2.4 sizes are sync-safe, but some encoders wrote plain ones; use whichever
+        // lands on the next frame when they differ
+        int syncSafe = syncSafe(data, pos + 4);
+        if (syncSafe == plain || startsFrame(data, pos + HEADER_LENGTH + syncSafe, end)
+                || !startsFrame(data, pos + HEADER_LENGTH + plain, end)) {
+            return syncSafe;
+        }
+        return plain;
+    }
+
+    private static boolean startsFrame(byte[] data, int pos, int end) {
+        if (pos < 0 || pos > end) {
+            return false;
+        }
+        if (pos == end || data[pos] == 0) {
+            return true;
+        }
+        if (pos + 4 > end) {
+            return false;
+        }
+        for (int i = pos; i < pos + 4; i++) {
+            if (!((data[i] >= 'A' && data[i] <= 'Z') || (data[i] >= '0' && data[i] <= '9'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String frameText(byte[] data, int from, int to, int major, int formatFlags,
+                                    boolean tagUnsynchronised) {
+        boolean unsynchronised = false;
+        if (major == 3) {
+            if ((formatFlags & (V23_COMPRESSED | V23_ENCRYPTED)) != 0) {
+                return null;
+            }
+            from += (formatFlags & V23_GROUPED) != 0 ? 1 : 0;
+        } else if (major == 4) {
+            if ((formatFlags & (V24_COMPRESSED | V24_ENCRYPTED)) != 0) {
+                return null;
+            }
+            from += (formatFlags & V24_GROUPED) != 0 ? 1 : 0;
+            from += (formatFlags & V24_DATA_LENGTH) != 0 ? 4 : 0;
+            unsynchronised = tagUnsynchronised || (formatFlags & V24_UNSYNCHRONISED) != 0;
+        }
+        if (from >= to) {
+            return null;
+        }
+        if (unsynchronised) {
+            byte[] body = resynchronise(data, from, to);
+            return text(body, 0, body.length);
+        }
+        return text(data, from, to);
+    }
+
+    /** A text frame body: an encoding byte, then the text up to its terminator or the end. */
+    private static String text(byte[] data, int from, int to) {
+        Charset charset;
+        int unit;
+        switch (data[from]) {
+            case 0 -> {
+                charset = StandardCharsets.ISO_8859_1;
+                unit = 1;
+            }
+            case 1 -> {
+                charset = StandardCharsets.UTF_16;
+                unit = 2;
+            }
+            case 2 -> {
+                charset = StandardCharsets.UTF_16BE;
+                unit = 2;
+            }
+            case 3 -> {
+                charset = StandardCharsets.UTF_8;
+                unit = 1;
+            }
+            default -> {
+                return null;
+            }
+        }
+        int start = from + 1;
+        // v2.4 separates multiple values with the terminator; the first one is kept
+        int length = 0;
+        while (start + length + unit <= to && !isTerminator(data, start + length, unit)) {
+            length += unit;
+        }
+        return trimToNull(new String(data, start, length, charset));
+    }
+
+    private static boolean isTerminator(byte[] data, int pos, int unit) {
+        return data[pos] == 0 && (unit == 1 || data[pos + 1] == 0);
+    }
+
+    private static String latin1(byte[] data, int from, int length) {
+        int end = from;
+        while (end < from + length && data[end] != 0) {
+            end++;
+        }
+        return trimToNull(new String(data, from, end - from, StandardCharsets.ISO_8859_1));
+    }
+
+    private static String trimToNull(String value) {
+        // A stray byte order mark in front of a UTF-16BE or empty value is not text
+        String trimmed = (!value.isEmpty() && value.charAt(0) == '\uFEFF' ? value.substring(1) : value).trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /** Undoes unsynchronisation, which put a 0x00 after every 0xFF. */
+    private static byte[] resynchronise(byte[] data, int from, int to) {
+        byte[] result = new byte[to - from];
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            result[length++] = data[i];
+            if (data[i] == (byte) 0xFF && i + 1 < to && data[i + 1] == 0) {
+                i++;
+            }
+        }
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
+
+    private static int syncSafe(byte[] data, int offset) {
+        return (data[offset] & 0x7F) << 21 | (data[offset + 1] & 0x7F) << 14
+                | (data[offset + 2] & 0x7F) << 7 | (data[offset + 3] & 0x7F);
+    }
+}
@@ -0,0 +1,26 @@
+package com.learn.resource_processor.metadata;
+
+/**
+ * The song fields read from an MP3's ID3 tags; each is null when no tag
+ * carries it.
+ *
+ * @param year the recording year or date as tagged, e.g. {@code 2021} or
+ *             {@code 2021-04-30} from an ID3v2.4 TDRC frame
+ */
+public record Id3Tags(String title, String artist, String album, String year) {
+
+    public static final Id3Tags EMPTY = new Id3Tags(null, null, null, null);
+
+    public boolean isComplete() {
+        return title != null && artist != null && album != null && year != null;
+    }
+
+    /** These tags, with the fields they lack taken from {@code other}. */
+    public Id3Tags orElse(Id3Tags other) {
+        return new Id3Tags(
+                title != null ? title : other.title,
+                artist != null ? artist : other.artist,
+                album != null ? album : other.album,
+                year != null ? year : other.year);
+    }
+}
@@ -0,0 +1,35 @@
+package com.learn.resource_processor.metadata;
+
+/**
+ * A track's length and how it was arrived at.
+ */
+public record Mp3Duration(double seconds, Accuracy accuracy) {
+
+    public static final Mp3Duration UNKNOWN = new Mp3Duration(0, Accuracy.NONE);
+
+    public enum Accuracy {
+        /** Sample count from a LAME header: frames less the encoder's delay and padding. */
+        EXACT,
+        /** Frames counted by a Xing/Info or VBRI header or by walking every frame header; up to a frame of padding too long. */
+        FRAME_COUNT,
+        /** Audio size over a bitrate every frame at hand shares; exact for CBR. */
+        CONSTANT_BITRATE,
+        /** Audio size over the average bitrate of the first frames of a VBR stream without a header; can be several percent off. */
+        AVERAGE_BITRATE,
+        /** No MPEG frames found. */
+        NONE
+    }
+
+    /** Whole minutes and seconds as {@code mm:ss}, the format song-service stores. */
+    public String formatted() {
+        long total = (long) seconds;
+        long minutes = total / 60;
+        int secs = (int) (total % 60);
+        StringBuilder result = new StringBuilder(5);
+        if (minutes < 10) {
+            result.append('0');
+        }
+        return result.append(minutes).append(':').append((char) ('0' + secs / 10)).append((char) ('0' + secs % 10))
+                .toString();
+    }
+}
@@ -0,0 +1,167 @@
+package com.learn.resource_processor.metadata;
+
+/**
+ * Works out a track's length without decoding audio, taking the cheapest
+ * source that is accurate for the file:
+ * <ol>
+ *   <li>the frame count of a Xing/Info or VBRI header in the first frame,
+ *       less the encoder delay and padding when a LAME header follows it;</li>
+ *   <li>with the whole file at hand, a walk from frame header to frame
+ *       header, each step the length the header announces;</li>
+ *   <li>with only the head of the audio, its size over the bitrate of the
+ *       frames in that head, exact for CBR and an estimate for VBR.</li>
+ * </ol>
+ * The {@link Mp3Duration.Accuracy} of the result says which one was used.
+ */
+public final class Mp3DurationEstimator {
+    private static final int XING_FRAMES_FLAG = 0x01;
+    private static final int XING_BYTES_FLAG = 0x02;
+    private static final int XING_TOC_FLAG = 0x04;
+    private static final int XING_QUALITY_FLAG = 0x08;
+    // Encoder version string, revision, lowpass, peak, two gains, flags and bitrate come first
+    private static final int LAME_DELAY_OFFSET = 21;
+    // VBRI sits at a fixed offset behind the 32 bytes following the header
+    private static final int VBRI_OFFSET = MpegFrameHeader.HEADER_LENGTH + 32;
+    private static final int VBRI_FRAMES_OFFSET = 14;
+
+    private Mp3DurationEstimator() {
+    }
+
+    /** From the regions of a ranged read: a header count, else the bitrate of the audio head. */
+    public static Mp3Duration estimate(Mp3Regions regions) {
+        return estimate(regions, null);
+    }
+
+    /**
+     * From a file downloaded whole: a header count, else a walk over all its
+     * frame headers. {@code regions} must be {@link Mp3Regions#of cut} from it.
+     */
+    public static Mp3Duration estimate(Mp3Regions regions, byte[] file) {
+        byte[] audio = regions.audioHead();
+        int offset = firstFrame(audio);
+        if (offset < 0) {
+            return Mp3Duration.UNKNOWN;
+        }
+        MpegFrameHeader header = MpegFrameHeader.parse(audio, offset);
+
+        Mp3Duration counted = fromXing(audio, offset, header);
+        if (counted == null) {
+            counted = fromVbri(audio, offset, header);
+        }
+        if (counted != null) {
+            return counted;
+        }
+
+        long audioStart = regions.audioOffset() + offset;
+        long audioEnd = regions.fileSize() - (regions.hasId3v1() ? Mp3Regions.ID3V1_LENGTH : 0);
+        if (file != null) {
+            return scan(file, (int) audioStart, (int) audioEnd, header);
+        }
+        return fromBitrate(audio, offset, header, Math.max(0, audioEnd - audioStart));
+    }
+
+    /**
+     * Offset of the first frame header that is followed by another one of the
+     * same stream, or is too close to the end of the data to check; -1 if none.
+     */
+    static int firstFrame(byte[] data) {
+        for (int i = 0; i + MpegFrameHeader.HEADER_LENGTH <= data.length; i++) {
+            MpegFrameHeader header = MpegFrameHeader.parse(data, i);
+            if (header == null) {
+                continue;
+            }
+            int next = i + header.frameLength();
+            if (next + MpegFrameHeader.HEADER_LENGTH > data.length
+                    || header.sameStream(MpegFrameHeader.parse(data, next))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Mp3Duration fromXing(byte[] data, int frameOffset, MpegFrameHeader header) {
+        int tag = frameOffset + MpegFrameHeader.HEADER_LENGTH + header.sideInfoLength();
+        if (!(Bytes.matches(data, tag, "Xing") || Bytes.matches(data, tag, "Info")) || tag + 8 > data.length) {
+            return null;
+        }
+        int flags = Bytes.readInt(data, tag + 4);
+        int pos = tag + 8;
+        if ((flags & XING_FRAMES_FLAG) == 0 || pos + 4 > data.length) {
+            return null;
+        }
+        long frames = Bytes.readInt(data, pos) & 0xFFFFFFFFL;
+        if (frames == 0) {
+            return null;
+        }
+        pos += 4;
+        pos += (flags & XING_BYTES_FLAG) != 0 ? 4 : 0;
+        pos += (flags & XING_TOC_FLAG) != 0 ? 100 : 0;
+        pos += (flags & XING_QUALITY_FLAG) != 0 ? 4 : 0;
+
+        long samples = frames * header.samplesPerFrame();
+        // LAME and the FFmpeg builds that write its header record how much silence they added
+        if ((Bytes.matches(data, pos, "LAME") || Bytes.matches(data, pos, "Lavc") || Bytes.matches(data, pos, "Lavf"))
+                && pos + LAME_DELAY_OFFSET + 3 <= data.length) {
+            int b0 = data[pos + LAME_DELAY_OFFSET] & 0xFF;
+            int b1 = data[pos + LAME_DELAY_OFFSET + 1] & 0xFF;
+            int b2 = data[pos + LAME_DELAY_OFFSET + 2] & 0xFF;
+            int delay = b0 << 4 | b1 >> 4;
+            int padding = (b1 & 0x0F) << 8 | b2;
+            if (delay + padding < samples) {
+                return new Mp3Duration((double) (samples - delay - padding) / header.sampleRate(),
+                        Mp3Duration.Accuracy.EXACT);
+            }
+        }
+        return new Mp3Duration((double) samples / header.sampleRate(), Mp3Duration.Accuracy.FRAME_COUNT);
+    }
+
+    private static Mp3Duration fromVbri(byte[] data, int frameOffset, MpegFrameHeader header) {
+        int tag = frameOffset + VBRI_OFFSET;
+        if (!Bytes.matches(data, tag, "VBRI") || tag + VBRI_FRAMES_OFFSET + 4 > data.length) {
+            return null;
+        }
+        long frames = Bytes.readInt(data, tag + VBRI_FRAMES_OFFSET) & 0xFFFFFFFFL;
+        return frames > 0 ? new Mp3Duration(frames * header.frameSeconds(), Mp3Duration.Accuracy.FRAME_COUNT) : null;
+    }
+
+    /**
+     * Steps from header to header by the frame length each announces, so only
+     * four bytes per frame are read. Bytes that do not start a frame of the
+     * stream, such as a stray tag in the middle, are skipped one at a time
+     * until frames line up again.
+     */
+    static Mp3Duration scan(byte[] data, int from, int to, MpegFrameHeader first) {
+        long frames = 0;
+        int pos = from;
+        while (pos + MpegFrameHeader.HEADER_LENGTH <= to) {
+            MpegFrameHeader header = MpegFrameHeader.parse(data, pos);
+            if (first.sameStream(header)) {
+                frames++;
+                pos += header.frameLength();
+            } else {
+                pos++;
+            }
+        }
+        // Every frame of one stream has the same number of samples at the same rate
+        return new Mp3Duration(frames * first.frameSeconds(), Mp3Duration.Accuracy.FRAME_COUNT);
+    }
+
+    private static Mp3Duration fromBitrate(byte[] data, int offset, MpegFrameHeader first, long audioBytes) {
+        long bytes = 0;
+        long frames = 0;
+        boolean constant = true;
+        MpegFrameHeader header = first;
+        for (int pos = offset; first.sameStream(header) && pos + header.frameLength() <= data.length;
+             header = MpegFrameHeader.parse(data, pos)) {
+            constant &= header.bitrate() == first.bitrate();
+            bytes += header.frameLength();
+            frames++;
+            pos += header.frameLength();
+        }
+        if (frames == 0 || constant) {
+            return new Mp3Duration(audioBytes * 8.0 / first.bitrate(), Mp3Duration.Accuracy.CONSTANT_BITRATE);
+        }
+        double averageBitrate = bytes * 8.0 / (frames * first.frameSeconds());
+        return new Mp3Duration(audioBytes * 8.0 / averageBitrate, Mp3Duration.Accuracy.AVERAGE_BITRATE);
+    }
+}
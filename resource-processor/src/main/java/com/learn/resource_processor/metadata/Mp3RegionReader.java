@@ -0,0 +1,93 @@
+package com.learn.resource_processor.metadata;
+
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.storage.ObjectRange;
+import com.learn.resource_processor.storage.ResourceContentFetcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Reads the {@link Mp3Regions} of a resource with ranged reads: a first read
+ * of the head, a second one when the ID3v2 tag announced in it is longer,
+ * and the last 128 bytes. A typical track costs two or three small reads
+ * instead of a multi-megabyte download.
+ *
+ * <p>A tag over {@code processor.metadata.max-tag-bytes}, which only embedded
+ * artwork gets to, is cut off there; text frames come first in practice. The
+ * audio head is then read separately from behind the tag.
+ */
+@Service
+public class Mp3RegionReader {
+    /** Enough for the longest MPEG frame, a Xing/VBRI header in it and the next frame header. */
+    static final int AUDIO_HEAD_LENGTH = 8 * 1024;
+    private static final int ID3V2_HEADER_LENGTH = 10;
+
+    private final ResourceContentFetcher contentFetcher;
+    private final int headBytes;
+    private final int maxTagBytes;
+
+    public Mp3RegionReader(ResourceContentFetcher contentFetcher,
+                           @Value("${processor.metadata.head-bytes:16384}") int headBytes,
+                           @Value("${processor.metadata.max-tag-bytes:1048576}") int maxTagBytes) {
+        if (headBytes < ID3V2_HEADER_LENGTH || maxTagBytes < headBytes) {
+            throw new IllegalArgumentException("Metadata reads need 10 <= head-bytes <= max-tag-bytes");
+        }
+        this.contentFetcher = contentFetcher;
+        this.headBytes = headBytes;
+        this.maxTagBytes = maxTagBytes;
+    }
+
+    public Mp3Regions read(ResourceCreatedEvent event) {
+        ObjectRange head = contentFetcher.fetchRange(event, 0, headBytes - 1);
+        long fileSize = head.totalSize() >= 0 ? head.totalSize() : head.data().length;
+        byte[] data = head.data();
+
+        long tagSize = Math.min(id3v2TagSize(data), fileSize);
+        long audioEnd = Math.min(fileSize, tagSize + AUDIO_HEAD_LENGTH);
+        byte[] tag;
+        byte[] audio;
+        if (tagSize <= maxTagBytes) {
+            // Tag and audio head are adjacent, so at most one more read covers both
+            if (data.length < audioEnd) {
+                data = concat(data, contentFetcher.fetchRange(event, data.length, audioEnd - 1).data());
+            }
+            int tagEnd = (int) Math.min(tagSize, data.length);
+            tag = Arrays.copyOfRange(data, 0, tagEnd);
+            audio = Arrays.copyOfRange(data, tagEnd, (int) Math.max(tagEnd, Math.min(audioEnd, data.length)));
+        } else {
+            tag = data.length < maxTagBytes
+                    ? concat(data, contentFetcher.fetchRange(event, data.length, maxTagBytes - 1).data())
+                    : Arrays.copyOf(data, maxTagBytes);
+            audio = audioEnd > tagSize
+                    ? contentFetcher.fetchRange(event, tagSize, audioEnd - 1).data()
+                    : new byte[0];
+        }
+
+        byte[] tail = data.length >= fileSize
+                ? Arrays.copyOfRange(data, (int) Math.max(0, fileSize - Mp3Regions.ID3V1_LENGTH), (int) fileSize)
+                : contentFetcher.fetchTail(event, Mp3Regions.ID3V1_LENGTH).data();
+        return new Mp3Regions(tag, audio, tagSize, tail, fileSize);
+    }
+
+    /** Bytes taken by a leading ID3v2 tag, header and footer included; 0 without one. */
+    static long id3v2TagSize(byte[] data) {
+        if (data.length < ID3V2_HEADER_LENGTH || data[0] != 'I' || data[1] != 'D' || data[2] != '3') {
+            return 0;
+        }
+        long size = 0;
+        for (int i = 6; i < ID3V2_HEADER_LENGTH; i++) {
+            // Sync-safe: seven bits per byte, so the tag body never contains a false frame sync
+            size = (size << 7) | (data[i] & 0x7F);
+        }
+        boolean footer = (data[5] & 0x10) != 0;
+        return ID3V2_HEADER_LENGTH + size + (footer ? ID3V2_HEADER_LENGTH : 0);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.learn.resource_processor.metadata;
+
+import java.util.Arrays;
+
+/**
+ * The parts of an MP3 its metadata lives in, read without downloading the
+ * audio in between.
+ *
+ * @param id3v2Tag  the leading ID3v2 tag, possibly cut short when it is very
+ *                  large; empty when the file has none
+ * @param audioHead the first bytes after the tag, enough for the first frame
+ *                  and the Xing/Info, VBRI or LAME header it may carry
+ * @param audioOffset where {@code audioHead} starts in the file
+ * @param tail      the last 128 bytes of the file, where an ID3v1 tag lives
+ * @param fileSize  the size of the whole file
+ */
+public record Mp3Regions(byte[] id3v2Tag, byte[] audioHead, long audioOffset, byte[] tail, long fileSize) {
+
+    public static final int ID3V1_LENGTH = 128;
+
+    /** The same regions cut out of a file that was downloaded whole. */
+    public static Mp3Regions of(byte[] data) {
+        int tagEnd = (int) Math.min(Mp3RegionReader.id3v2TagSize(data), data.length);
+        int audioEnd = (int) Math.min(data.length, (long) tagEnd + Mp3RegionReader.AUDIO_HEAD_LENGTH);
+        return new Mp3Regions(
+                Arrays.copyOfRange(data, 0, tagEnd),
+                Arrays.copyOfRange(data, tagEnd, audioEnd),
+                tagEnd,
+                Arrays.copyOfRange(data, Math.max(0, data.length - ID3V1_LENGTH), data.length),
+                data.length);
+    }
+
+    public boolean hasId3v1() {
+        return tail.length == ID3V1_LENGTH && tail[0] == 'T' && tail[1] == 'A' && tail[2] == 'G';
+    }
+}
@@ -0,0 +1,92 @@
+package com.learn.resource_processor.metadata;
+
+/**
+ * The 4-byte header in front of every MPEG audio frame, for MPEG 1, 2 and 2.5
+ * layers I to III. Free-format and reserved values are treated as invalid,
+ * which is what lets a scan tell a real frame from a stray sync pattern.
+ */
+public record MpegFrameHeader(int version, int layer, int bitrate, int sampleRate, boolean padding, boolean mono) {
+
+    public static final int MPEG1 = 1;
+    public static final int MPEG2 = 2;
+    public static final int MPEG25 = 25;
+
+    public static final int HEADER_LENGTH = 4;
+
+    // Kbit/s by [MPEG1 ? 0 : 1][layer - 1][index]; index 0 is free format and 15 is reserved
+    private static final int[][][] BITRATES = {
+            {
+                    {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+                    {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320}
+            },
+            {
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+            }
+    };
+    private static final int[] MPEG1_SAMPLE_RATES = {44100, 48000, 32000};
+
+    /** The header at {@code offset}, or null when there is no valid one. */
+    public static MpegFrameHeader parse(byte[] data, int offset) {
+        if (offset < 0 || offset + HEADER_LENGTH > data.length) {
+            return null;
+        }
+        int b1 = data[offset + 1] & 0xFF;
+        int b2 = data[offset + 2] & 0xFF;
+        int b3 = data[offset + 3] & 0xFF;
+        if ((data[offset] & 0xFF) != 0xFF || (b1 & 0xE0) != 0xE0) {
+            return null;
+        }
+
+        int version = switch ((b1 >> 3) & 0x03) {
+            case 0 -> MPEG25;
+            case 2 -> MPEG2;
+            case 3 -> MPEG1;
+            default -> 0;
+        };
+        int layer = 4 - ((b1 >> 1) & 0x03);
+        int bitrateIndex = b2 >> 4;
+        int sampleRateIndex = (b2 >> 2) & 0x03;
+        if (version == 0 || layer == 4 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return null;
+        }
+
+        int bitrate = BITRATES[version == MPEG1 ? 0 : 1][layer - 1][bitrateIndex] * 1000;
+        int sampleRate = MPEG1_SAMPLE_RATES[sampleRateIndex] / (version == MPEG1 ? 1 : version == MPEG2 ? 2 : 4);
+        return new MpegFrameHeader(version, layer, bitrate, sampleRate, (b2 & 0x02) != 0, (b3 >> 6) == 3);
+    }
+
+    public int samplesPerFrame() {
+        if (layer == 1) {
+            return 384;
+        }
+        return layer == 3 && version != MPEG1 ? 576 : 1152;
+    }
+
+    /** Whole frame in bytes, header included. */
+    public int frameLength() {
+        if (layer == 1) {
+            return (12 * bitrate / sampleRate + (padding ? 1 : 0)) * 4;
+        }
+        return samplesPerFrame() / 8 * bitrate / sampleRate + (padding ? 1 : 0);
+    }
+
+    /** Layer III side information between the header and a Xing/Info tag. */
+    public int sideInfoLength() {
+        if (version == MPEG1) {
+            return mono ? 17 : 32;
+        }
+        return mono ? 9 : 17;
+    }
+
+    public double frameSeconds() {
+        return (double) samplesPerFrame() / sampleRate;
+    }
+
+    /** Whether the next frame of the same stream could start with this header. */
+    public boolean sameStream(MpegFrameHeader other) {
+        return other != null && version == other.version && layer == other.layer && sampleRate == other.sampleRate;
+    }
+}
@@ -1,5 +1,10 @@
 package com.learn.resource_processor.service;
 
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+
 public interface ResourceProcessorService {
+    /** Processes a resource known only by ID; its content is downloaded through resource-service. */
     void process(Long resourceId);
+
+    void process(ResourceCreatedEvent event);
 }
@@ -1,83 +1,116 @@
 package com.learn.resource_processor.service.impl;
 
 import com.learn.resource_processor.dto.SongDTO;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.metadata.Id3Parser;
+import com.learn.resource_processor.metadata.Id3Tags;
+import com.learn.resource_processor.metadata.Mp3Duration;
+import com.learn.resource_processor.metadata.Mp3DurationEstimator;
+import com.learn.resource_processor.metadata.Mp3RegionReader;
+import com.learn.resource_processor.metadata.Mp3Regions;
 import com.learn.resource_processor.service.ResourceProcessorService;
-import com.learn.resource_processor.client.ResourceServiceClient;
 import com.learn.resource_processor.client.SongServiceClient;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.parser.mp3.Mp3Parser;
-import org.apache.tika.sax.BodyContentHandler;
+import com.learn.resource_processor.storage.ResourceContentFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 
-import java.io.ByteArrayInputStream;
+import java.util.Optional;
 
 @Service
 public class ResourceProcessorServiceImpl implements ResourceProcessorService {
-    private final ResourceServiceClient resourceServiceClient;
+    private final ResourceContentFetcher contentFetcher;
+    private final Mp3RegionReader regionReader;
     private final SongServiceClient songServiceClient;
+    private final MeterRegistry meterRegistry;
+    private final boolean rangedFetch;
 
-    public ResourceProcessorServiceImpl(ResourceServiceClient resourceServiceClient, SongServiceClient songServiceClient) {
-        this.resourceServiceClient = resourceServiceClient;
+    public ResourceProcessorServiceImpl(ResourceContentFetcher contentFetcher, Mp3RegionReader regionReader,
+                                        SongServiceClient songServiceClient, MeterRegistry meterRegistry,
+                                        @Value("${processor.metadata.fetch-mode:ranged}") String fetchMode) {
+        this.contentFetcher = contentFetcher;
+        this.regionReader = regionReader;
         this.songServiceClient = songServiceClient;
+        this.meterRegistry = meterRegistry;
+        this.rangedFetch = !"full".equalsIgnoreCase(fetchMode);
     }
 
     @Override
     public void process(Long resourceId) {
-        byte[] resourceData = resourceServiceClient.getResourceData(resourceId);
-        SongDTO songDTO = processMp3Resource(resourceData, resourceId);
+        process(ResourceCreatedEvent.ofId(resourceId));
+    }
+
+    @Override
+    public void process(ResourceCreatedEvent event) {
+        SongDTO songDTO = findProcessed(event).orElseGet(() -> rangedFetch
+                ? processMp3Regions(regionReader.read(event), event.resourceId())
+                : processMp3Resource(contentFetcher.fetch(event), event.resourceId()));
+        songDTO.setChecksum(event.checksum());
         songServiceClient.saveSongMetadata(songDTO);
-        System.out.println("Processed resource ID: " + resourceId);
+        System.out.println("Processed resource ID: " + event.resourceId());
+    }
+
+    /**
+     * Metadata of an earlier resource with the same bytes, copied under this
+     * resource's ID so the audio is neither downloaded nor parsed again. Any
+     * failure of the lookup falls back to parsing.
+     */
+    private Optional<SongDTO> findProcessed(ResourceCreatedEvent event) {
+        if (event.checksum() == null) {
+            return Optional.empty();
+        }
+        Optional<SongDTO> existing;
+        try {
+            existing = songServiceClient.findSongByChecksum(event.checksum());
+        } catch (RestClientException e) {
+            System.err.println("Checksum lookup failed for resource ID " + event.resourceId() + ": " + e.getMessage());
+            return Optional.empty();
+        }
+        meterRegistry.counter("processor.metadata.lookups", "result", existing.isPresent() ? "reused" : "parsed")
+                .increment();
+        return existing.map(song -> {
+            SongDTO copy = new SongDTO();
+            copy.setId(event.resourceId());
+            copy.setName(song.getName());
+            copy.setArtist(song.getArtist());
+            copy.setAlbum(song.getAlbum());
+            copy.setDuration(song.getDuration());
+            copy.setYear(song.getYear());
+            return copy;
+        });
     }
 
     private SongDTO processMp3Resource(byte[] mp3Data, Long resourceId) {
-        Metadata metadata = getMetadata(mp3Data);
+        Mp3Regions regions = Mp3Regions.of(mp3Data);
+        return toSongDTO(Id3Parser.parse(regions), Mp3DurationEstimator.estimate(regions, mp3Data), resourceId);
+    }
 
-        String title = getOrDefault(metadata, "title", "Unknown Title");
-        String artist = getOrDefault(metadata, "xmpDM:artist", "Unknown Artist");
-        String album = getOrDefault(metadata, "xmpDM:album", "Unknown Album");
-        String releaseDate = getOrDefault(metadata, "xmpDM:releaseDate", "1900");
-        String durationStr = getOrDefault(metadata, "xmpDM:duration", "0");
+    private SongDTO processMp3Regions(Mp3Regions regions, Long resourceId) {
+        return toSongDTO(Id3Parser.parse(regions), Mp3DurationEstimator.estimate(regions), resourceId);
+    }
+
+    private SongDTO toSongDTO(Id3Tags tags, Mp3Duration duration, Long resourceId) {
+        String title = orDefault(tags.title(), "Unknown Title");
+        String artist = orDefault(tags.artist(), "Unknown Artist");
+        String album = orDefault(tags.album(), "Unknown Album");
+        String releaseDate = orDefault(tags.year(), "1900");
 
-        String formattedDuration = convertDuration(durationStr);
+        meterRegistry.counter("processor.duration.estimates", "accuracy", duration.accuracy().name().toLowerCase())
+                .increment();
 
         SongDTO songDTO = new SongDTO();
         songDTO.setId(resourceId);
         songDTO.setName(title);
         songDTO.setArtist(artist);
         songDTO.setAlbum(album);
-        songDTO.setDuration(formattedDuration);
+        songDTO.setDuration(duration.formatted());
         songDTO.setYear(releaseDate.length() >= 4 ? releaseDate.substring(0, 4) : "1900");
 
         return songDTO;
     }
 
-    private static Metadata getMetadata(byte[] mp3Data) {
-        Metadata metadata = new Metadata();
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(mp3Data)) {
-            Mp3Parser parser = new Mp3Parser();
-            BodyContentHandler handler = new BodyContentHandler();
-            ParseContext context = new ParseContext();
-            parser.parse(bais, handler, metadata, context);
-        } catch (Exception e) {
-            throw new RuntimeException("Error parsing MP3 metadata", e);
-        }
-        return metadata;
-    }
-
-    private String getOrDefault(Metadata metadata, String key, String defaultValue) {
-        String value = metadata.get(key);
+    private String orDefault(String value, String defaultValue) {
         return (value != null && !value.isEmpty()) ? value : defaultValue;
     }
-
-    private String convertDuration(String durationStr) {
-        try {
-            double seconds = Double.parseDouble(durationStr);
-            int minutes = (int) (seconds / 60);
-            int secs = (int) (seconds % 60);
-            return String.format("%02d:%02d", minutes, secs);
-        } catch (NumberFormatException e) {
-            return "00:00"; // Fallback if conversion fails
-        }
-    }
 }
@@ -0,0 +1,92 @@
+package com.learn.resource_processor.storage;
+
+import com.learn.resource_processor.config.LocalStorageProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads objects from the directory resource-service keeps them in when it
+ * runs with {@code storage.type=local}, e.g. on a shared volume.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalStorageReader implements StorageReader {
+    private final Path directory;
+
+    public LocalStorageReader(LocalStorageProperties properties) {
+        this.directory = properties.getDirectory().toAbsolutePath().normalize();
+    }
+
+    @Override
+    public byte[] read(String key) {
+        try {
+            return Files.readAllBytes(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("File not found in storage: " + key, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file from storage: " + key, e);
+        }
+    }
+
+    @Override
+    public ObjectRange readRange(String key, long start, long end) {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid byte range: " + start + "-" + end);
+        }
+        try (FileChannel channel = open(key)) {
+            long size = channel.size();
+            return new ObjectRange(readFully(channel, start, Math.min(end + 1, size)), start, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file from storage: " + key, e);
+        }
+    }
+
+    @Override
+    public ObjectRange readTail(String key, int length) {
+        try (FileChannel channel = open(key)) {
+            long size = channel.size();
+            long start = Math.max(0, size - length);
+            return new ObjectRange(readFully(channel, start, size), start, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file from storage: " + key, e);
+        }
+    }
+
+    private FileChannel open(String key) throws IOException {
+        try {
+            return FileChannel.open(resolve(key), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("File not found in storage: " + key, e);
+        }
+    }
+
+    // Bytes [start, end) of the file; empty when start is at or past its end
+    private static byte[] readFully(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    // Keys come from events, so anything that could leave the directory is rejected
+    private Path resolve(String key) {
+        if (key == null || key.isBlank() || key.length() > 255
+                || key.contains("/") || key.contains("\\") || key.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return directory.resolve(key);
+    }
+}
@@ -0,0 +1,27 @@
+package com.learn.resource_processor.storage;
+
+/**
+ * Part of a stored object as returned by a ranged read: the bytes, where they
+ * start in the object, and the object's total size.
+ */
+public record ObjectRange(byte[] data, long start, long totalSize) {
+
+    /**
+     * Builds the range from a {@code Content-Range} value such as
+     * {@code bytes 0-1023/5000}. Without one the data is the whole object.
+     */
+    public static ObjectRange ofContentRange(byte[] data, String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return new ObjectRange(data, 0, data.length);
+        }
+        try {
+            int dash = contentRange.indexOf('-');
+            int slash = contentRange.indexOf('/');
+            long start = Long.parseLong(contentRange.substring("bytes ".length(), dash).trim());
+            String total = contentRange.substring(slash + 1).trim();
+            return new ObjectRange(data, start, "*".equals(total) ? -1 : Long.parseLong(total));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed Content-Range: " + contentRange, e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.learn.resource_processor.storage;
+
+import com.learn.resource_processor.client.ResourceServiceClient;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Gets the audio of a created resource, or byte ranges of it, preferably
+ * straight from storage by the key in the event, which spares resource-service
+ * a full download and re-send of the file. Whole objects are checked against
+ * the event's size and checksum, ranges against its size. Events without a
+ * key, a disabled or failing store, and content that does not match all fall
+ * back to {@code GET /resources/{id}}, with a Range header for ranges.
+ *
+ * <p>Counts reads as {@code resource.content.fetches{source}}, the bytes they
+ * returned as {@code resource.content.bytes{source}}, and the reasons for
+ * falling back as {@code resource.content.fallbacks{reason}}.
+ */
+@Service
+public class ResourceContentFetcher {
+    private final ResourceServiceClient resourceServiceClient;
+    private final StorageReader storageReader;
+    private final MeterRegistry meterRegistry;
+
+    public ResourceContentFetcher(ResourceServiceClient resourceServiceClient,
+                                  Optional<StorageReader> storageReader,
+                                  MeterRegistry meterRegistry) {
+        this.resourceServiceClient = resourceServiceClient;
+        this.storageReader = storageReader.orElse(null);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public byte[] fetch(ResourceCreatedEvent event) {
+        return fetch(event,
+                reader -> reader.read(event.storageKey()),
+                content -> matches(event, content),
+                () -> resourceServiceClient.getResourceData(event.resourceId()),
+                content -> content.length);
+    }
+
+    /** Bytes {@code start} to {@code end} inclusive, cut back at the end of the resource. */
+    public ObjectRange fetchRange(ResourceCreatedEvent event, long start, long end) {
+        return fetch(event,
+                reader -> reader.readRange(event.storageKey(), start, end),
+                range -> event.size() == null || event.size() == range.totalSize(),
+                () -> resourceServiceClient.getResourceRange(event.resourceId(), start, end),
+                range -> range.data().length);
+    }
+
+    /** The last {@code length} bytes, or the whole resource when it is shorter. */
+    public ObjectRange fetchTail(ResourceCreatedEvent event, int length) {
+        return fetch(event,
+                reader -> reader.readTail(event.storageKey(), length),
+                range -> event.size() == null || event.size() == range.totalSize(),
+                () -> resourceServiceClient.getResourceTail(event.resourceId(), length),
+                range -> range.data().length);
+    }
+
+    private <T> T fetch(ResourceCreatedEvent event, Function<StorageReader, T> fromStorage, Predicate<T> matches,
+                        Supplier<T> fromResourceService, Function<T, Integer> length) {
+        if (storageReader != null && event.storageKey() != null) {
+            try {
+                T content = fromStorage.apply(storageReader);
+                if (matches.test(content)) {
+                    record("storage", length.apply(content));
+                    return content;
+                }
+                System.err.println("Stored object " + event.storageKey() + " does not match resource "
+                        + event.resourceId() + ", downloading through resource-service");
+                fallback("mismatch");
+            } catch (Exception e) {
+                System.err.println("Failed to read resource " + event.resourceId() + " from storage, "
+                        + "downloading through resource-service: " + e.getMessage());
+                fallback("error");
+            }
+        }
+        T content = fromResourceService.get();
+        record("http", content != null ? length.apply(content) : 0);
+        return content;
+    }
+
+    private void record(String source, int bytes) {
+        meterRegistry.counter("resource.content.fetches", "source", source).increment();
+        meterRegistry.summary("resource.content.bytes", "source", source).record(bytes);
+    }
+
+    private void fallback(String reason) {
+        meterRegistry.counter("resource.content.fallbacks", "reason", reason).increment();
+    }
+
+    // Objects are immutable, so a mismatch means a wrong key rather than a newer version
+    private static boolean matches(ResourceCreatedEvent event, byte[] content) {
+        if (event.size() != null && event.size() != content.length) {
+            return false;
+        }
+        return event.checksum() == null || event.checksum().equalsIgnoreCase(sha256(content));
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
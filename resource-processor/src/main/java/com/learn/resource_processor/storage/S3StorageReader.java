@@ -0,0 +1,114 @@
+package com.learn.resource_processor.storage;
+
+import com.learn.resource_processor.config.S3Properties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.net.URI;
+
+/**
+ * Reads objects from resource-service's bucket with a pooled synchronous
+ * client; processing runs on listener threads that block anyway. SDK retries
+ * are left on, since a failed read only falls back to the slower HTTP path.
+ * Without a bucket configured every read fails and the HTTP path is used.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3StorageReader implements StorageReader {
+    private final S3Client s3Client;
+    private final String bucketName;
+
+    public S3StorageReader(@Value("${AWS_ACCESS_KEY:}") String awsAccessKey,
+                           @Value("${AWS_SECRET_KEY:}") String awsSecretKey,
+                           @Value("${AWS_BUCKET_NAME:my-app-mp3-resources}") String bucketName,
+                           @Value("${AWS_REGION:eu-central-1}") String awsRegion,
+                           S3Properties properties) {
+        this.bucketName = bucketName;
+        if (bucketName.isBlank()) {
+            System.err.println("AWS_BUCKET_NAME is not set; resources will be downloaded through resource-service");
+            this.s3Client = null;
+        } else {
+            this.s3Client = buildClient(awsAccessKey, awsSecretKey, awsRegion, properties);
+        }
+    }
+
+    private static S3Client buildClient(String awsAccessKey, String awsSecretKey, String awsRegion, S3Properties properties) {
+        S3Properties.Client client = properties.getClient();
+        // Without explicit keys the usual chain applies, e.g. an instance or pod role
+        AwsCredentialsProvider credentials = awsAccessKey.isBlank()
+                ? DefaultCredentialsProvider.builder().build()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(awsAccessKey, awsSecretKey));
+
+        S3ClientBuilder builder = S3Client.builder()
+                .credentialsProvider(credentials)
+                .region(Region.of(awsRegion))
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(client.getMaxConnections())
+                        .connectionAcquisitionTimeout(client.getConnectionAcquisitionTimeout())
+                        .connectionTimeout(client.getConnectionTimeout())
+                        .socketTimeout(client.getSocketTimeout())
+                        .tcpKeepAlive(true))
+                .overrideConfiguration(config -> config.apiCallTimeout(client.getApiCallTimeout()));
+
+        if (properties.getEndpoint() != null && !properties.getEndpoint().isBlank()) {
+            builder.endpointOverride(URI.create(properties.getEndpoint()))
+                    .forcePathStyle(properties.isPathStyleAccess());
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public byte[] read(String key) {
+        return get(key, null).asByteArray();
+    }
+
+    @Override
+    public ObjectRange readRange(String key, long start, long end) {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid byte range: " + start + "-" + end);
+        }
+        return toRange(get(key, "bytes=" + start + "-" + end));
+    }
+
+    @Override
+    public ObjectRange readTail(String key, int length) {
+        return toRange(get(key, "bytes=-" + length));
+    }
+
+    private ResponseBytes<GetObjectResponse> get(String key, String range) {
+        if (s3Client == null) {
+            throw new IllegalStateException("No S3 bucket configured");
+        }
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range(range)
+                .build();
+        return s3Client.getObjectAsBytes(request);
+    }
+
+    private static ObjectRange toRange(ResponseBytes<GetObjectResponse> bytes) {
+        return ObjectRange.ofContentRange(bytes.asByteArray(), bytes.response().contentRange());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (s3Client != null) {
+            s3Client.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.learn.resource_processor.storage;
+
+/**
+ * Read access to the store resource-service writes MP3 objects to, chosen by
+ * {@code storage.type}: {@code s3} (the default), {@code local}, or
+ * {@code none} to always download through resource-service. Objects are
+ * addressed by the storage key carried in the resource-created event.
+ */
+public interface StorageReader {
+
+    byte[] read(String key);
+
+    /** Bytes {@code start} to {@code end} inclusive; an end past the last byte is cut back to it. */
+    ObjectRange readRange(String key, long start, long end);
+
+    /** The last {@code length} bytes, or the whole object when it is shorter. */
+    ObjectRange readTail(String key, int length);
+}
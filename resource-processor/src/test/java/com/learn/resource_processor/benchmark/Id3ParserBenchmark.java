@@ -0,0 +1,101 @@
+package com.learn.resource_processor.benchmark;
+
+import com.learn.resource_processor.metadata.Id3Parser;
+import com.learn.resource_processor.metadata.Id3Tags;
+import com.learn.resource_processor.metadata.Mp3DurationEstimator;
+import com.learn.resource_processor.metadata.Mp3Regions;
+import com.learn.resource_processor.support.Mp3TestFiles;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.mp3.Mp3Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the native ID3 parser with the per-message Tika {@code Mp3Parser}
+ * it replaced, both getting the whole file and producing title, artist,
+ * album, year and duration. The corpus is the UTF-16 tagged test.mp3 from
+ * resource-service, the same audio with Latin-1 tags and 64 KiB of padding,
+ * and with only an ID3v1 tag. Add {@code -prof gc} to the runner to compare
+ * allocation per file.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.learn.resource_processor.benchmark.Id3ParserBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Id3ParserBenchmark {
+
+    @Param({"utf16-id3v23", "padded-id3v23", "id3v1-only"})
+    private String file;
+
+    private byte[] mp3Data;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] sample;
+        try (InputStream in = Id3ParserBenchmark.class.getResourceAsStream("/test.mp3")) {
+            sample = in.readAllBytes();
+        }
+        int tagSize = 10 + ((sample[6] & 0x7F) << 21 | (sample[7] & 0x7F) << 14
+                | (sample[8] & 0x7F) << 7 | (sample[9] & 0x7F));
+        byte[] audio = Arrays.copyOfRange(sample, tagSize, sample.length - 128);
+
+        Map<String, String> frames = new LinkedHashMap<>();
+        frames.put("TIT2", "Test Title");
+        frames.put("TPE1", "Test Artist");
+        frames.put("TALB", "Test Album");
+        frames.put("TYER", "2025");
+        byte[] id3v1 = Mp3TestFiles.id3v1("Test Title", "Test Artist", "Test Album", "2025");
+        mp3Data = switch (file) {
+            case "utf16-id3v23" -> sample;
+            case "padded-id3v23" -> Mp3TestFiles.concat(Mp3TestFiles.id3v23(frames, 64 * 1024), audio, id3v1);
+            case "id3v1-only" -> Mp3TestFiles.concat(audio, id3v1);
+            default -> throw new IllegalArgumentException(file);
+        };
+    }
+
+    @Benchmark
+    public void tikaMp3Parser(Blackhole blackhole) throws Exception {
+        Metadata metadata = new Metadata();
+        try (ByteArrayInputStream in = new ByteArrayInputStream(mp3Data)) {
+            new Mp3Parser().parse(in, new BodyContentHandler(), metadata, new ParseContext());
+        }
+        blackhole.consume(metadata.get("dc:title"));
+        blackhole.consume(metadata.get("xmpDM:artist"));
+        blackhole.consume(metadata.get("xmpDM:album"));
+        blackhole.consume(metadata.get("xmpDM:releaseDate"));
+        blackhole.consume(metadata.get("xmpDM:duration"));
+    }
+
+    @Benchmark
+    public void nativeParser(Blackhole blackhole) {
+        Mp3Regions regions = Mp3Regions.of(mp3Data);
+        Id3Tags tags = Id3Parser.parse(regions);
+        blackhole.consume(tags);
+        blackhole.consume(Mp3DurationEstimator.estimate(regions, mp3Data));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Id3ParserBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.learn.resource_processor.benchmark;
+
+import com.learn.resource_processor.metadata.Mp3Duration;
+import com.learn.resource_processor.metadata.Mp3DurationEstimator;
+import com.learn.resource_processor.metadata.Mp3Regions;
+import com.learn.resource_processor.support.Mp3TestFiles;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.mp3.Mp3Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration of a four-minute track from Tika, which walks and reads every
+ * frame, against the estimator on a whole file (header count, else a
+ * header-to-header scan) and on the regions a ranged read delivers. The
+ * files are CBR, VBR with a Xing and LAME header, and VBR without one, which
+ * is the case that makes the whole-file path scan.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.learn.resource_processor.benchmark.Mp3DurationBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Mp3DurationBenchmark {
+    private static final int FRAMES = (int) (240 / Mp3TestFiles.FRAME_SECONDS);
+
+    @Param({"cbr", "vbr-lame", "vbr-no-header"})
+    private String file;
+
+    private byte[] mp3Data;
+    private Mp3Regions rangedRegions;
+
+    @Setup
+    public void setUp() {
+        byte[] tag = Mp3TestFiles.id3v23("Title", "Artist", "Album", "2024");
+        byte[] audio = switch (file) {
+            case "cbr" -> Mp3TestFiles.cbr(FRAMES);
+            case "vbr-lame" -> Mp3TestFiles.concat(Mp3TestFiles.lameFrame(FRAMES, 576, 1200),
+                    Mp3TestFiles.vbr(FRAMES));
+            case "vbr-no-header" -> Mp3TestFiles.vbr(FRAMES);
+            default -> throw new IllegalArgumentException(file);
+        };
+        mp3Data = Mp3TestFiles.concat(tag, audio);
+        // What Mp3RegionReader hands over: the cut is the same, only the rest of the file is never read
+        rangedRegions = Mp3Regions.of(mp3Data);
+    }
+
+    @Benchmark
+    public String tikaEveryFrame() throws Exception {
+        Metadata metadata = new Metadata();
+        try (ByteArrayInputStream in = new ByteArrayInputStream(mp3Data)) {
+            new Mp3Parser().parse(in, new BodyContentHandler(), metadata, new ParseContext());
+        }
+        return metadata.get("xmpDM:duration");
+    }
+
+    @Benchmark
+    public Mp3Duration wholeFile() {
+        return Mp3DurationEstimator.estimate(Mp3Regions.of(mp3Data), mp3Data);
+    }
+
+    @Benchmark
+    public Mp3Duration rangedRegions() {
+        return Mp3DurationEstimator.estimate(rangedRegions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Mp3DurationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
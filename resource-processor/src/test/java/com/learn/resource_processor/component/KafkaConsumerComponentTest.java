@@ -1,5 +1,6 @@
 package com.learn.resource_processor.component;
 
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
 import com.learn.resource_processor.service.ResourceProcessorService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,7 +26,6 @@ import static org.mockito.Mockito.verify;
 @TestPropertySource(properties = {
         "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
         "spring.kafka.consumer.auto-offset-reset=earliest",
-        "spring.kafka.consumer.value-deserializer=org.apache.kafka.common.serialization.LongDeserializer",
         "spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.LongSerializer"
 })
 @DirtiesContext
@@ -50,7 +50,7 @@ class KafkaConsumerComponentTest {
         // Then
         await().atMost(Duration.ofSeconds(5))
                 .untilAsserted(() -> {
-                    verify(resourceProcessorService).process(resourceId);
+                    verify(resourceProcessorService).process(ResourceCreatedEvent.ofId(resourceId));
                 });
     }
 
@@ -68,7 +68,7 @@ class KafkaConsumerComponentTest {
         await().atMost(Duration.ofSeconds(10))
                 .untilAsserted(() -> {
                     resourceIds.forEach(id ->
-                            verify(resourceProcessorService).process(id));
+                            verify(resourceProcessorService).process(ResourceCreatedEvent.ofId(id)));
                 });
     }
 }
@@ -28,7 +28,8 @@ import static org.mockito.Mockito.*;
         "resource-service.url=localhost",
         "resource-service.port=8081",
         "song-service.url=localhost",
-        "song-service.port=8082"
+        "song-service.port=8082",
+        "processor.metadata.fetch-mode=full"
 })
 @DirtiesContext
 class ResourceProcessorComponentTest {
@@ -4,23 +4,30 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.learn.resource_processor.client.ResourceServiceClient;
 import com.learn.resource_processor.client.SongServiceClient;
 import com.learn.resource_processor.dto.SongDTO;
+import com.learn.resource_processor.storage.ObjectRange;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Optional;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatCode;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @SpringBootTest
@@ -39,19 +46,28 @@ class RestClientsComponentTest {
     @Autowired
     private SongServiceClient songServiceClient;
 
-    private MockRestServiceServer mockServer;
+    private MockRestServiceServer resourceServiceServer;
+
+    private MockRestServiceServer songServiceServer;
+
+    @Autowired
+    @Qualifier("resourceServiceRestTemplate")
+    private RestTemplate resourceServiceRestTemplate;
 
     @Autowired
-    private RestTemplate restTemplate;
+    @Qualifier("songServiceRestTemplate")
+    private RestTemplate songServiceRestTemplate;
 
     @BeforeEach
     void setUp() {
-        mockServer = MockRestServiceServer.createServer(restTemplate);
+        resourceServiceServer = MockRestServiceServer.createServer(resourceServiceRestTemplate);
+        songServiceServer = MockRestServiceServer.createServer(songServiceRestTemplate);
     }
 
     @AfterEach
     void tearDown() {
-        mockServer.verify();
+        resourceServiceServer.verify();
+        songServiceServer.verify();
     }
 
     @Test
@@ -61,7 +77,7 @@ class RestClientsComponentTest {
         Long resourceId = 123L;
         byte[] expectedData = "mock mp3 data".getBytes();
 
-        mockServer.expect(requestTo("http://localhost:8081/resources/123"))
+        resourceServiceServer.expect(requestTo("http://localhost:8081/resources/123"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withSuccess(expectedData, MediaType.APPLICATION_OCTET_STREAM));
 
@@ -79,11 +95,11 @@ class RestClientsComponentTest {
         Long resourceId = 456L;
         byte[] expectedData = "mock mp3 data".getBytes();
 
-        mockServer.expect(requestTo("http://localhost:8081/resources/456"))
+        resourceServiceServer.expect(requestTo("http://localhost:8081/resources/456"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withServerError());
 
-        mockServer.expect(requestTo("http://localhost:8081/resources/456"))
+        resourceServiceServer.expect(requestTo("http://localhost:8081/resources/456"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withSuccess(expectedData, MediaType.APPLICATION_OCTET_STREAM));
 
@@ -94,13 +110,53 @@ class RestClientsComponentTest {
         assertThat(actualData).isEqualTo(expectedData);
     }
 
+    @Test
+    @DisplayName("Resource service client should request a byte range")
+    void resourceServiceClientShouldRequestByteRange() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes 0-3/5000");
+        resourceServiceServer.expect(requestTo("http://localhost:8081/resources/123"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.RANGE, "bytes=0-3"))
+                .andRespond(withStatus(HttpStatus.PARTIAL_CONTENT)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .headers(headers)
+                        .body(new byte[]{'I', 'D', '3', 4}));
+
+        // When
+        ObjectRange range = resourceServiceClient.getResourceRange(123L, 0, 3);
+
+        // Then
+        assertThat(range.data()).isEqualTo(new byte[]{'I', 'D', '3', 4});
+        assertThat(range.start()).isEqualTo(0L);
+        assertThat(range.totalSize()).isEqualTo(5000L);
+    }
+
+    @Test
+    @DisplayName("Resource service client should cut the range itself when it is ignored")
+    void resourceServiceClientShouldCutIgnoredRange() {
+        // Given
+        resourceServiceServer.expect(requestTo("http://localhost:8081/resources/123"))
+                .andExpect(header(HttpHeaders.RANGE, "bytes=-2"))
+                .andRespond(withSuccess(new byte[]{1, 2, 3, 4, 5}, MediaType.APPLICATION_OCTET_STREAM));
+
+        // When
+        ObjectRange tail = resourceServiceClient.getResourceTail(123L, 2);
+
+        // Then
+        assertThat(tail.data()).isEqualTo(new byte[]{4, 5});
+        assertThat(tail.start()).isEqualTo(3L);
+        assertThat(tail.totalSize()).isEqualTo(5L);
+    }
+
     @Test
     @DisplayName("Song service client should save song metadata")
     void songServiceClientShouldSaveSongMetadata() {
         // Given
         SongDTO songDTO = createTestSongDTO();
 
-        mockServer.expect(requestTo("http://localhost:8082/songs"))
+        songServiceServer.expect(requestTo("http://localhost:8082/songs"))
                 .andExpect(method(HttpMethod.POST))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andRespond(withSuccess(asJsonString(songDTO), MediaType.APPLICATION_JSON));
@@ -116,11 +172,11 @@ class RestClientsComponentTest {
         // Given
         SongDTO songDTO = createTestSongDTO();
 
-        mockServer.expect(requestTo("http://localhost:8082/songs"))
+        songServiceServer.expect(requestTo("http://localhost:8082/songs"))
                 .andExpect(method(HttpMethod.POST))
                 .andRespond(withServerError());
 
-        mockServer.expect(requestTo("http://localhost:8082/songs"))
+        songServiceServer.expect(requestTo("http://localhost:8082/songs"))
                 .andExpect(method(HttpMethod.POST))
                 .andRespond(withSuccess(asJsonString(songDTO), MediaType.APPLICATION_JSON));
 
@@ -129,6 +185,41 @@ class RestClientsComponentTest {
                 .doesNotThrowAnyException();
     }
 
+    @Test
+    @DisplayName("Song service client should find metadata by checksum")
+    void songServiceClientShouldFindSongByChecksum() {
+        // Given
+        SongDTO songDTO = createTestSongDTO();
+        String checksum = "ab".repeat(32);
+
+        songServiceServer.expect(requestTo("http://localhost:8082/songs?checksum=" + checksum))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(asJsonString(songDTO), MediaType.APPLICATION_JSON));
+
+        // When
+        Optional<SongDTO> found = songServiceClient.findSongByChecksum(checksum);
+
+        // Then
+        assertThat(found.map(SongDTO::getName).orElse(null)).isEqualTo("Test Song");
+    }
+
+    @Test
+    @DisplayName("Song service client should report an unknown checksum as empty")
+    void songServiceClientShouldReturnEmptyForUnknownChecksum() {
+        // Given
+        String checksum = "cd".repeat(32);
+
+        songServiceServer.expect(requestTo("http://localhost:8082/songs?checksum=" + checksum))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // When
+        Optional<SongDTO> found = songServiceClient.findSongByChecksum(checksum);
+
+        // Then
+        assertThat(found.isPresent()).isFalse();
+    }
+
     private SongDTO createTestSongDTO() {
         SongDTO songDTO = new SongDTO();
         songDTO.setId(1L);
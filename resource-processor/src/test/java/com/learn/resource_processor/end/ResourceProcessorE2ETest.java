@@ -64,7 +64,7 @@ class ResourceProcessorE2ETest {
         registry.add("spring.kafka.consumer.group-id", () -> "test-group");
         registry.add("management.endpoints.web.exposure.include", () -> "health,info");
         registry.add("spring.kafka.producer.value-serializer", () -> "org.apache.kafka.common.serialization.LongSerializer");
-        registry.add("spring.kafka.consumer.value-deserializer", () -> "org.apache.kafka.common.serialization.LongDeserializer");
+        registry.add("processor.metadata.fetch-mode", () -> "full");
     }
 
     @BeforeEach
@@ -0,0 +1,111 @@
+package com.learn.resource_processor.integration;
+
+import com.learn.resource_processor.client.ResourceServiceClient;
+import com.learn.resource_processor.client.SongServiceClient;
+import com.learn.resource_processor.kafka.ResourceConsumer;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.service.ResourceProcessorService;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 3, topics = {"resource-created"})
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=test-resource-processor-batch-group",
+        "processor.kafka.partitions=3",
+        "processor.kafka.concurrency=3",
+        "processor.kafka.batch=true"
+})
+@DirtiesContext
+class KafkaBatchConsumerIntegrationTest {
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @MockitoBean
+    private ResourceProcessorService resourceProcessorService;
+
+    @MockitoBean
+    private ResourceServiceClient resourceServiceClient;
+
+    @MockitoBean
+    private SongServiceClient songServiceClient;
+
+    @Test
+    @Timeout(30)
+    void shouldProcessEveryEventOnOneListenerThreadPerPartition() throws InterruptedException {
+        // Given
+        List<Long> resourceIds = LongStream.rangeClosed(1, 30).boxed().toList();
+        CountDownLatch latch = new CountDownLatch(resourceIds.size());
+        Set<String> listenerThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            listenerThreads.add(Thread.currentThread().getName());
+            latch.countDown();
+            return null;
+        }).when(resourceProcessorService).process(any(ResourceCreatedEvent.class));
+
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, embeddedKafka.getPartitionsPerTopic());
+        }
+
+        // When
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafka);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
+        try (KafkaProducer<String, Long> producer = new KafkaProducer<>(producerProps)) {
+            for (Long resourceId : resourceIds) {
+                producer.send(new ProducerRecord<>("resource-created", resourceId.toString(), resourceId));
+            }
+        }
+
+        // Then
+        assertTrue(latch.await(20, TimeUnit.SECONDS), "All events should be processed within 20 seconds");
+
+        ArgumentCaptor<ResourceCreatedEvent> captor = ArgumentCaptor.forClass(ResourceCreatedEvent.class);
+        verify(resourceProcessorService, times(resourceIds.size())).process(captor.capture());
+        assertThat(captor.getAllValues()).extracting(ResourceCreatedEvent::resourceId)
+                .containsExactlyInAnyOrderElementsOf(resourceIds);
+        assertThat(listenerThreads).hasSize(3);
+        assertThat(applicationContext.getBeansOfType(ResourceConsumer.class)).isEmpty();
+    }
+}
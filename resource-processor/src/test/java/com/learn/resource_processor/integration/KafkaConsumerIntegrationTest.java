@@ -4,6 +4,7 @@ import com.learn.resource_processor.client.ResourceServiceClient;
 import com.learn.resource_processor.client.SongServiceClient;
 import com.learn.resource_processor.dto.SongDTO;
 import com.learn.resource_processor.kafka.ResourceConsumer;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
 import com.learn.resource_processor.service.ResourceProcessorService;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -93,7 +94,7 @@ class KafkaConsumerIntegrationTest {
         doAnswer(invocation -> {
             latch.countDown();
             return null;
-        }).when(resourceProcessorService).process(anyLong());
+        }).when(resourceProcessorService).process(any(ResourceCreatedEvent.class));
 
         // When
         sendMessageToKafka(TEST_RESOURCE_ID);
@@ -101,8 +102,8 @@ class KafkaConsumerIntegrationTest {
         // Then
         assertTrue(latch.await(5, TimeUnit.SECONDS), "Message should be consumed within 5 seconds");
 
-        verify(resourceConsumer, times(1)).consume(TEST_RESOURCE_ID);
-        verify(resourceProcessorService, times(1)).process(TEST_RESOURCE_ID);
+        verify(resourceConsumer, times(1)).consume(ResourceCreatedEvent.ofId(TEST_RESOURCE_ID));
+        verify(resourceProcessorService, times(1)).process(ResourceCreatedEvent.ofId(TEST_RESOURCE_ID));
     }
 
     @Test
@@ -115,7 +116,7 @@ class KafkaConsumerIntegrationTest {
         doAnswer(invocation -> {
             latch.countDown();
             return null;
-        }).when(resourceProcessorService).process(anyLong());
+        }).when(resourceProcessorService).process(any(ResourceCreatedEvent.class));
 
         // When
         for (Long resourceId : resourceIds) {
@@ -126,14 +127,14 @@ class KafkaConsumerIntegrationTest {
         assertTrue(latch.await(10, TimeUnit.SECONDS),
                 "All messages should be consumed within 10 seconds");
 
-        verify(resourceConsumer, times(3)).consume(anyLong());
-        verify(resourceProcessorService, times(3)).process(anyLong());
+        verify(resourceConsumer, times(3)).consume(any());
+        verify(resourceProcessorService, times(3)).process(any(ResourceCreatedEvent.class));
 
         // Verify each specific resource ID was processed
-        ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<ResourceCreatedEvent> captor = ArgumentCaptor.forClass(ResourceCreatedEvent.class);
         verify(resourceProcessorService, times(3)).process(captor.capture());
 
-        List<Long> processedIds = captor.getAllValues();
+        List<Long> processedIds = captor.getAllValues().stream().map(ResourceCreatedEvent::resourceId).toList();
         assertThat(processedIds).containsExactlyInAnyOrderElementsOf(resourceIds);
     }
 
@@ -147,7 +148,7 @@ class KafkaConsumerIntegrationTest {
         doAnswer(invocation -> {
             latch.countDown();
             return null;
-        }).when(resourceProcessorService).process(anyLong());
+        }).when(resourceProcessorService).process(any(ResourceCreatedEvent.class));
 
         // When
         sendMessageToKafka(numericResourceId);
@@ -155,8 +156,8 @@ class KafkaConsumerIntegrationTest {
         // Then
         assertTrue(latch.await(5, TimeUnit.SECONDS));
 
-        verify(resourceConsumer, times(1)).consume(numericResourceId);
-        verify(resourceProcessorService, times(1)).process(numericResourceId);
+        verify(resourceConsumer, times(1)).consume(ResourceCreatedEvent.ofId(numericResourceId));
+        verify(resourceProcessorService, times(1)).process(ResourceCreatedEvent.ofId(numericResourceId));
     }
 
     @Test
@@ -168,7 +169,7 @@ class KafkaConsumerIntegrationTest {
         doAnswer(invocation -> {
             latch.countDown();
             throw new RuntimeException("Processing failed");
-        }).when(resourceProcessorService).process(anyLong());
+        }).when(resourceProcessorService).process(any(ResourceCreatedEvent.class));
 
         // When
         sendMessageToKafka(TEST_RESOURCE_ID);
@@ -176,8 +177,8 @@ class KafkaConsumerIntegrationTest {
         // Then
         assertTrue(latch.await(5, TimeUnit.SECONDS));
 
-        verify(resourceConsumer, times(1)).consume(TEST_RESOURCE_ID);
-        verify(resourceProcessorService, times(1)).process(TEST_RESOURCE_ID);
+        verify(resourceConsumer, times(1)).consume(ResourceCreatedEvent.ofId(TEST_RESOURCE_ID));
+        verify(resourceProcessorService, times(1)).process(ResourceCreatedEvent.ofId(TEST_RESOURCE_ID));
 
         // The consumer should have attempted processing despite the exception
         verifyNoMoreInteractions(resourceProcessorService);
@@ -192,7 +193,7 @@ class KafkaConsumerIntegrationTest {
         doAnswer(invocation -> {
             latch.countDown();
             return null;
-        }).when(resourceProcessorService).process(anyLong());
+        }).when(resourceProcessorService).process(any(ResourceCreatedEvent.class));
 
         // When
         sendMessageToKafka(TEST_RESOURCE_ID);
@@ -201,7 +202,7 @@ class KafkaConsumerIntegrationTest {
         assertTrue(latch.await(5, TimeUnit.SECONDS));
 
         // The fact that the message was consumed confirms the consumer group is working
-        verify(resourceConsumer, times(1)).consume(TEST_RESOURCE_ID);
+        verify(resourceConsumer, times(1)).consume(ResourceCreatedEvent.ofId(TEST_RESOURCE_ID));
     }
 
     @Test
@@ -220,12 +221,12 @@ class KafkaConsumerIntegrationTest {
 
         doAnswer(invocation -> {
             // Simulate the real service behavior
-            Long id = invocation.getArgument(0);
-            resourceServiceClient.getResourceData(id);
+            ResourceCreatedEvent event = invocation.getArgument(0);
+            resourceServiceClient.getResourceData(event.resourceId());
             songServiceClient.saveSongMetadata(any(SongDTO.class));
             latch.countDown();
             return null;
-        }).when(resourceProcessorService).process(anyLong());
+        }).when(resourceProcessorService).process(any(ResourceCreatedEvent.class));
 
         // When
         sendMessageToKafka(resourceId);
@@ -233,8 +234,8 @@ class KafkaConsumerIntegrationTest {
         // Then
         assertTrue(latch.await(5, TimeUnit.SECONDS));
 
-        verify(resourceConsumer, times(1)).consume(resourceId);
-        verify(resourceProcessorService, times(1)).process(resourceId);
+        verify(resourceConsumer, times(1)).consume(ResourceCreatedEvent.ofId(resourceId));
+        verify(resourceProcessorService, times(1)).process(ResourceCreatedEvent.ofId(resourceId));
     }
 
     private void sendMessageToKafka(Long resourceId) {
@@ -3,13 +3,20 @@ package com.learn.resource_processor.integration;
 import com.learn.resource_processor.client.ResourceServiceClient;
 import com.learn.resource_processor.client.SongServiceClient;
 import com.learn.resource_processor.dto.SongDTO;
+import com.learn.resource_processor.metadata.Mp3RegionReader;
 import com.learn.resource_processor.service.impl.ResourceProcessorServiceImpl;
+import com.learn.resource_processor.storage.ObjectRange;
+import com.learn.resource_processor.storage.ResourceContentFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.util.Arrays;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -19,16 +26,26 @@ class ResourceProcessorServiceIntegrationTest {
     @MockitoBean
     private ResourceServiceClient resourceServiceClient;
 
+    @Autowired
+    private ResourceContentFetcher contentFetcher;
+
+    @Autowired
+    private Mp3RegionReader regionReader;
+
     @MockitoBean
     private SongServiceClient songServiceClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private ResourceProcessorServiceImpl resourceProcessorService;
 
     private byte[] validMp3Data;
 
     @BeforeEach
     void setUp() {
-        resourceProcessorService = new ResourceProcessorServiceImpl(resourceServiceClient, songServiceClient);
+        resourceProcessorService = new ResourceProcessorServiceImpl(contentFetcher, regionReader, songServiceClient,
+                meterRegistry, "full");
         validMp3Data = createValidMp3Data();
     }
 
@@ -51,6 +68,26 @@ class ResourceProcessorServiceIntegrationTest {
         assertThat(songDTO.getYear()).isNotEmpty();
     }
 
+    @Test
+    void shouldProcessResourceFromRangedReadsThroughResourceService() {
+        Long resourceId = 124L;
+        ResourceProcessorServiceImpl rangedService =
+                new ResourceProcessorServiceImpl(contentFetcher, regionReader, songServiceClient, meterRegistry, "ranged");
+        when(resourceServiceClient.getResourceRange(eq(resourceId), anyLong(), anyLong())).thenAnswer(inv -> {
+            long start = inv.getArgument(1);
+            long end = Math.min((long) inv.getArgument(2), validMp3Data.length - 1);
+            return new ObjectRange(Arrays.copyOfRange(validMp3Data, (int) start, (int) end + 1), start, validMp3Data.length);
+        });
+
+        rangedService.process(resourceId);
+
+        verify(resourceServiceClient, never()).getResourceData(anyLong());
+        ArgumentCaptor<SongDTO> songCaptor = ArgumentCaptor.forClass(SongDTO.class);
+        verify(songServiceClient, times(1)).saveSongMetadata(songCaptor.capture());
+        assertThat(songCaptor.getValue().getId()).isEqualTo(124L);
+        assertThat(songCaptor.getValue().getDuration()).matches("\\d{2}:\\d{2}");
+    }
+
     private byte[] createValidMp3Data() {
         byte[] mp3Header = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x00};
         byte[] fullMp3 = new byte[1024];
@@ -0,0 +1,153 @@
+package com.learn.resource_processor.support;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds small MP3 files for tests: silent MPEG-1 Layer III frames at
+ * 128 kbit/s and 44.1 kHz, which are 417 bytes without padding and last
+ * 1152 / 44100 seconds each, plus VBR streams and ID3 tags around them.
+ */
+public final class Mp3TestFiles {
+    public static final int FRAME_LENGTH = 417;
+    public static final double FRAME_SECONDS = 1152.0 / 44100;
+    /** A 192 kbit/s frame of {@link #vbr}. */
+    public static final int VBR_FRAME_LENGTH = 626;
+
+    private Mp3TestFiles() {
+    }
+
+    public static byte[] frame() {
+        byte[] frame = new byte[FRAME_LENGTH];
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB;
+        frame[2] = (byte) 0x90;
+        frame[3] = (byte) 0x00;
+        return frame;
+    }
+
+    public static byte[] cbr(int frames) {
+        byte[] frame = frame();
+        byte[] audio = new byte[frames * FRAME_LENGTH];
+        for (int i = 0; i < frames; i++) {
+            System.arraycopy(frame, 0, audio, i * FRAME_LENGTH, FRAME_LENGTH);
+        }
+        return audio;
+    }
+
+    /** A first frame carrying a Xing header that counts {@code frames} frames. */
+    public static byte[] xingFrame(int frames) {
+        byte[] frame = frame();
+        int tag = 4 + 32;
+        System.arraycopy("Xing".getBytes(StandardCharsets.US_ASCII), 0, frame, tag, 4);
+        frame[tag + 7] = 0x01;
+        writeInt(frame, tag + 8, frames);
+        return frame;
+    }
+
+    /** A Xing frame followed by a LAME header recording the encoder delay and padding in samples. */
+    public static byte[] lameFrame(int frames, int delay, int padding) {
+        byte[] frame = xingFrame(frames);
+        int lame = 4 + 32 + 12;
+        System.arraycopy("LAME3.100".getBytes(StandardCharsets.US_ASCII), 0, frame, lame, 9);
+        frame[lame + 21] = (byte) (delay >> 4);
+        frame[lame + 22] = (byte) ((delay & 0x0F) << 4 | (padding >> 8));
+        frame[lame + 23] = (byte) padding;
+        return frame;
+    }
+
+    /** Frames alternating between 128 and 192 kbit/s, like a VBR encoder's output. */
+    public static byte[] vbr(int frames) {
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        for (int i = 0; i < frames; i++) {
+            if (i % 2 == 0) {
+                audio.writeBytes(frame());
+            } else {
+                byte[] frame = new byte[VBR_FRAME_LENGTH];
+                frame[0] = (byte) 0xFF;
+                frame[1] = (byte) 0xFB;
+                frame[2] = (byte) 0xB0;
+                audio.writeBytes(frame);
+            }
+        }
+        return audio.toByteArray();
+    }
+
+    /** A first frame carrying a VBRI header that counts {@code frames} frames. */
+    public static byte[] vbriFrame(int frames) {
+        byte[] frame = frame();
+        int tag = 4 + 32;
+        System.arraycopy("VBRI".getBytes(StandardCharsets.US_ASCII), 0, frame, tag, 4);
+        writeInt(frame, tag + 14, frames);
+        return frame;
+    }
+
+    /** An ID3v2.3 tag with ISO-8859-1 text frames, e.g. TIT2 or TPE1, and zero padding. */
+    public static byte[] id3v23(Map<String, String> textFrames, int padding) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (Map.Entry<String, String> frame : textFrames.entrySet()) {
+            byte[] text = frame.getValue().getBytes(StandardCharsets.ISO_8859_1);
+            body.writeBytes(frame.getKey().getBytes(StandardCharsets.US_ASCII));
+            byte[] size = new byte[4];
+            writeInt(size, 0, text.length + 1);
+            body.writeBytes(size);
+            body.writeBytes(new byte[]{0, 0, 0});
+            body.writeBytes(text);
+        }
+        body.writeBytes(new byte[padding]);
+
+        int size = body.size();
+        byte[] header = {'I', 'D', '3', 3, 0, 0,
+                (byte) ((size >> 21) & 0x7F), (byte) ((size >> 14) & 0x7F), (byte) ((size >> 7) & 0x7F), (byte) (size & 0x7F)};
+        return concat(header, body.toByteArray());
+    }
+
+    public static byte[] id3v23(String title, String artist, String album, String year) {
+        Map<String, String> frames = new LinkedHashMap<>();
+        frames.put("TIT2", title);
+        frames.put("TPE1", artist);
+        frames.put("TALB", album);
+        frames.put("TYER", year);
+        return id3v23(frames, 0);
+    }
+
+    public static byte[] id3v1(String title, String artist, String album, String year) {
+        byte[] tag = new byte[128];
+        tag[0] = 'T';
+        tag[1] = 'A';
+        tag[2] = 'G';
+        put(tag, 3, 30, title);
+        put(tag, 33, 30, artist);
+        put(tag, 63, 30, album);
+        put(tag, 93, 4, year);
+        tag[127] = (byte) 0xFF;
+        return tag;
+    }
+
+    public static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] slice(byte[] data, long start, long end) {
+        return Arrays.copyOfRange(data, (int) start, (int) Math.min(end + 1, data.length));
+    }
+
+    private static void put(byte[] tag, int offset, int length, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(bytes, 0, tag, offset, Math.min(length, bytes.length));
+    }
+
+    private static void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.learn.resource_processor.unit.kafka;
+
+import com.learn.resource_processor.kafka.ResourceBatchConsumer;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.kafka.ResourceCreatedEventDeserializer;
+import com.learn.resource_processor.service.ResourceProcessorService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResourceBatchConsumerTest {
+    private static final String TOPIC = "resource-created";
+
+    private ResourceProcessorService resourceProcessorService;
+    private ResourceBatchConsumer resourceBatchConsumer;
+
+    @BeforeEach
+    void setUp() {
+        resourceProcessorService = mock(ResourceProcessorService.class);
+        resourceBatchConsumer = new ResourceBatchConsumer(resourceProcessorService);
+    }
+
+    @Test
+    void consume_processesEveryEventInOrder() {
+        // Act
+        resourceBatchConsumer.consume(List.of(record(0, 1L), record(1, 2L), record(2, 3L)));
+
+        // Assert
+        InOrder inOrder = inOrder(resourceProcessorService);
+        inOrder.verify(resourceProcessorService).process(ResourceCreatedEvent.ofId(1L));
+        inOrder.verify(resourceProcessorService).process(ResourceCreatedEvent.ofId(2L));
+        inOrder.verify(resourceProcessorService).process(ResourceCreatedEvent.ofId(3L));
+    }
+
+    @Test
+    void consume_failingEvent_reportedByIndexAndRestSkipped() {
+        // Arrange
+        doThrow(new RuntimeException("Song service unavailable"))
+                .when(resourceProcessorService).process(ResourceCreatedEvent.ofId(2L));
+
+        // Act
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class, () ->
+                resourceBatchConsumer.consume(List.of(record(0, 1L), record(1, 2L), record(2, 3L))));
+
+        // Assert
+        assertEquals(1, exception.getIndex());
+        verify(resourceProcessorService, never()).process(ResourceCreatedEvent.ofId(3L));
+    }
+
+    @Test
+    void consume_unreadableEvent_reportedByIndexWithDeserializationCause() {
+        // Arrange - what the ErrorHandlingDeserializer hands over for a record it cannot read
+        RecordHeaders headers = new RecordHeaders();
+        byte[] garbage = "not an event".getBytes();
+        ResourceCreatedEvent unreadable;
+        try (ErrorHandlingDeserializer<ResourceCreatedEvent> deserializer =
+                     new ErrorHandlingDeserializer<>(new ResourceCreatedEventDeserializer())) {
+            unreadable = deserializer.deserialize(TOPIC, headers, garbage);
+        }
+        ConsumerRecord<String, ResourceCreatedEvent> broken = new ConsumerRecord<>(TOPIC, 0, 1, 0L,
+                TimestampType.CREATE_TIME, 0, garbage.length, "2", unreadable,
+                headers, Optional.empty());
+
+        // Act
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class, () ->
+                resourceBatchConsumer.consume(List.of(record(0, 1L), broken)));
+
+        // Assert
+        assertEquals(1, exception.getIndex());
+        DeserializationException cause = assertInstanceOf(DeserializationException.class, exception.getCause());
+        assertArrayEquals(garbage, cause.getData());
+        verify(resourceProcessorService).process(ResourceCreatedEvent.ofId(1L));
+    }
+
+    private static ConsumerRecord<String, ResourceCreatedEvent> record(long offset, Long resourceId) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, String.valueOf(resourceId), ResourceCreatedEvent.ofId(resourceId));
+    }
+}
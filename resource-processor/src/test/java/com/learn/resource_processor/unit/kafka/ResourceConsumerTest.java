@@ -1,6 +1,7 @@
 package com.learn.resource_processor.unit.kafka;
 
 import com.learn.resource_processor.kafka.ResourceConsumer;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
 import com.learn.resource_processor.service.ResourceProcessorService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,9 +25,9 @@ class ResourceConsumerTest {
         Long resourceId = 123L;
 
         // Act
-        resourceConsumer.consume(resourceId);
+        resourceConsumer.consume(ResourceCreatedEvent.ofId(resourceId));
 
         // Assert
-        verify(resourceProcessorService, times(1)).process(resourceId);
+        verify(resourceProcessorService, times(1)).process(ResourceCreatedEvent.ofId(resourceId));
     }
 }
@@ -0,0 +1,53 @@
+package com.learn.resource_processor.unit.kafka;
+
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.kafka.ResourceCreatedEventDeserializer;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceCreatedEventDeserializerTest {
+
+    private final ResourceCreatedEventDeserializer deserializer = new ResourceCreatedEventDeserializer();
+
+    @Test
+    void deserialize_binaryEvent() {
+        ResourceCreatedEvent event = new ResourceCreatedEvent(42L, "abc.mp3", 1024L, "ab".repeat(32),
+                "audio/mpeg", Instant.ofEpochMilli(1_700_000_000_000L));
+
+        assertEquals(event, deserializer.deserialize("resource-created", event.encode()));
+    }
+
+    @Test
+    void deserialize_legacyLongId() {
+        byte[] legacy = new LongSerializer().serialize("resource-created", 12345L);
+
+        assertEquals(ResourceCreatedEvent.ofId(12345L), deserializer.deserialize("resource-created", legacy));
+    }
+
+    @Test
+    void deserialize_newerMajorVersion_throwsSerializationException() {
+        byte[] data = ResourceCreatedEvent.ofId(42L).encode();
+        data[1] = 2;
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("resource-created", data));
+    }
+
+    @Test
+    void deserialize_highVersionByte_throwsSerializationException() {
+        byte[] data = ResourceCreatedEvent.ofId(42L).encode();
+        data[1] = (byte) 0xFF;
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("resource-created", data));
+    }
+
+    @Test
+    void deserialize_garbage_throwsSerializationException() {
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize("resource-created", "not an event".getBytes()));
+    }
+}
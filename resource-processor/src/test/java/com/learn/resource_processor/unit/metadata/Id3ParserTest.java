@@ -0,0 +1,208 @@
+package com.learn.resource_processor.unit.metadata;
+
+import com.learn.resource_processor.metadata.Id3Parser;
+import com.learn.resource_processor.metadata.Id3Tags;
+import com.learn.resource_processor.metadata.Mp3Regions;
+import com.learn.resource_processor.support.Mp3TestFiles;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Id3ParserTest {
+
+    @Test
+    void parse_realFile_utf16Id3v23() throws IOException {
+        byte[] mp3;
+        try (InputStream in = getClass().getResourceAsStream("/test.mp3")) {
+            mp3 = in.readAllBytes();
+        }
+
+        Id3Tags tags = Id3Parser.parse(Mp3Regions.of(mp3));
+
+        assertEquals(new Id3Tags("Test Title", "Test Artist", "Test Album", "2025"), tags);
+    }
+
+    @Test
+    void parseId3v2_v23Latin1() {
+        byte[] tag = Mp3TestFiles.id3v23("Título", "Artist", "Album", "1999");
+
+        assertEquals(new Id3Tags("Título", "Artist", "Album", "1999"), Id3Parser.parseId3v2(tag));
+    }
+
+    @Test
+    void parseId3v2_v22ThreeCharacterFrames() {
+        byte[] frames = Mp3TestFiles.concat(
+                v22Frame("TT2", text(0, "Title", StandardCharsets.ISO_8859_1)),
+                v22Frame("TP1", text(1, "Artist", StandardCharsets.UTF_16)),
+                v22Frame("TAL", text(0, "Album", StandardCharsets.ISO_8859_1)),
+                v22Frame("TYE", text(0, "1987", StandardCharsets.ISO_8859_1)));
+
+        assertEquals(new Id3Tags("Title", "Artist", "Album", "1987"), Id3Parser.parseId3v2(tag(2, 0, frames)));
+    }
+
+    @Test
+    void parseId3v2_v24Utf8_recordingTimeAndFirstOfMultipleValues() {
+        byte[] frames = Mp3TestFiles.concat(
+                v24Frame("TYER", 0, text(3, "1990", StandardCharsets.UTF_8)),
+                v24Frame("TIT2", 0, text(3, "Säng", StandardCharsets.UTF_8)),
+                v24Frame("TPE1", 0, text(3, "First\0Second", StandardCharsets.UTF_8)),
+                v24Frame("TALB", 0, text(2, "Album", StandardCharsets.UTF_16BE)),
+                v24Frame("TDRC", 0, text(3, "2021-04-30", StandardCharsets.UTF_8)));
+
+        assertEquals(new Id3Tags("Säng", "First", "Album", "2021-04-30"),
+                Id3Parser.parseId3v2(tag(4, 0, frames)));
+    }
+
+    @Test
+    void parseId3v2_v24FrameLongerThan127Bytes_syncSafeSize() {
+        String longTitle = "x".repeat(300);
+        byte[] frames = Mp3TestFiles.concat(
+                v24Frame("TIT2", 0, text(0, longTitle, StandardCharsets.ISO_8859_1)),
+                v24Frame("TPE1", 0, text(0, "Artist", StandardCharsets.ISO_8859_1)));
+
+        Id3Tags tags = Id3Parser.parseId3v2(tag(4, 0, frames));
+
+        assertEquals(longTitle, tags.title());
+        assertEquals("Artist", tags.artist());
+    }
+
+    @Test
+    void parseId3v2_v24WithPlainFrameSizes_likeSomeEncodersWrite() {
+        String longTitle = "x".repeat(300);
+        byte[] title = text(0, longTitle, StandardCharsets.ISO_8859_1);
+        byte[] frames = Mp3TestFiles.concat(
+                v23Frame("TIT2", title),
+                v23Frame("TPE1", text(0, "Artist", StandardCharsets.ISO_8859_1)));
+
+        Id3Tags tags = Id3Parser.parseId3v2(tag(4, 0, frames));
+
+        assertEquals(longTitle, tags.title());
+        assertEquals("Artist", tags.artist());
+    }
+
+    @Test
+    void parseId3v2_v23UnsynchronisedTag() {
+        // 0xFF in the title is followed by an inserted 0x00 that must not reach the text
+        byte[] title = text(0, "Cafÿ", StandardCharsets.ISO_8859_1);
+        byte[] frames = Mp3TestFiles.concat(
+                v23Frame("TIT2", title),
+                v23Frame("TPE1", text(0, "Artist", StandardCharsets.ISO_8859_1)));
+
+        Id3Tags tags = Id3Parser.parseId3v2(tag(3, 0x80, unsynchronise(frames)));
+
+        assertEquals("Cafÿ", tags.title());
+        assertEquals("Artist", tags.artist());
+    }
+
+    @Test
+    void parseId3v2_v24UnsynchronisedFrameWithDataLength() {
+        byte[] title = text(0, "Cafÿ", StandardCharsets.ISO_8859_1);
+        byte[] body = Mp3TestFiles.concat(syncSafe(title.length), unsynchronise(title));
+        byte[] frames = Mp3TestFiles.concat(
+                v24Frame("TIT2", 0x03, body),
+                v24Frame("TALB", 0, text(0, "Album", StandardCharsets.ISO_8859_1)));
+
+        Id3Tags tags = Id3Parser.parseId3v2(tag(4, 0, frames));
+
+        assertEquals("Cafÿ", tags.title());
+        assertEquals("Album", tags.album());
+    }
+
+    @Test
+    void parseId3v2_compressedFrameSkipped() {
+        byte[] frames = Mp3TestFiles.concat(
+                v24Frame("TIT2", 0x08, text(0, "not really zlib", StandardCharsets.ISO_8859_1)),
+                v24Frame("TPE1", 0, text(0, "Artist", StandardCharsets.ISO_8859_1)));
+
+        Id3Tags tags = Id3Parser.parseId3v2(tag(4, 0, frames));
+
+        assertNull(tags.title());
+        assertEquals("Artist", tags.artist());
+    }
+
+    @Test
+    void parseId3v2_frameSizePastEndOfTag_keepsEarlierFrames() {
+        byte[] frames = Mp3TestFiles.concat(
+                v23Frame("TIT2", text(0, "Title", StandardCharsets.ISO_8859_1)),
+                v23Frame("TPE1", text(0, "Artist", StandardCharsets.ISO_8859_1)));
+        byte[] tag = tag(3, 0, frames);
+        tag[tag.length - 10] = 0x7F;
+
+        assertEquals(new Id3Tags("Title", null, null, null), Id3Parser.parseId3v2(tag));
+    }
+
+    @Test
+    void parse_id3v1FillsWhatId3v2Lacks() {
+        byte[] tag = Mp3TestFiles.id3v23(Map.of("TIT2", "V2 Title"), 16);
+        byte[] file = Mp3TestFiles.concat(tag, Mp3TestFiles.cbr(10),
+                Mp3TestFiles.id3v1("V1 Title", "V1 Artist", "V1 Album", "2003"));
+
+        Id3Tags tags = Id3Parser.parse(Mp3Regions.of(file));
+
+        assertEquals(new Id3Tags("V2 Title", "V1 Artist", "V1 Album", "2003"), tags);
+    }
+
+    @Test
+    void parseId3v1_paddedWithSpaces() {
+        byte[] tag = Mp3TestFiles.id3v1("Title", "Artist", "", "2010");
+        Arrays.fill(tag, 63, 93, (byte) ' ');
+
+        assertEquals(new Id3Tags("Title", "Artist", null, "2010"), Id3Parser.parseId3v1(tag));
+    }
+
+    @Test
+    void parse_noTags_empty() {
+        assertEquals(Id3Tags.EMPTY, Id3Parser.parse(Mp3Regions.of(Mp3TestFiles.cbr(10))));
+        assertEquals(Id3Tags.EMPTY, Id3Parser.parse(Mp3Regions.of(new byte[0])));
+        assertEquals(Id3Tags.EMPTY, Id3Parser.parseId3v2("ID3 but not a tag".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static byte[] tag(int major, int flags, byte[] frames) {
+        byte[] header = {'I', 'D', '3', (byte) major, 0, (byte) flags};
+        return Mp3TestFiles.concat(header, syncSafe(frames.length), frames);
+    }
+
+    private static byte[] v22Frame(String id, byte[] body) {
+        byte[] size = {(byte) (body.length >> 16), (byte) (body.length >> 8), (byte) body.length};
+        return Mp3TestFiles.concat(id.getBytes(StandardCharsets.US_ASCII), size, body);
+    }
+
+    private static byte[] v23Frame(String id, byte[] body) {
+        byte[] size = {(byte) (body.length >>> 24), (byte) (body.length >> 16), (byte) (body.length >> 8),
+                (byte) body.length};
+        return Mp3TestFiles.concat(id.getBytes(StandardCharsets.US_ASCII), size, new byte[2], body);
+    }
+
+    private static byte[] v24Frame(String id, int formatFlags, byte[] body) {
+        return Mp3TestFiles.concat(id.getBytes(StandardCharsets.US_ASCII), syncSafe(body.length),
+                new byte[]{0, (byte) formatFlags}, body);
+    }
+
+    private static byte[] text(int encoding, String value, Charset charset) {
+        return Mp3TestFiles.concat(new byte[]{(byte) encoding}, value.getBytes(charset));
+    }
+
+    private static byte[] syncSafe(int value) {
+        return new byte[]{(byte) ((value >> 21) & 0x7F), (byte) ((value >> 14) & 0x7F),
+                (byte) ((value >> 7) & 0x7F), (byte) (value & 0x7F)};
+    }
+
+    private static byte[] unsynchronise(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte b : data) {
+            out.write(b);
+            if (b == (byte) 0xFF) {
+                out.write(0);
+            }
+        }
+        return out.toByteArray();
+    }
+}
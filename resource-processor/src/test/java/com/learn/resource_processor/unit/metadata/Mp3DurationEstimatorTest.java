@@ -0,0 +1,151 @@
+package com.learn.resource_processor.unit.metadata;
+
+import com.learn.resource_processor.metadata.Mp3Duration;
+import com.learn.resource_processor.metadata.Mp3DurationEstimator;
+import com.learn.resource_processor.metadata.Mp3Regions;
+import com.learn.resource_processor.metadata.MpegFrameHeader;
+import org.junit.jupiter.api.Test;
+
+import static com.learn.resource_processor.support.Mp3TestFiles.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp3DurationEstimatorTest {
+
+    @Test
+    void frameHeader_mpeg1Layer3() {
+        MpegFrameHeader header = MpegFrameHeader.parse(frame(), 0);
+
+        assertNotNull(header);
+        assertEquals(MpegFrameHeader.MPEG1, header.version());
+        assertEquals(3, header.layer());
+        assertEquals(128_000, header.bitrate());
+        assertEquals(44_100, header.sampleRate());
+        assertEquals(FRAME_LENGTH, header.frameLength());
+        assertEquals(1152, header.samplesPerFrame());
+    }
+
+    @Test
+    void frameHeader_mpeg2Layer3() {
+        // MPEG-2 Layer III, 64 kbit/s, 22.05 kHz, padded
+        MpegFrameHeader header = MpegFrameHeader.parse(new byte[]{(byte) 0xFF, (byte) 0xF3, (byte) 0x82, 0x00}, 0);
+
+        assertNotNull(header);
+        assertEquals(MpegFrameHeader.MPEG2, header.version());
+        assertEquals(576, header.samplesPerFrame());
+        assertEquals(72 * 64_000 / 22_050 + 1, header.frameLength());
+    }
+
+    @Test
+    void frameHeader_reservedValues_rejected() {
+        assertNull(MpegFrameHeader.parse(new byte[]{(byte) 0xFF, (byte) 0xFB, (byte) 0xF0, 0x00}, 0));
+        assertNull(MpegFrameHeader.parse(new byte[]{(byte) 0xFF, (byte) 0xFB, (byte) 0x0C, 0x00}, 0));
+        assertNull(MpegFrameHeader.parse(new byte[]{(byte) 0xFF, (byte) 0xE9, (byte) 0x90, 0x00}, 0));
+    }
+
+    @Test
+    void cbr_estimatedFromBitrate() {
+        byte[] tag = id3v23("Title", "Artist", "Album", "2020");
+        byte[] audio = cbr(1000);
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(regions(tag, audio, id3v1("T", "A", "B", "2020")));
+
+        assertEquals(1000 * FRAME_SECONDS, duration.seconds(), 0.1);
+        assertEquals(Mp3Duration.Accuracy.CONSTANT_BITRATE, duration.accuracy());
+    }
+
+    @Test
+    void xingFrameCount_usedInsteadOfBitrate() {
+        // A VBR file whose frames the bitrate of the first one says nothing about
+        byte[] audio = concat(xingFrame(5000), cbr(20));
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(regions(new byte[0], audio, new byte[0]));
+
+        assertEquals(5000 * FRAME_SECONDS, duration.seconds(), 0.001);
+        assertEquals(Mp3Duration.Accuracy.FRAME_COUNT, duration.accuracy());
+    }
+
+    @Test
+    void lameHeader_encoderDelayAndPaddingRemoved() {
+        byte[] audio = concat(lameFrame(5000, 576, 1000), cbr(20));
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(regions(new byte[0], audio, new byte[0]));
+
+        assertEquals((5000 * 1152 - 576 - 1000) / 44100.0, duration.seconds(), 1e-9);
+        assertEquals(Mp3Duration.Accuracy.EXACT, duration.accuracy());
+    }
+
+    @Test
+    void vbriFrameCount_used() {
+        byte[] audio = concat(vbriFrame(3000), cbr(20));
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(regions(new byte[0], audio, new byte[0]));
+
+        assertEquals(3000 * FRAME_SECONDS, duration.seconds(), 0.001);
+        assertEquals(Mp3Duration.Accuracy.FRAME_COUNT, duration.accuracy());
+    }
+
+    @Test
+    void strayFrameSync_skipped() {
+        // A sync pattern whose "next frame" is not one, then the real stream
+        byte[] junk = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00, 1, 2, 3};
+        byte[] audio = concat(junk, xingFrame(5000), cbr(20));
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(regions(new byte[0], audio, new byte[0]));
+
+        assertEquals(5000 * FRAME_SECONDS, duration.seconds(), 0.001);
+    }
+
+    @Test
+    void vbrWithoutHeader_rangedRead_averageBitrateEstimate() {
+        byte[] audio = vbr(2000);
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(regions(new byte[0], audio, new byte[0]));
+
+        assertEquals(Mp3Duration.Accuracy.AVERAGE_BITRATE, duration.accuracy());
+        assertEquals(2000 * FRAME_SECONDS, duration.seconds(), 2000 * FRAME_SECONDS * 0.05);
+    }
+
+    @Test
+    void vbrWithoutHeader_wholeFile_everyFrameCounted() {
+        byte[] tag = id3v23("Title", "Artist", "Album", "2020");
+        byte[] file = concat(tag, vbr(2001), id3v1("T", "A", "B", "2020"));
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(Mp3Regions.of(file), file);
+
+        assertEquals(2001 * FRAME_SECONDS, duration.seconds(), 1e-9);
+        assertEquals(Mp3Duration.Accuracy.FRAME_COUNT, duration.accuracy());
+    }
+
+    @Test
+    void scan_resynchronisesAfterJunkBetweenFrames() {
+        byte[] file = concat(cbr(100), new byte[]{(byte) 0xFF, 0x00, 'A', 'P', 'E'}, vbr(100));
+
+        Mp3Duration duration = Mp3DurationEstimator.estimate(Mp3Regions.of(file), file);
+
+        assertEquals(200 * FRAME_SECONDS, duration.seconds(), 1e-9);
+    }
+
+    @Test
+    void noFrames_zero() {
+        Mp3Duration duration = Mp3DurationEstimator.estimate(regions(new byte[0], new byte[1024], new byte[0]));
+
+        assertEquals(0, duration.seconds());
+        assertEquals(Mp3Duration.Accuracy.NONE, duration.accuracy());
+    }
+
+    @Test
+    void formatted_minutesAndSeconds() {
+        assertEquals("00:00", new Mp3Duration(0, Mp3Duration.Accuracy.NONE).formatted());
+        assertEquals("02:10", new Mp3Duration(130.6, Mp3Duration.Accuracy.FRAME_COUNT).formatted());
+        assertEquals("59:59", new Mp3Duration(3599.99, Mp3Duration.Accuracy.EXACT).formatted());
+        assertEquals("125:05", new Mp3Duration(7505, Mp3Duration.Accuracy.EXACT).formatted());
+    }
+
+    // Only the first 8 KiB of audio is at hand, as in a ranged read
+    private static Mp3Regions regions(byte[] tag, byte[] audio, byte[] trailer) {
+        byte[] head = slice(audio, 0, 8 * 1024 - 1);
+        long fileSize = tag.length + audio.length + trailer.length;
+        byte[] file = concat(tag, audio, trailer);
+        return new Mp3Regions(tag, head, tag.length, slice(file, Math.max(0, file.length - 128), file.length), fileSize);
+    }
+}
@@ -0,0 +1,103 @@
+package com.learn.resource_processor.unit.metadata;
+
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.metadata.Mp3RegionReader;
+import com.learn.resource_processor.metadata.Mp3Regions;
+import com.learn.resource_processor.storage.ObjectRange;
+import com.learn.resource_processor.storage.ResourceContentFetcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.learn.resource_processor.support.Mp3TestFiles.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class Mp3RegionReaderTest {
+
+    private static final ResourceCreatedEvent EVENT = ResourceCreatedEvent.ofId(1L);
+
+    private ResourceContentFetcher contentFetcher;
+    private Mp3RegionReader regionReader;
+
+    @BeforeEach
+    void setUp() {
+        contentFetcher = mock(ResourceContentFetcher.class);
+        regionReader = new Mp3RegionReader(contentFetcher, 16 * 1024, 64 * 1024);
+    }
+
+    @Test
+    void smallTag_oneHeadReadAndTail() {
+        byte[] tag = id3v23("Title", "Artist", "Album", "2020");
+        byte[] trailer = id3v1("Title", "Artist", "Album", "2020");
+        byte[] file = concat(tag, cbr(2000), trailer);
+        serve(file);
+
+        Mp3Regions regions = regionReader.read(EVENT);
+
+        assertArrayEquals(tag, regions.id3v2Tag());
+        assertEquals(tag.length, regions.audioOffset());
+        assertArrayEquals(slice(file, tag.length, tag.length + 8 * 1024 - 1), regions.audioHead());
+        assertArrayEquals(trailer, regions.tail());
+        assertTrue(regions.hasId3v1());
+        assertEquals(file.length, regions.fileSize());
+        verify(contentFetcher).fetchRange(EVENT, 0, 16 * 1024 - 1);
+        verify(contentFetcher).fetchTail(EVENT, 128);
+        verifyNoMoreInteractions(contentFetcher);
+    }
+
+    @Test
+    void tagLongerThanHead_readGrownOnce() {
+        byte[] tag = id3v23(Map.of("TIT2", "Title"), 30 * 1024);
+        byte[] file = concat(tag, cbr(2000));
+        serve(file);
+
+        Mp3Regions regions = regionReader.read(EVENT);
+
+        assertArrayEquals(tag, regions.id3v2Tag());
+        assertArrayEquals(slice(file, tag.length, tag.length + 8 * 1024 - 1), regions.audioHead());
+        verify(contentFetcher).fetchRange(EVENT, 16 * 1024, tag.length + 8 * 1024 - 1);
+    }
+
+    @Test
+    void tagOverLimit_cutOffAndAudioReadBehindIt() {
+        byte[] tag = id3v23(Map.of("TIT2", "Title"), 100 * 1024);
+        byte[] file = concat(tag, cbr(2000));
+        serve(file);
+
+        Mp3Regions regions = regionReader.read(EVENT);
+
+        assertEquals(64 * 1024, regions.id3v2Tag().length);
+        assertEquals(tag.length, regions.audioOffset());
+        assertArrayEquals(slice(file, tag.length, tag.length + 8 * 1024 - 1), regions.audioHead());
+        verify(contentFetcher).fetchRange(EVENT, tag.length, tag.length + 8 * 1024 - 1);
+    }
+
+    @Test
+    void fileWithinHead_noFurtherReads() {
+        byte[] file = concat(cbr(10), id3v1("Title", "Artist", "Album", "2020"));
+        serve(file);
+
+        Mp3Regions regions = regionReader.read(EVENT);
+
+        assertEquals(0, regions.id3v2Tag().length);
+        assertTrue(regions.hasId3v1());
+        verify(contentFetcher).fetchRange(EVENT, 0, 16 * 1024 - 1);
+        verifyNoMoreInteractions(contentFetcher);
+    }
+
+    private void serve(byte[] file) {
+        when(contentFetcher.fetchRange(eq(EVENT), anyLong(), anyLong())).thenAnswer(inv -> {
+            long start = inv.getArgument(1);
+            long end = inv.getArgument(2);
+            return new ObjectRange(slice(file, start, end), start, file.length);
+        });
+        when(contentFetcher.fetchTail(eq(EVENT), anyInt())).thenAnswer(inv -> {
+            int length = inv.getArgument(1);
+            long start = Math.max(0, file.length - length);
+            return new ObjectRange(slice(file, start, file.length), start, file.length);
+        });
+    }
+}
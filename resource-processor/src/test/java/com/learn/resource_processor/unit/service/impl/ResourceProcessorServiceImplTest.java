@@ -3,17 +3,24 @@ package com.learn.resource_processor.unit.service.impl;
 import com.learn.resource_processor.client.ResourceServiceClient;
 import com.learn.resource_processor.client.SongServiceClient;
 import com.learn.resource_processor.dto.SongDTO;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.metadata.Mp3RegionReader;
 import com.learn.resource_processor.service.impl.ResourceProcessorServiceImpl;
-import org.apache.tika.exception.TikaException;
+import com.learn.resource_processor.storage.ObjectRange;
+import com.learn.resource_processor.storage.ResourceContentFetcher;
+import com.learn.resource_processor.storage.StorageReader;
+import com.learn.resource_processor.support.Mp3TestFiles;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.xml.sax.SAXException;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,16 +33,30 @@ class ResourceProcessorServiceImplTest {
     @Mock
     private SongServiceClient songServiceClient;
 
-    @InjectMocks
+    @Mock
+    private StorageReader storageReader;
+
     private ResourceProcessorServiceImpl resourceProcessorService;
 
+    private ResourceProcessorServiceImpl rangedProcessorService;
+
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        ResourceContentFetcher contentFetcher = new ResourceContentFetcher(resourceServiceClient,
+                Optional.of(storageReader), meterRegistry);
+        Mp3RegionReader regionReader = new Mp3RegionReader(contentFetcher, 16 * 1024, 1024 * 1024);
+        resourceProcessorService = new ResourceProcessorServiceImpl(contentFetcher, regionReader, songServiceClient,
+                meterRegistry, "full");
+        rangedProcessorService = new ResourceProcessorServiceImpl(contentFetcher, regionReader, songServiceClient,
+                meterRegistry, "ranged");
     }
 
     @Test
-    void process_withValidResourceId_callsClients() throws IOException, TikaException, SAXException {
+    void process_withValidResourceId_callsClients() {
         // Arrange
         Long resourceId = 1L;
         byte[] mockData = new byte[]{1, 2, 3};
@@ -46,6 +67,7 @@ class ResourceProcessorServiceImplTest {
 
         // Assert
         verify(resourceServiceClient).getResourceData(resourceId);
+        verifyNoInteractions(storageReader);
         ArgumentCaptor<SongDTO> songCaptor = ArgumentCaptor.forClass(SongDTO.class);
         verify(songServiceClient).saveSongMetadata(songCaptor.capture());
 
@@ -56,4 +78,110 @@ class ResourceProcessorServiceImplTest {
         assertNotNull(capturedSong.getArtist());
         assertNotNull(capturedSong.getAlbum());
     }
-}
\ No newline at end of file
+
+    @Test
+    void process_fullMode_readsId3v2Tags() throws IOException {
+        // Arrange
+        byte[] mp3;
+        try (InputStream in = getClass().getResourceAsStream("/test.mp3")) {
+            mp3 = in.readAllBytes();
+        }
+        when(resourceServiceClient.getResourceData(1L)).thenReturn(mp3);
+
+        // Act
+        resourceProcessorService.process(1L);
+
+        // Assert
+        ArgumentCaptor<SongDTO> songCaptor = ArgumentCaptor.forClass(SongDTO.class);
+        verify(songServiceClient).saveSongMetadata(songCaptor.capture());
+
+        SongDTO capturedSong = songCaptor.getValue();
+        assertEquals("Test Title", capturedSong.getName());
+        assertEquals("Test Artist", capturedSong.getArtist());
+        assertEquals("Test Album", capturedSong.getAlbum());
+        assertEquals("2025", capturedSong.getYear());
+    }
+
+    @Test
+    void process_rangedMode_readsTagsAndFirstFrameOnly() {
+        // Arrange
+        byte[] mp3 = Mp3TestFiles.concat(Mp3TestFiles.id3v23("Title", "Artist", "Album", "2021"),
+                Mp3TestFiles.cbr(5000));
+        ResourceCreatedEvent event = new ResourceCreatedEvent(1L, "key.mp3", (long) mp3.length, null, "audio/mpeg", null);
+        when(storageReader.readRange(eq("key.mp3"), anyLong(), anyLong())).thenAnswer(inv -> {
+            long start = inv.getArgument(1);
+            return new ObjectRange(Mp3TestFiles.slice(mp3, start, inv.getArgument(2)), start, mp3.length);
+        });
+        when(storageReader.readTail("key.mp3", 128)).thenReturn(
+                new ObjectRange(Mp3TestFiles.slice(mp3, mp3.length - 128, mp3.length), mp3.length - 128, mp3.length));
+
+        // Act
+        rangedProcessorService.process(event);
+
+        // Assert
+        verify(storageReader, never()).read(anyString());
+        verifyNoInteractions(resourceServiceClient);
+        ArgumentCaptor<SongDTO> songCaptor = ArgumentCaptor.forClass(SongDTO.class);
+        verify(songServiceClient).saveSongMetadata(songCaptor.capture());
+
+        SongDTO capturedSong = songCaptor.getValue();
+        assertEquals("Title", capturedSong.getName());
+        assertEquals("Artist", capturedSong.getArtist());
+        assertEquals("Album", capturedSong.getAlbum());
+        assertEquals("2021", capturedSong.getYear());
+        // 5000 frames of 1152 samples at 44.1 kHz
+        assertEquals("02:10", capturedSong.getDuration());
+        assertEquals(1.0, meterRegistry.get("processor.duration.estimates")
+                .tag("accuracy", "constant_bitrate").counter().count());
+    }
+
+    @Test
+    void process_knownChecksum_reusesMetadataWithoutReadingAudio() {
+        // Arrange
+        String checksum = "ab".repeat(32);
+        SongDTO existing = new SongDTO();
+        existing.setId(7L);
+        existing.setName("Title");
+        existing.setArtist("Artist");
+        existing.setAlbum("Album");
+        existing.setDuration("02:10");
+        existing.setYear("2021");
+        existing.setChecksum(checksum);
+        when(songServiceClient.findSongByChecksum(checksum)).thenReturn(Optional.of(existing));
+        ResourceCreatedEvent event = new ResourceCreatedEvent(8L, "key.mp3", 1000L, checksum, "audio/mpeg", null);
+
+        // Act
+        rangedProcessorService.process(event);
+
+        // Assert
+        verifyNoInteractions(storageReader, resourceServiceClient);
+        ArgumentCaptor<SongDTO> songCaptor = ArgumentCaptor.forClass(SongDTO.class);
+        verify(songServiceClient).saveSongMetadata(songCaptor.capture());
+
+        SongDTO capturedSong = songCaptor.getValue();
+        assertEquals(8L, capturedSong.getId());
+        assertEquals("Title", capturedSong.getName());
+        assertEquals("02:10", capturedSong.getDuration());
+        assertEquals(checksum, capturedSong.getChecksum());
+        assertEquals(1.0, meterRegistry.get("processor.metadata.lookups").tag("result", "reused").counter().count());
+    }
+
+    @Test
+    void process_checksumLookupFails_parsesAudio() {
+        // Arrange
+        String checksum = "ab".repeat(32);
+        when(songServiceClient.findSongByChecksum(checksum)).thenThrow(new ResourceAccessException("down"));
+        when(resourceServiceClient.getResourceData(1L)).thenReturn(new byte[]{1, 2, 3});
+        ResourceCreatedEvent event = new ResourceCreatedEvent(1L, null, null, checksum, null, null);
+
+        // Act
+        resourceProcessorService.process(event);
+
+        // Assert
+        verify(resourceServiceClient).getResourceData(1L);
+        ArgumentCaptor<SongDTO> songCaptor = ArgumentCaptor.forClass(SongDTO.class);
+        verify(songServiceClient).saveSongMetadata(songCaptor.capture());
+        assertEquals(1L, songCaptor.getValue().getId());
+        assertEquals(checksum, songCaptor.getValue().getChecksum());
+    }
+}
@@ -0,0 +1,125 @@
+package com.learn.resource_processor.unit.storage;
+
+import com.learn.resource_processor.client.ResourceServiceClient;
+import com.learn.resource_processor.kafka.ResourceCreatedEvent;
+import com.learn.resource_processor.storage.ObjectRange;
+import com.learn.resource_processor.storage.ResourceContentFetcher;
+import com.learn.resource_processor.storage.StorageReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResourceContentFetcherTest {
+
+    private static final byte[] CONTENT = "mp3 content".getBytes();
+
+    private ResourceServiceClient resourceServiceClient;
+    private StorageReader storageReader;
+    private SimpleMeterRegistry meterRegistry;
+    private ResourceContentFetcher fetcher;
+
+    @BeforeEach
+    void setUp() {
+        resourceServiceClient = mock(ResourceServiceClient.class);
+        storageReader = mock(StorageReader.class);
+        meterRegistry = new SimpleMeterRegistry();
+        fetcher = new ResourceContentFetcher(resourceServiceClient, Optional.of(storageReader), meterRegistry);
+    }
+
+    @Test
+    void fetch_matchingObject_readFromStorageOnly() throws Exception {
+        when(storageReader.read("key.mp3")).thenReturn(CONTENT);
+
+        assertArrayEquals(CONTENT, fetcher.fetch(event(CONTENT.length, sha256(CONTENT))));
+
+        verifyNoInteractions(resourceServiceClient);
+        assertEquals(1.0, meterRegistry.get("resource.content.fetches").tag("source", "storage").counter().count());
+    }
+
+    @Test
+    void fetch_checksumMismatch_fallsBackToHttp() throws Exception {
+        byte[] other = "other content".getBytes();
+        when(storageReader.read("key.mp3")).thenReturn(other);
+        when(resourceServiceClient.getResourceData(1L)).thenReturn(CONTENT);
+
+        assertArrayEquals(CONTENT, fetcher.fetch(event(other.length, sha256(CONTENT))));
+
+        assertEquals(1.0, meterRegistry.get("resource.content.fallbacks").tag("reason", "mismatch").counter().count());
+    }
+
+    @Test
+    void fetch_sizeMismatch_fallsBackToHttp() {
+        when(storageReader.read("key.mp3")).thenReturn(CONTENT);
+        when(resourceServiceClient.getResourceData(1L)).thenReturn(CONTENT);
+
+        fetcher.fetch(event(CONTENT.length + 1, null));
+
+        verify(resourceServiceClient).getResourceData(1L);
+    }
+
+    @Test
+    void fetch_storageError_fallsBackToHttp() {
+        when(storageReader.read("key.mp3")).thenThrow(new RuntimeException("Access denied"));
+        when(resourceServiceClient.getResourceData(1L)).thenReturn(CONTENT);
+
+        assertArrayEquals(CONTENT, fetcher.fetch(event(CONTENT.length, null)));
+
+        assertEquals(1.0, meterRegistry.get("resource.content.fallbacks").tag("reason", "error").counter().count());
+        assertEquals(1.0, meterRegistry.get("resource.content.fetches").tag("source", "http").counter().count());
+    }
+
+    @Test
+    void fetch_idOnlyEvent_usesHttpWithoutTouchingStorage() {
+        when(resourceServiceClient.getResourceData(1L)).thenReturn(CONTENT);
+
+        assertArrayEquals(CONTENT, fetcher.fetch(ResourceCreatedEvent.ofId(1L)));
+
+        verifyNoInteractions(storageReader);
+    }
+
+    @Test
+    void fetch_storageDisabled_usesHttp() {
+        ResourceContentFetcher httpOnly = new ResourceContentFetcher(resourceServiceClient, Optional.empty(), meterRegistry);
+        when(resourceServiceClient.getResourceData(1L)).thenReturn(CONTENT);
+
+        assertArrayEquals(CONTENT, httpOnly.fetch(event(CONTENT.length, null)));
+    }
+
+    @Test
+    void fetchRange_fromStorageWhenSizeMatches() {
+        ObjectRange range = new ObjectRange(new byte[]{1, 2}, 0, CONTENT.length);
+        when(storageReader.readRange("key.mp3", 0, 1)).thenReturn(range);
+
+        assertSame(range, fetcher.fetchRange(event(CONTENT.length, null), 0, 1));
+
+        verifyNoInteractions(resourceServiceClient);
+        assertEquals(2.0, meterRegistry.get("resource.content.bytes").tag("source", "storage").summary().totalAmount());
+    }
+
+    @Test
+    void fetchTail_objectOfOtherSize_fallsBackToHttpRange() {
+        ObjectRange fromHttp = new ObjectRange(new byte[]{1, 2}, CONTENT.length - 2, CONTENT.length);
+        when(storageReader.readTail("key.mp3", 2)).thenReturn(new ObjectRange(new byte[]{9, 9}, 98, 100));
+        when(resourceServiceClient.getResourceTail(1L, 2)).thenReturn(fromHttp);
+
+        assertSame(fromHttp, fetcher.fetchTail(event(CONTENT.length, null), 2));
+
+        assertEquals(1.0, meterRegistry.get("resource.content.fallbacks").tag("reason", "mismatch").counter().count());
+    }
+
+    private static ResourceCreatedEvent event(long size, String checksum) {
+        return new ResourceCreatedEvent(1L, "key.mp3", size, checksum, "audio/mpeg", Instant.now());
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
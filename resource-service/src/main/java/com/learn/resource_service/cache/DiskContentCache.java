@@ -0,0 +1,238 @@
+package com.learn.resource_service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.learn.resource_service.storage.ObjectContent;
+import com.learn.resource_service.storage.StorageService;
+import com.learn.resource_service.config.ContentCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps whole S3 objects on local disk, keyed by S3 object name. Objects are
+ * immutable once written, so an entry only has to go when it is evicted or its
+ * object is deleted.
+ *
+ * <p>Eviction is Caffeine's size-weighted W-TinyLFU. A miss downloads the object
+ * exactly once: concurrent requests for the same key wait on the same fill.
+ * Range requests do not wait at all; they take a copy that is already on disk
+ * or read their range from storage while the fill runs behind them.
+ * With local storage the cache stays disabled, since it would only copy files.
+ */
+@Component
+public class DiskContentCache {
+    private static final String CACHE_NAME = "resource.content.cache";
+    private static final String PARTIAL_PREFIX = "fill-";
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final String ENTRY_SUFFIX = ".mp3";
+    private static final Pattern ENTRY_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}" + Pattern.quote(ENTRY_SUFFIX));
+
+    private final StorageService storageService;
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxObjectSize;
+    private final ExecutorService fillExecutor;
+    private final AsyncCache<String, CachedFile> cache;
+    private final Counter bytesServed;
+
+    public DiskContentCache(StorageService storageService, ContentCacheProperties properties, MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        // Objects already on local disk gain nothing from a second copy
+        this.enabled = properties.isEnabled() && storageService.isRemote();
+        this.directory = properties.getDirectory();
+        this.maxObjectSize = properties.getMaxObjectSize().toBytes();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.fillExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getFillThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "content-cache-fill-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedFile file) -> (int) Math.min(file.size(), Integer.MAX_VALUE))
+                .executor(fillExecutor)
+                .removalListener((String key, CachedFile file, RemovalCause cause) -> {
+                    if (file != null) {
+                        deleteQuietly(file.path());
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        this.bytesServed = Counter.builder(CACHE_NAME + ".served")
+                .description("Bytes handed out from the local disk cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder(CACHE_NAME + ".size", cache,
+                        c -> c.synchronous().policy().eviction()
+                                .map(eviction -> eviction.weightedSize().orElse(0))
+                                .orElse(0L))
+                .description("Bytes currently held on disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        if (enabled) {
+            prepareDirectory();
+        }
+    }
+
+    /**
+     * Whether an object of this size should go through the cache; unknown
+     * sizes bypass it.
+     */
+    public boolean accepts(Long size) {
+        return enabled && size != null && size <= maxObjectSize;
+    }
+
+    /**
+     * Opens the cached copy of an object, downloading it first on a miss.
+     * The channel stays readable even if the entry is evicted meanwhile.
+     */
+    public CompletableFuture<FileChannel> openAsync(String fileName) {
+        return cache.get(fileName, this::fill)
+                .thenApply(file -> {
+                    try {
+                        return FileChannel.open(file.path(), StandardOpenOption.READ);
+                    } catch (IOException e) {
+                        // Evicted between the lookup and the open
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Opens the cached copy only if it is already on disk; empty while the
+     * object is absent or still being downloaded. Never starts a fill.
+     */
+    public Optional<FileChannel> openIfCached(String fileName) {
+        CompletableFuture<CachedFile> entry = cache.getIfPresent(fileName);
+        if (entry == null || !entry.isDone() || entry.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(FileChannel.open(entry.join().path(), StandardOpenOption.READ));
+        } catch (IOException e) {
+            // Evicted between the lookup and the open
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Starts downloading an object into the cache unless it is already there
+     * or on its way, without waiting for it.
+     */
+    public void prefetch(String fileName) {
+        cache.get(fileName, this::fill)
+                .exceptionally(error -> {
+                    System.err.println("Failed to prefetch " + fileName + " into the content cache: " + error.getMessage());
+                    return null;
+                });
+    }
+
+    public void recordServed(long bytes) {
+        bytesServed.increment(bytes);
+    }
+
+    public void invalidate(String fileName) {
+        cache.synchronous().invalidate(fileName);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fillExecutor.shutdownNow();
+    }
+
+    // Each fill gets its own file, so a late removal can never delete a newer copy
+    private CompletableFuture<CachedFile> fill(String fileName, Executor executor) {
+        return storageService.openAsync(fileName)
+                .thenApplyAsync(content -> {
+                    Path target = directory.resolve(UUID.randomUUID() + ENTRY_SUFFIX);
+                    try (ObjectContent source = content) {
+                        Path partial = Files.createTempFile(directory, PARTIAL_PREFIX, PARTIAL_SUFFIX);
+                        try {
+                            copy(source, partial);
+                            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+                        } finally {
+                            Files.deleteIfExists(partial);
+                        }
+                        return new CachedFile(target, Files.size(target));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to cache " + fileName, e);
+                    }
+                }, executor);
+    }
+
+    private static void copy(ObjectContent source, Path partial) throws IOException {
+        if (source.getFileChannel() == null) {
+            Files.copy(source.getInputStream(), partial, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        try (FileChannel out = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            long transferred = 0;
+            while (transferred < source.getContentLength()) {
+                long sent = source.getFileChannel().transferTo(source.getPosition() + transferred,
+                        source.getContentLength() - transferred, out);
+                if (sent <= 0) {
+                    throw new IOException("Source ended after " + transferred + " of " + source.getContentLength() + " bytes");
+                }
+                transferred += sent;
+            }
+        }
+    }
+
+    private void prepareDirectory() {
+        try {
+            Files.createDirectories(directory);
+            // Entries do not survive a restart, so the files an earlier run left are orphaned;
+            // anything else in the directory is not ours to delete
+            try (Stream<Path> leftovers = Files.list(directory)) {
+                leftovers.filter(DiskContentCache::isCacheFile).forEach(DiskContentCache::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare content cache directory " + directory, e);
+        }
+    }
+
+    private static boolean isCacheFile(Path path) {
+        String name = path.getFileName().toString();
+        return Files.isRegularFile(path)
+                && (name.startsWith(PARTIAL_PREFIX) && name.endsWith(PARTIAL_SUFFIX) || ENTRY_NAME.matcher(name).matches());
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete cached file " + path + ": " + e.getMessage());
+        }
+    }
+
+    private record CachedFile(Path path, long size) {
+    }
+}
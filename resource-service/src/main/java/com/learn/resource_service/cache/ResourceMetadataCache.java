@@ -0,0 +1,98 @@
+package com.learn.resource_service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learn.resource_service.storage.StorageService;
+import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.repository.ResourceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache for {@code GET /resources/{id}/info}: resource rows
+ * by ID and S3 existence checks by object name. Entries expire after a TTL, and
+ * the upload and delete paths invalidate them explicitly, so the TTL only
+ * bounds staleness caused by other instances.
+ *
+ * <p>Missing rows are not cached, so a resource becomes visible as soon as its
+ * upload commits.
+ *
+ * <p>Loads run on the calling thread outside Caffeine's map locks, so a virtual
+ * thread waiting on Postgres or S3 never pins its carrier; concurrent callers
+ * for the same key still share one load.
+ */
+@Component
+public class ResourceMetadataCache {
+    private final ResourceRepository resourceRepository;
+    private final StorageService storageService;
+    private final AsyncCache<Long, Resource> resources;
+    private final AsyncCache<String, Boolean> objectExistence;
+
+    public ResourceMetadataCache(ResourceRepository resourceRepository,
+                                 StorageService storageService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${resource.metadata-cache.max-entries:10000}") long maxEntries,
+                                 @Value("${resource.metadata-cache.ttl:5m}") Duration ttl) {
+        this.resourceRepository = resourceRepository;
+        this.storageService = storageService;
+        this.resources = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.objectExistence = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, resources, "resource.metadata.rows");
+        CaffeineCacheMetrics.monitor(meterRegistry, objectExistence, "resource.metadata.s3-existence");
+    }
+
+    public Optional<Resource> findResource(Long id) {
+        return Optional.ofNullable(getOrLoad(resources, id, key -> resourceRepository.findById(key).orElse(null)));
+    }
+
+    public boolean objectExists(String fileName) {
+        return getOrLoad(objectExistence, fileName, storageService::fileExists);
+    }
+
+    public void invalidate(Long id, String fileName) {
+        if (id != null) {
+            resources.synchronous().invalidate(id);
+        }
+        if (fileName != null) {
+            objectExistence.synchronous().invalidate(fileName);
+        }
+    }
+
+    // Only an empty future is installed under the lock; a null or failed load is not kept
+    private static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> cached = cache.get(key, (k, executor) -> load);
+        if (cached != load) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            V value = loader.apply(key);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
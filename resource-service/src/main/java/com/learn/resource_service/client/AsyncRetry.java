@@ -0,0 +1,90 @@
+package com.learn.resource_service.client;
+
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Retries asynchronous operations with exponential backoff and full jitter.
+ * Waiting happens on a scheduler rather than with Thread.sleep, so no caller
+ * thread is held between attempts.
+ */
+class AsyncRetry {
+    private final ScheduledExecutorService scheduler;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    AsyncRetry(ScheduledExecutorService scheduler, int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        this.scheduler = scheduler;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelay.toMillis();
+        this.maxDelayMs = maxDelay.toMillis();
+    }
+
+    <T> CompletableFuture<T> execute(String description, Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(1, description, operation, result);
+        return result;
+    }
+
+    private <T> void attempt(int attempt, String description, Supplier<CompletableFuture<T>> operation, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (Throwable t) {
+            future = CompletableFuture.failedFuture(t);
+        }
+
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+
+            Throwable cause = unwrap(error);
+            if (attempt >= maxAttempts || !isRetryable(cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            long delayMs = backoffMs(attempt);
+            System.err.println(description + " attempt " + attempt + " failed, retrying in " + delayMs + " ms: " + cause.getMessage());
+            scheduler.schedule(() -> attempt(attempt + 1, description, operation, result), delayMs, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    // Full jitter: uniform in [0, min(maxDelay, baseDelay * 2^(attempt - 1))]
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof NoSuchKeyException || error instanceof IllegalArgumentException) {
+            return false;
+        }
+        if (error instanceof S3Exception s3Exception) {
+            int status = s3Exception.statusCode();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        return true;
+    }
+
+    static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -1,36 +1,123 @@
 package com.learn.resource_service.client;
 
+import com.learn.resource_service.config.S3Properties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import com.learn.resource_service.storage.ObjectContent;
+import com.learn.resource_service.storage.StorageService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.model.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * S3 access on top of {@link S3AsyncClient} and a bounded Netty connection pool.
+ * The *Async methods never block the calling thread, including between retry
+ * attempts; the plain methods are thin joins over them for synchronous callers.
+ * The default {@link StorageService}; it checks bucket access on startup.
+ */
 @Service
-public class S3Service {
-    private final S3Client s3Client;
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3Service implements StorageService {
+    private final S3AsyncClient s3Client;
     private final String bucketName;
+    private final int multipartPartSize;
+    private final int maxRetryAttempts;
+    private final S3VerificationMode verificationMode;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService retryScheduler;
+    private final AsyncRetry retry;
 
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final long RETRY_DELAY_MS = 1000;
+    private static final int MIN_MULTIPART_PART_SIZE = 5 * 1024 * 1024;
+    // S3 limit on keys per DeleteObjects request
+    private static final int DELETE_OBJECTS_MAX_KEYS = 1000;
 
     public S3Service(@Value("${AWS_ACCESS_KEY}") String awsAccessKey,
                      @Value("${AWS_SECRET_KEY}") String awsSecretKey,
                      @Value("${AWS_BUCKET_NAME}") String bucketName,
-                     @Value("${AWS_REGION}") String awsRegion) {
+                     @Value("${AWS_REGION}") String awsRegion,
+                     S3Properties properties,
+                     MeterRegistry meterRegistry) {
+        if (properties.getMultipart().getPartSize() < MIN_MULTIPART_PART_SIZE) {
+            throw new IllegalArgumentException("S3 multipart part size must be at least " + MIN_MULTIPART_PART_SIZE + " bytes");
+        }
         this.bucketName = bucketName;
+        this.multipartPartSize = properties.getMultipart().getPartSize();
+        this.maxRetryAttempts = properties.getRetry().getMaxAttempts();
+        this.verificationMode = properties.getVerification().getMode();
+        this.meterRegistry = meterRegistry;
+
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "s3-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retry = new AsyncRetry(retryScheduler, maxRetryAttempts,
+                properties.getRetry().getBaseDelay(), properties.getRetry().getMaxDelay());
+
+        this.s3Client = buildClient(awsAccessKey, awsSecretKey, awsRegion, properties);
+
+        verifyBucketAccess();
+    }
 
-        this.s3Client = S3Client.builder()
+    private static S3AsyncClient buildClient(String awsAccessKey, String awsSecretKey, String awsRegion, S3Properties properties) {
+        S3Properties.Client client = properties.getClient();
+
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
                 .credentialsProvider(StaticCredentialsProvider
                         .create(AwsBasicCredentials
                                 .create(awsAccessKey, awsSecretKey)))
                 .region(Region.of(awsRegion))
-                .build();
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(client.getMaxConnections())
+                        .maxPendingConnectionAcquires(client.getMaxPendingConnectionAcquires())
+                        .connectionAcquisitionTimeout(client.getConnectionAcquisitionTimeout())
+                        .connectionTimeout(client.getConnectionTimeout())
+                        .readTimeout(client.getReadTimeout())
+                        .writeTimeout(client.getWriteTimeout())
+                        .connectionMaxIdleTime(client.getConnectionMaxIdleTime())
+                        .tcpKeepAlive(true))
+                // Retries are done by AsyncRetry so they can be jittered and never sleep on a thread
+                .overrideConfiguration(config -> config
+                        .apiCallTimeout(client.getApiCallTimeout())
+                        .retryStrategy(AwsRetryStrategy.doNotRetry()));
+
+        if (properties.getEndpoint() != null && !properties.getEndpoint().isBlank()) {
+            builder.endpointOverride(URI.create(properties.getEndpoint()))
+                    .forcePathStyle(properties.isPathStyleAccess());
+        }
 
-        verifyBucketAccess();
+        return builder.build();
     }
 
     private void verifyBucketAccess() {
@@ -40,71 +127,187 @@ public class S3Service {
                     .maxKeys(1)
                     .build();
 
-            s3Client.listObjectsV2(listRequest);
+            s3Client.listObjectsV2(listRequest).join();
         } catch (Exception e) {
             throw new IllegalStateException("Cannot access S3 bucket: " + bucketName + ". Please verify credentials and bucket permissions.", e);
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        s3Client.close();
+        retryScheduler.shutdownNow();
+    }
+
+    @Override
     public String uploadMp3(byte[] mp3Data, String fileName) {
+        return join(uploadMp3Async(mp3Data, fileName));
+    }
+
+    public CompletableFuture<String> uploadMp3Async(byte[] mp3Data, String fileName) {
         validateUploadParams(mp3Data, fileName);
-        String s3Url = null;
-        Exception lastException = null;
+        return putObject(mp3Data, mp3Data.length, fileName);
+    }
 
-        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
-            try {
-                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(fileName)
-                        .contentType("audio/mpeg")
-                        .build();
-                PutObjectResponse response = s3Client.putObject(putObjectRequest, RequestBody.fromBytes(mp3Data));
-                if (response.eTag() == null || response.eTag().isEmpty()) {
-                    throw new RuntimeException("Upload verification failed - missing ETag");
-                }
-
-                s3Url = String.format("https://%s.s3.amazonaws.com/%s", bucketName, fileName);
-
-                if (!fileExists(fileName)) {
-                    throw new RuntimeException("Upload verification failed - file not found after upload");
-                }
-
-                break;
-            } catch (Exception e) {
-                lastException = e;
-                System.err.println("S3 upload attempt " + attempt + " failed for file " + fileName + ": " + e.getMessage());
-
-                if (attempt < MAX_RETRY_ATTEMPTS) {
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS * attempt); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Upload interrupted", ie);
-                    }
-                } else {
-                    // Final attempt failed - clean up any partial upload
-                    cleanupFailedUpload(fileName);
-                }
-            }
+    /**
+     * Streams an upload of unknown length to S3 holding at most one part buffer
+     * on heap. Bodies that fit in a single part go out as a plain PUT from a
+     * buffer sized to the body; anything larger becomes a multipart upload,
+     * which is aborted if any part fails. Reading an InputStream is inherently
+     * blocking, so this stays synchronous and waits for each part before
+     * refilling the buffer.
+     */
+    @Override
+    public String uploadMp3(InputStream mp3Stream, String fileName) {
+        if (mp3Stream == null) {
+            throw new IllegalArgumentException("Upload stream cannot be null");
         }
+        validateFileName(fileName);
 
-        if (s3Url == null) {
-            throw new RuntimeException("Failed to upload file to S3 after " + MAX_RETRY_ATTEMPTS + " attempts: " + fileName, lastException);
+        // readNBytes(int) grows its buffer as data arrives, so small files never allocate a whole part
+        byte[] partBuffer = readFirstPart(mp3Stream);
+        int partLength = partBuffer.length;
+        if (partLength == 0) {
+            throw new IllegalArgumentException("Upload data cannot be null or empty");
+        }
+        if (partLength < multipartPartSize) {
+            return join(putObject(partBuffer, partLength, fileName));
         }
 
-        return s3Url;
-    }
+        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType("audio/mpeg")
+                .checksumAlgorithm(ChecksumAlgorithm.SHA256)
+                .build();
+        String uploadId = join(retry.execute("S3 create multipart upload of " + fileName,
+                () -> s3Client.createMultipartUpload(createRequest))).uploadId();
 
-    private void cleanupFailedUpload(String fileName) {
         try {
-            if (fileExists(fileName)) {
-                deleteFile(fileName);
+            List<CompletedPart> completedParts = new ArrayList<>();
+            int partNumber = 1;
+            while (partLength > 0) {
+                completedParts.add(join(uploadPart(fileName, uploadId, partNumber++, partBuffer, partLength)));
+                partLength = readPart(mp3Stream, partBuffer);
             }
+
+            CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileName)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build();
+            join(retry.execute("S3 complete multipart upload of " + fileName,
+                    () -> s3Client.completeMultipartUpload(completeRequest))
+                    .thenCompose(response -> verifyWrite(fileName, "multipart-upload")));
+
+            return objectUrl(fileName);
         } catch (Exception e) {
-            System.err.println("Failed to cleanup partial upload for file: " + fileName + " - " + e.getMessage());
+            abortMultipartUpload(fileName, uploadId);
+            throw new RuntimeException("Failed to upload file to S3: " + fileName, e);
+        }
+    }
+
+    private byte[] readFirstPart(InputStream in) {
+        try {
+            return in.readNBytes(multipartPartSize);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read upload stream", e);
+        }
+    }
+
+    private int readPart(InputStream in, byte[] partBuffer) {
+        try {
+            return in.readNBytes(partBuffer, 0, partBuffer.length);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read upload stream", e);
         }
     }
 
+    private CompletableFuture<CompletedPart> uploadPart(String fileName, String uploadId, int partNumber, byte[] partBuffer, int partLength) {
+        String checksum = sha256Base64(partBuffer, partLength);
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) partLength)
+                .checksumSHA256(checksum)
+                .build();
+
+        return failWith(retry.execute("S3 upload of part " + partNumber + " for file " + fileName,
+                        () -> s3Client.uploadPart(uploadPartRequest, requestBody(partBuffer, partLength))
+                                .thenApply(response -> {
+                                    verifyChecksum(checksum, response.checksumSHA256(), response.eTag());
+                                    return CompletedPart.builder()
+                                            .partNumber(partNumber)
+                                            .eTag(response.eTag())
+                                            .checksumSHA256(checksum)
+                                            .build();
+                                })),
+                "Failed to upload part " + partNumber + " after " + maxRetryAttempts + " attempts: " + fileName);
+    }
+
+    private void abortMultipartUpload(String fileName, String uploadId) {
+        s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .uploadId(uploadId)
+                        .build())
+                .exceptionally(e -> {
+                    System.err.println("Failed to abort multipart upload for file: " + fileName + " - " + AsyncRetry.unwrap(e).getMessage());
+                    return null;
+                });
+    }
+
+    // Wraps the buffer instead of copying it; the caller must not refill it until the request completes
+    private AsyncRequestBody requestBody(byte[] data, int length) {
+        return AsyncRequestBody.fromRemainingByteBufferUnsafe(ByteBuffer.wrap(data, 0, length));
+    }
+
+    private CompletableFuture<String> putObject(byte[] data, int length, String fileName) {
+        String checksum = sha256Base64(data, length);
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType("audio/mpeg")
+                .contentLength((long) length)
+                .checksumSHA256(checksum)
+                .build();
+
+        CompletableFuture<String> upload = retry.execute("S3 upload of " + fileName,
+                () -> s3Client.putObject(putObjectRequest, requestBody(data, length))
+                        .thenCompose(response -> {
+                            verifyChecksum(checksum, response.checksumSHA256(), response.eTag());
+                            return verifyWrite(fileName, "upload");
+                        })
+                        .thenApply(verified -> objectUrl(fileName)));
+
+        return upload.handle((s3Url, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(s3Url);
+            }
+            // Final attempt failed - clean up any partial upload before reporting the failure
+            return cleanupFailedUpload(fileName).<String>thenApply(ignored -> {
+                throw new RuntimeException("Failed to upload file to S3 after " + maxRetryAttempts + " attempts: " + fileName,
+                        AsyncRetry.unwrap(error));
+            });
+        }).thenCompose(future -> future);
+    }
+
+    private CompletableFuture<Void> cleanupFailedUpload(String fileName) {
+        // DeleteObject is idempotent, so there is no need to HEAD first
+        return deleteFileAsync(fileName).exceptionally(e -> {
+            System.err.println("Failed to cleanup partial upload for file: " + fileName + " - " + AsyncRetry.unwrap(e).getMessage());
+            return null;
+        });
+    }
+
+    @Override
+    public String objectUrl(String fileName) {
+        return String.format("https://%s.s3.amazonaws.com/%s", bucketName, fileName);
+    }
+
     private void validateUploadParams(byte[] data, String fileName) {
         if (data == null || data.length == 0) {
             throw new IllegalArgumentException("Upload data cannot be null or empty");
@@ -126,101 +329,302 @@ public class S3Service {
         }
     }
 
+    @Override
     public void deleteFile(String fileName) {
+        join(deleteFileAsync(fileName));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFileAsync(String fileName) {
         validateFileName(fileName);
 
-        Exception lastException = null;
+        DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .build();
 
-        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
-            try {
-                DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(fileName)
-                        .build();
+        return failWith(retry.execute("S3 delete of " + fileName,
+                        () -> s3Client.deleteObject(deleteObjectRequest)
+                                .thenCompose(response -> verifyDelete(fileName))),
+                "Failed to delete file from S3 after " + maxRetryAttempts + " attempts: " + fileName);
+    }
+
+    /**
+     * Deletes many objects with one DeleteObjects call per 1000 keys
+     * instead of one request each. Returns the keys that could not be
+     * deleted; missing keys count as deleted, as with a single delete.
+     */
+    @Override
+    public Set<String> deleteFiles(Collection<String> fileNames) {
+        return join(deleteFilesAsync(fileNames));
+    }
 
-                s3Client.deleteObject(deleteObjectRequest);
+    public CompletableFuture<Set<String>> deleteFilesAsync(Collection<String> fileNames) {
+        fileNames.forEach(this::validateFileName);
+        List<String> keys = List.copyOf(new LinkedHashSet<>(fileNames));
 
-                if (fileExists(fileName)) {
-                    throw new RuntimeException("Delete verification failed - file still exists after deletion");
-                }
+        List<CompletableFuture<Set<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += DELETE_OBJECTS_MAX_KEYS) {
+            chunks.add(deleteChunk(keys.subList(from, Math.min(from + DELETE_OBJECTS_MAX_KEYS, keys.size()))));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Set<String> failed = new HashSet<>();
+                    chunks.forEach(chunk -> failed.addAll(chunk.join()));
+                    return failed;
+                });
+    }
 
-                return;
-            } catch (Exception e) {
-                lastException = e;
-                System.err.println("S3 delete attempt " + attempt + " failed for file " + fileName + ": " + e.getMessage());
+    // A chunk that exhausts its retries fails all of its keys, but never the other chunks
+    private CompletableFuture<Set<String>> deleteChunk(List<String> keys) {
+        DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder()
+                        .quiet(true)
+                        .objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                        .build())
+                .build();
 
-                if (attempt < MAX_RETRY_ATTEMPTS) {
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS * attempt);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Delete interrupted", ie);
+        return retry.execute("S3 bulk delete of " + keys.size() + " objects",
+                        () -> s3Client.deleteObjects(deleteObjectsRequest))
+                .thenCompose(response -> {
+                    Set<String> failed = new HashSet<>();
+                    for (S3Error error : response.errors()) {
+                        System.err.println("Failed to delete file from S3: " + error.key() + " - " + error.code() + " " + error.message());
+                        failed.add(error.key());
                     }
-                }
+                    return verifyDeletes(keys, failed);
+                })
+                .exceptionally(error -> {
+                    System.err.println("Failed to delete " + keys.size() + " files from S3 after " + maxRetryAttempts
+                            + " attempts: " + AsyncRetry.unwrap(error).getMessage());
+                    return new HashSet<>(keys);
+                });
+    }
+
+    private CompletableFuture<Set<String>> verifyDeletes(List<String> keys, Set<String> failed) {
+        if (verificationMode != S3VerificationMode.HEAD) {
+            return CompletableFuture.completedFuture(failed);
+        }
+        Set<String> unverified = ConcurrentHashMap.newKeySet();
+        unverified.addAll(failed);
+        CompletableFuture<?>[] checks = keys.stream()
+                .filter(key -> !failed.contains(key))
+                .map(key -> verifyDelete(key).exceptionally(error -> {
+                    unverified.add(key);
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(checks).thenApply(ignored -> unverified);
+    }
+
+    /**
+     * S3 rejects a write whose body does not match the checksum sent with it,
+     * so an acknowledged write is already verified. The echoed checksum is
+     * compared when the store returns one; otherwise a non-empty ETag is required.
+     */
+    private void verifyChecksum(String sentChecksum, String returnedChecksum, String eTag) {
+        if (returnedChecksum != null && !returnedChecksum.equals(sentChecksum)) {
+            throw new RuntimeException("Upload verification failed - checksum mismatch");
+        }
+        if (eTag == null || eTag.isEmpty()) {
+            throw new RuntimeException("Upload verification failed - missing ETag");
+        }
+    }
+
+    private CompletableFuture<Void> verifyWrite(String fileName, String operation) {
+        if (verificationMode != S3VerificationMode.HEAD) {
+            recordVerification(operation, "skipped");
+            return CompletableFuture.completedFuture(null);
+        }
+        recordVerification(operation, "head");
+        return fileExistsAsync(fileName).thenAccept(exists -> {
+            if (!exists) {
+                throw new RuntimeException("Upload verification failed - file not found after upload");
             }
+        });
+    }
+
+    private CompletableFuture<Void> verifyDelete(String fileName) {
+        if (verificationMode != S3VerificationMode.HEAD) {
+            recordVerification("delete", "skipped");
+            return CompletableFuture.completedFuture(null);
         }
+        recordVerification("delete", "head");
+        return fileExistsAsync(fileName).thenAccept(exists -> {
+            if (exists) {
+                throw new RuntimeException("Delete verification failed - file still exists after deletion");
+            }
+        });
+    }
+
+    // "skipped" counts the HEAD round trips saved by checksum verification
+    private void recordVerification(String operation, String outcome) {
+        meterRegistry.counter("s3.verification", "operation", operation, "outcome", outcome).increment();
+    }
 
-        throw new RuntimeException("Failed to delete file from S3 after " + MAX_RETRY_ATTEMPTS + " attempts: " + fileName, lastException);
+    private static String sha256Base64(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, 0, length);
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
+    @Override
     public boolean fileExists(String fileName) {
-        validateFileName(fileName);
+        return join(fileExistsAsync(fileName));
+    }
 
-        try {
-            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .build();
+    public CompletableFuture<Boolean> fileExistsAsync(String fileName) {
+        validateFileName(fileName);
 
-            HeadObjectResponse response = s3Client.headObject(headObjectRequest);
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .build();
 
-            return response.contentLength() != null && response.contentLength() > 0;
-        } catch (software.amazon.awssdk.services.s3.model.NoSuchKeyException e) {
-            return false;
-        } catch (Exception e) {
-            // Log the error but assume file exists to prevent accidental overwrites
-            System.err.println("Error checking file existence for " + fileName + ": " + e.getMessage());
-            return true; // Fail-safe
-        }
+        return s3Client.headObject(headObjectRequest)
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return response.contentLength() != null && response.contentLength() > 0;
+                    }
+                    Throwable cause = AsyncRetry.unwrap(error);
+                    if (cause instanceof NoSuchKeyException) {
+                        return false;
+                    }
+                    // Log the error but assume file exists to prevent accidental overwrites
+                    System.err.println("Error checking file existence for " + fileName + ": " + cause.getMessage());
+                    return true; // Fail-safe
+                });
     }
 
+    @Override
     public byte[] downloadFile(String fileName) {
+        return join(downloadFileAsync(fileName));
+    }
+
+    public CompletableFuture<byte[]> downloadFileAsync(String fileName) {
         validateFileName(fileName);
 
-        Exception lastException = null;
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .build();
 
-        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
-            try {
-                GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(fileName)
-                        .build();
+        return retry.execute("S3 download of " + fileName,
+                        () -> s3Client.getObject(getObjectRequest, AsyncResponseTransformer.toBytes())
+                                .thenApply(ResponseBytes::asByteArrayUnsafe)
+                                .thenApply(fileContent -> {
+                                    if (fileContent.length == 0) {
+                                        throw new RuntimeException("Downloaded file is empty: " + fileName);
+                                    }
+                                    return fileContent;
+                                }))
+                .handle((fileContent, error) -> {
+                    if (error == null) {
+                        return fileContent;
+                    }
+                    Throwable cause = AsyncRetry.unwrap(error);
+                    if (cause instanceof NoSuchKeyException) {
+                        throw new RuntimeException("File not found in S3: " + fileName, cause);
+                    }
+                    throw new RuntimeException("Failed to download file from S3 after " + maxRetryAttempts + " attempts: " + fileName, cause);
+                });
+    }
+
+    /**
+     * Completes as soon as S3 has answered with the object's headers; the body
+     * is then pulled through the returned stream as it is read, without ever
+     * being buffered whole. Only opening the stream is retried. An invalid
+     * file name or range fails the returned future rather than throwing.
+     */
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> openStreamAsync(String fileName) {
+        return openStreamAsync(fileName, null);
+    }
+
+    /**
+     * Same as {@link #openStreamAsync(String)}, but fetches only the inclusive
+     * byte range {@code [start, end]} so S3 transfers just what was asked for.
+     */
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> openStreamAsync(String fileName, long start, long end) {
+        if (start < 0 || end < start) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid byte range: " + start + "-" + end));
+        }
+        return openStreamAsync(fileName, "bytes=" + start + "-" + end);
+    }
+
+    @Override
+    public CompletableFuture<ObjectContent> openAsync(String fileName) {
+        return toObjectContent(openStreamAsync(fileName));
+    }
+
+    @Override
+    public CompletableFuture<ObjectContent> openAsync(String fileName, long start, long end) {
+        return toObjectContent(openStreamAsync(fileName, start, end));
+    }
 
-                byte[] fileContent = s3Client.getObject(getObjectRequest).readAllBytes();
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
 
-                if (fileContent.length == 0) {
-                    throw new RuntimeException("Downloaded file is empty: " + fileName);
-                }
+    private static CompletableFuture<ObjectContent> toObjectContent(CompletableFuture<ResponseInputStream<GetObjectResponse>> stream) {
+        return stream.thenApply(objectStream -> {
+            Long contentLength = objectStream.response().contentLength();
+            return ObjectContent.ofStream(objectStream, contentLength != null ? contentLength : -1);
+        });
+    }
 
-                return fileContent;
+    private CompletableFuture<ResponseInputStream<GetObjectResponse>> openStreamAsync(String fileName, String range) {
+        try {
+            validateFileName(fileName);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-            } catch (software.amazon.awssdk.services.s3.model.NoSuchKeyException e) {
-                throw new RuntimeException("File not found in S3: " + fileName, e);
-            } catch (Exception e) {
-                lastException = e;
-                System.err.println("S3 download attempt " + attempt + " failed for file " + fileName + ": " + e.getMessage());
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .range(range)
+                .build();
 
-                if (attempt < MAX_RETRY_ATTEMPTS) {
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS * attempt);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Download interrupted", ie);
+        return retry.execute("S3 stream of " + fileName + (range != null ? " (" + range + ")" : ""),
+                        () -> s3Client.getObject(getObjectRequest, AsyncResponseTransformer.<GetObjectResponse>toBlockingInputStream()))
+                .handle((stream, error) -> {
+                    if (error == null) {
+                        return stream;
                     }
-                }
+                    Throwable cause = AsyncRetry.unwrap(error);
+                    if (cause instanceof NoSuchKeyException) {
+                        throw new RuntimeException("File not found in S3: " + fileName, cause);
+                    }
+                    throw new RuntimeException("Failed to open file stream from S3 after " + maxRetryAttempts + " attempts: " + fileName, cause);
+                });
+    }
+
+    private static <T> CompletableFuture<T> failWith(CompletableFuture<T> future, String message) {
+        return future.handle((value, error) -> {
+            if (error != null) {
+                throw new RuntimeException(message, AsyncRetry.unwrap(error));
             }
-        }
+            return value;
+        });
+    }
 
-        throw new RuntimeException("Failed to download file from S3 after " + MAX_RETRY_ATTEMPTS + " attempts: " + fileName, lastException);
+    // Surfaces the original exception to synchronous callers instead of a CompletionException
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = AsyncRetry.unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(cause);
+        }
     }
 }
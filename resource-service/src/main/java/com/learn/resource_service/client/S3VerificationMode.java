@@ -0,0 +1,11 @@
+package com.learn.resource_service.client;
+
+/**
+ * How S3Service confirms that a write or delete actually happened.
+ */
+public enum S3VerificationMode {
+    /** Send a SHA-256 checksum with every write and trust S3's acknowledgement; no extra HEAD requests. */
+    CHECKSUM,
+    /** Additionally HEAD the object after every write and delete. */
+    HEAD
+}
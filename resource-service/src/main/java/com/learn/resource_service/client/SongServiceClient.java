@@ -1,25 +1,60 @@
 package com.learn.resource_service.client;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class SongServiceClient {
+    // song-service rejects an id parameter of 200 characters or more
+    static final int MAX_CSV_LENGTH = 199;
+
     private final RestTemplate restTemplate;
     private final String songServiceUrl;
 
-    public SongServiceClient(RestTemplate restTemplate,
+    public SongServiceClient(@Qualifier("songServiceRestTemplate") RestTemplate restTemplate,
                              @Value("${song-service.url}") String url,
                              @Value("${song-service.port}") String port) {
         this.restTemplate = restTemplate;
         this.songServiceUrl = "http://" + url + ":" + port + "/songs";
     }
 
+    /**
+     * Deletes the songs of many resources with as few requests as the
+     * song-service CSV length limit allows. A retry repeats the whole call,
+     * chunks that already went through included, which is harmless because
+     * song-service ignores IDs it no longer has.
+     */
     @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    public void deleteSongById(Long id) {
-        restTemplate.delete(songServiceUrl + "?id=" + id);
+    public void deleteSongsByIds(List<Long> ids) {
+        for (String csvIds : toCsvChunks(ids)) {
+            restTemplate.delete(songServiceUrl + "?id=" + csvIds);
+        }
+    }
+
+    static List<String> toCsvChunks(List<Long> ids) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        for (Long id : ids) {
+            String next = String.valueOf(id);
+            if (chunk.length() > 0 && chunk.length() + 1 + next.length() > MAX_CSV_LENGTH) {
+                chunks.add(chunk.toString());
+                chunk.setLength(0);
+            }
+            if (chunk.length() > 0) {
+                chunk.append(',');
+            }
+            chunk.append(next);
+        }
+        if (chunk.length() > 0) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
     }
 }
@@ -1,13 +1,47 @@
 package com.learn.resource_service.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Configuration
+@EnableConfigurationProperties({S3Properties.class, ContentCacheProperties.class, LocalStorageProperties.class,
+        HttpClientProperties.class, UploadAdmissionProperties.class})
 public class AppConfig {
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public CloseableHttpClient songServiceHttpClient(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        return PooledHttpClients.create("song-service", properties.forService("song-service"), meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate songServiceRestTemplate(RestTemplateBuilder builder,
+                                                @Qualifier("songServiceHttpClient") CloseableHttpClient httpClient) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient)).build();
+    }
+
+    /**
+     * Shared by all batch uploads, so its size caps the parallel S3 transfers
+     * per pod no matter how many batch requests arrive. 0 means two per core.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService batchUploadExecutor(@Value("${resource.batch.upload-concurrency:0}") int concurrency) {
+        int threads = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors() * 2;
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-upload-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
@@ -0,0 +1,28 @@
+package com.learn.resource_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "resource.cache")
+public class ContentCacheProperties {
+
+    private boolean enabled;
+
+    /** Dedicated directory, ideally on local NVMe; cache files left in it are removed on startup. */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "resource-service-cache");
+
+    /** Total bytes kept on disk before the least valuable objects are evicted. */
+    private DataSize maxSize = DataSize.ofGigabytes(10);
+
+    /** Larger objects bypass the cache so one upload cannot flush it. */
+    private DataSize maxObjectSize = DataSize.ofMegabytes(100);
+
+    /** Threads copying missed objects from S3 to disk. */
+    private int fillThreads = 4;
+}
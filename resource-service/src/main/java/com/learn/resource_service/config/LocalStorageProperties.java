@@ -0,0 +1,19 @@
+package com.learn.resource_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "storage.local")
+public class LocalStorageProperties {
+
+    /**
+     * Where objects are kept when storage.type=local; unlike the content cache it is never wiped, so it
+     * defaults to the home directory rather than one the OS may clear.
+     */
+    private Path directory = Path.of(System.getProperty("user.home"), "resource-service-storage");
+}
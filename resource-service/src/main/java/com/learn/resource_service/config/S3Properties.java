@@ -0,0 +1,56 @@
+package com.learn.resource_service.config;
+
+import com.learn.resource_service.client.S3VerificationMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "s3")
+public class S3Properties {
+
+    /** Endpoint override for S3-compatible stores such as MinIO or LocalStack. */
+    private String endpoint;
+    private boolean pathStyleAccess;
+
+    private final Client client = new Client();
+    private final Retry retry = new Retry();
+    private final Multipart multipart = new Multipart();
+    private final Verification verification = new Verification();
+
+    @Getter
+    @Setter
+    public static class Client {
+        private int maxConnections = 64;
+        private int maxPendingConnectionAcquires = 1000;
+        private Duration connectionAcquisitionTimeout = Duration.ofSeconds(10);
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(30);
+        private Duration writeTimeout = Duration.ofSeconds(30);
+        private Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+        private Duration apiCallTimeout = Duration.ofMinutes(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        private int maxAttempts = 3;
+        private Duration baseDelay = Duration.ofMillis(200);
+        private Duration maxDelay = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Multipart {
+        private int partSize = 8 * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Verification {
+        private S3VerificationMode mode = S3VerificationMode.CHECKSUM;
+    }
+}
@@ -0,0 +1,37 @@
+package com.learn.resource_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "resource.upload.admission")
+public class UploadAdmissionProperties {
+
+    private boolean enabled = true;
+
+    /** Largest single upload; a bigger Content-Length is refused with 413 before the body is read. */
+    private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+    /** Largest batch request; a bigger Content-Length is refused with 413 and a batch without one counts as this. */
+    private DataSize maxBatchSize = DataSize.ofMegabytes(128);
+
+    /** Upload bytes the pod accepts at once across all clients; uploads without a length count as maxFileSize. */
+    private DataSize maxInFlight = DataSize.ofMegabytes(512);
+
+    /** Upload bytes a single client may have in flight. */
+    private DataSize maxInFlightPerClient = DataSize.ofMegabytes(128);
+
+    /** How long an upload waits for room under maxInFlight before it is refused with 503. */
+    private Duration queueTimeout = Duration.ofSeconds(2);
+
+    /** Sent as Retry-After with every 503. */
+    private Duration retryAfter = Duration.ofSeconds(5);
+
+    /** Header naming the client behind a trusted proxy; the remote address is used when unset or absent. */
+    private String clientHeader;
+}
@@ -1,63 +1,320 @@
 package com.learn.resource_service.controller;
 
+import com.learn.resource_service.dto.BatchUploadResult;
+import com.learn.resource_service.dto.ResourceContent;
 import com.learn.resource_service.entity.Resource;
 import com.learn.resource_service.service.ResourceService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/resources")
 public class ResourceController {
+    private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    // Each part is its own ranged read, so more distinct ranges than this are answered with the whole file
+    private static final int MAX_RANGES = 16;
+
     private final ResourceService resourceService;
+    private final boolean streamingUpload;
 
-    public ResourceController(ResourceService resourceService) {
+    public ResourceController(ResourceService resourceService,
+                              @Value("${resource.upload.mode:buffered}") String uploadMode) {
         this.resourceService = resourceService;
+        this.streamingUpload = "streaming".equalsIgnoreCase(uploadMode);
     }
 
     @PostMapping(consumes = "audio/mpeg")
-    public ResponseEntity<?> uploadResource(@RequestBody byte[] mp3Data) {
-        Long resourceId = resourceService.uploadResource(mp3Data);
+    public ResponseEntity<?> uploadResource(InputStream mp3Stream) throws IOException {
+        Long resourceId = streamingUpload
+                ? resourceService.uploadResource(mp3Stream)
+                : resourceService.uploadResource(mp3Stream.readAllBytes());
         return ResponseEntity.ok().body(Map.of("id", resourceId));
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadResources(@RequestParam("files") List<MultipartFile> files) {
+        List<BatchUploadResult> results = resourceService.uploadResources(files);
+        return ResponseEntity.ok().body(Map.of("results", results));
+    }
+
+    /**
+     * Metadata disappears when a resource is deleted, so unlike the content it
+     * is always revalidated; an unchanged row costs a 304 instead of a body.
+     */
     @GetMapping("/{id}/info")
-    public ResponseEntity<?> getResource(@PathVariable("id") Long id) {
+    public ResponseEntity<?> getResource(@PathVariable("id") Long id, WebRequest webRequest) {
         Resource resource = resourceService.getResourceById(id);
+        String etag = "\"" + validator(resource) + "-info\"";
+        if (webRequest.checkNotModified(etag, lastModifiedMillis(resource))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
                 .body(resource);
     }
 
+    /**
+     * Completes asynchronously: the servlet thread is released until S3 has
+     * answered, then the object is piped to the client through a fixed-size
+     * buffer, so neither the service nor the response holds the whole file.
+     * A {@code Range} header is served with 206 from ranged S3 reads, unless an
+     * {@code If-Range} validator no longer matches the stored object.
+     * A header that cannot be parsed is ignored and the whole file is served;
+     * ranges past the end are dropped, and only when none is left is the
+     * answer 416. Overlapping and adjacent ranges are merged first; a header
+     * that still asks for more than {@value #MAX_RANGES} ranges gets the
+     * whole file.
+     *
+     * <p>Content never changes after upload, so it is marked immutable and a
+     * matching {@code If-None-Match} or {@code If-Modified-Since} is answered
+     * with 304 from the database row alone, before S3 is involved.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> getResourceV2(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getResourceV2(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            WebRequest webRequest) {
+        Resource resource;
         try {
-            // Get the actual MP3 file content
-            byte[] content = resourceService.getResourceContent(id);
+            resource = resourceService.findContentResource(id);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(contentErrorResponse(e));
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("audio/mpeg"));
-            headers.setContentLength(content.length);
+        if (webRequest.checkNotModified(etag(resource), lastModifiedMillis(resource))) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(contentHeaders(id, resource))
+                    .<StreamingResponseBody>build());
+        }
 
-            // Optional: Add Content-Disposition for download
-            headers.setContentDisposition(
-                    ContentDisposition.builder("attachment")
-                            .filename("resource_" + id + ".mp3")
-                            .build()
-            );
+        // Without a known length ranges cannot be resolved; RFC 9110 lets us ignore them
+        if (rangeHeader == null || resource.getSize() == null || !ifRangeMatches(ifRange, resource)) {
+            return getFullContent(id, resource);
+        }
 
-            return new ResponseEntity<>(content, headers, HttpStatus.OK);
+        // A Range we cannot parse, or in a unit other than bytes, is ignored as RFC 9110 requires
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return getFullContent(id, resource);
+        }
+
+        long size = resource.getSize();
+        List<ByteRange> ranges = resolveRanges(httpRanges, size);
+        if (ranges.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .<StreamingResponseBody>build());
+        }
 
-        } catch (NoSuchElementException e) {
+        if (ranges.size() > MAX_RANGES) {
+            return getFullContent(id, resource);
+        }
+
+        // Every part is opened before the 206 is committed, so a failed read still maps to a status
+        List<CompletableFuture<ResourceContent>> parts = ranges.stream()
+                .map(range -> resourceService.openResourceContentAsync(resource, range.start(), range.end()))
+                .toList();
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<ResourceContent> contents = parts.stream().map(CompletableFuture::join).toList();
+                    HttpHeaders headers = contentHeaders(id, resource);
+                    StreamingResponseBody body;
+                    if (ranges.size() == 1) {
+                        ResourceContent content = contents.get(0);
+                        headers.setContentType(AUDIO_MPEG);
+                        headers.setContentLength(content.getContentLength());
+                        headers.set(HttpHeaders.CONTENT_RANGE, contentRange(ranges.get(0), size));
+                        body = content::writeTo;
+                    } else {
+                        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+                        headers.setContentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary));
+                        body = out -> writeByteRanges(out, boundary, size, ranges, contents);
+                    }
+                    return new ResponseEntity<>(body, headers, HttpStatus.PARTIAL_CONTENT);
+                })
+                .exceptionally(error -> {
+                    parts.stream()
+                            .filter(part -> part.isDone() && !part.isCompletedExceptionally())
+                            .forEach(part -> closeQuietly(part.join()));
+                    return contentErrorResponse(error);
+                });
+    }
+
+    private CompletableFuture<ResponseEntity<StreamingResponseBody>> getFullContent(Long id, Resource resource) {
+        return resourceService.openResourceContentAsync(resource)
+                .thenApply(content -> {
+                    HttpHeaders headers = contentHeaders(id, resource);
+                    headers.setContentType(AUDIO_MPEG);
+                    headers.setContentLength(content.getContentLength());
+
+                    StreamingResponseBody body = content::writeTo;
+                    return new ResponseEntity<>(body, headers, HttpStatus.OK);
+                })
+                .exceptionally(this::contentErrorResponse);
+    }
+
+    private HttpHeaders contentHeaders(Long id, Resource resource) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(etag(resource));
+        if (resource.getUploadedAt() != null) {
+            headers.setLastModified(lastModified(resource));
+        }
+        headers.setCacheControl(IMMUTABLE);
+
+        // Optional: Add Content-Disposition for download
+        headers.setContentDisposition(
+                ContentDisposition.builder("attachment")
+                        .filename("resource_" + id + ".mp3")
+                        .build()
+        );
+        return headers;
+    }
+
+    // If-Range only holds for a strong ETag match or an exact Last-Modified date
+    private boolean ifRangeMatches(String ifRange, Resource resource) {
+        if (ifRange == null) {
+            return true;
+        }
+        String validator = ifRange.trim();
+        if (validator.startsWith("\"")) {
+            return validator.equals(etag(resource));
+        }
+        if (validator.startsWith("W/") || resource.getUploadedAt() == null) {
+            return false;
+        }
+        try {
+            Instant date = ZonedDateTime.parse(validator, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return date.equals(lastModified(resource));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolves the ranges against the file and merges those that overlap or
+     * touch, in file order, which RFC 9110 allows whatever order they were
+     * asked in. Ranges that cannot be satisfied are dropped, so the result is
+     * empty only when none of them can.
+     */
+    private static List<ByteRange> resolveRanges(List<HttpRange> httpRanges, long size) {
+        List<ByteRange> resolved = new ArrayList<>(httpRanges.size());
+        for (HttpRange httpRange : httpRanges) {
+            try {
+                ByteRange range = new ByteRange(httpRange.getRangeStart(size), httpRange.getRangeEnd(size));
+                if (range.end() >= range.start()) {
+                    resolved.add(range);
+                }
+            } catch (IllegalArgumentException e) {
+                // Unsatisfiable on its own; the other ranges may still be served
+            }
+        }
+        resolved.sort(Comparator.comparingLong(ByteRange::start));
+
+        List<ByteRange> merged = new ArrayList<>(resolved.size());
+        for (ByteRange range : resolved) {
+            ByteRange last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range.start() <= last.end() + 1) {
+                merged.set(merged.size() - 1, new ByteRange(last.start(), Math.max(last.end(), range.end())));
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private static void writeByteRanges(OutputStream out, String boundary, long size,
+                                        List<ByteRange> ranges, List<ResourceContent> parts) throws IOException {
+        int next = 0;
+        try {
+            for (ByteRange range : ranges) {
+                String partHeader = "\r\n--" + boundary + "\r\n"
+                        + HttpHeaders.CONTENT_TYPE + ": " + AUDIO_MPEG + "\r\n"
+                        + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range, size) + "\r\n\r\n";
+                out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                // writeTo closes the part even when it fails
+                parts.get(next++).writeTo(out);
+            }
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        } finally {
+            // Parts never reached still hold a connection or a file
+            parts.subList(next, parts.size()).forEach(ResourceController::closeQuietly);
+        }
+    }
+
+    private static void closeQuietly(ResourceContent content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close resource content: " + e.getMessage());
+        }
+    }
+
+    private static String contentRange(ByteRange range, long size) {
+        return "bytes " + range.start() + "-" + range.end() + "/" + size;
+    }
+
+    private static String etag(Resource resource) {
+        return "\"" + validator(resource) + "\"";
+    }
+
+    // The SHA-256 of the bytes; legacy rows without one fall back to the ID, which is never reused
+    private static String validator(Resource resource) {
+        return resource.getChecksum() != null ? resource.getChecksum() : "resource-" + resource.getId();
+    }
+
+    private static long lastModifiedMillis(Resource resource) {
+        return resource.getUploadedAt() != null ? lastModified(resource).toEpochMilli() : -1;
+    }
+
+    private static Instant lastModified(Resource resource) {
+        // HTTP dates have second precision
+        return resource.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private record ByteRange(long start, long end) {
+    }
+
+    private ResponseEntity<StreamingResponseBody> contentErrorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof NoSuchElementException) {
             return ResponseEntity.notFound().build();
-        } catch (IllegalArgumentException e) {
+        }
+        if (cause instanceof IllegalArgumentException) {
             return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
     }
 
     @DeleteMapping
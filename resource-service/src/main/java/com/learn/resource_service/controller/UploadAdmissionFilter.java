@@ -0,0 +1,330 @@
+package com.learn.resource_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.resource_service.config.UploadAdmissionProperties;
+import com.learn.resource_service.exception.UploadTooLargeException;
+import com.learn.resource_service.util.Mp3Detector;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for {@code POST /resources} and {@code POST /resources/batch},
+ * applied before the controller reads the body. An oversized Content-Length is
+ * refused with 413 and single-file content without an MP3 header with 400, both
+ * before any budget is taken. The remaining uploads reserve their length from a
+ * global and a per-client byte budget; when either is exhausted the upload is
+ * refused with 503 and Retry-After instead of being buffered.
+ *
+ * <p>A single upload without a Content-Length reserves the maximum file size,
+ * and its body is cut off with {@link UploadTooLargeException} once it exceeds
+ * that. A batch without one reserves the maximum batch size; the multipart
+ * parser reads the raw request, so its limit is the servlet's max request
+ * size, which is configured to match.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+    private static final int KIB = 1024;
+
+    private final UploadAdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long maxFileSize;
+    private final long maxBatchSize;
+    private final long maxInFlightPerClient;
+    // Permits are KiB so a budget of several gigabytes still fits in an int
+    private final Semaphore globalBudget;
+    private final Map<String, Long> clientBytes = new ConcurrentHashMap<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong activeBytes = new AtomicLong();
+
+    public UploadAdmissionFilter(UploadAdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxFileSize = properties.getMaxFileSize().toBytes();
+        this.maxBatchSize = properties.getMaxBatchSize().toBytes();
+        this.maxInFlightPerClient = properties.getMaxInFlightPerClient().toBytes();
+        long maxInFlight = properties.getMaxInFlight().toBytes();
+        if (Math.max(maxFileSize, maxBatchSize) > maxInFlightPerClient || maxInFlightPerClient > maxInFlight) {
+            throw new IllegalArgumentException("Upload admission needs max-file-size and max-batch-size"
+                    + " <= max-in-flight-per-client <= max-in-flight");
+        }
+        this.globalBudget = new Semaphore(toPermits(maxInFlight), true);
+
+        Gauge.builder("resource.upload.queued.bytes", queuedBytes, AtomicLong::get)
+                .description("Upload bytes waiting for admission")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("resource.upload.active.bytes", activeBytes, AtomicLong::get)
+                .description("Upload bytes admitted and not yet finished")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !"POST".equals(request.getMethod())
+                || !isSingleUpload(request) && !isBatchUpload(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isBatchUpload(request)) {
+            admitBatch(request, response, chain);
+            return;
+        }
+
+        long declaredLength = request.getContentLengthLong();
+        if (declaredLength > maxFileSize) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "too-large",
+                    "Audio file exceeds the maximum size of " + maxFileSize + " bytes");
+            return;
+        }
+
+        BufferedInputStream body = new BufferedInputStream(
+                new LimitedInputStream(request.getInputStream(), maxFileSize), Mp3Detector.SNIFF_LENGTH);
+        body.mark(Mp3Detector.SNIFF_LENGTH);
+        byte[] header = body.readNBytes(Mp3Detector.SNIFF_LENGTH);
+        body.reset();
+        // An empty body is left to the controller, which reports it as missing
+        if (header.length > 0 && !Mp3Detector.isMp3(header)) {
+            reject(response, HttpStatus.BAD_REQUEST, "invalid", "Invalid MP3 file");
+            return;
+        }
+
+        admit(request, response, chain, new AdmittedRequest(request, body),
+                declaredLength >= 0 ? declaredLength : maxFileSize);
+    }
+
+    // Multipart content cannot be sniffed as a whole; each file is checked by the service
+    private void admitBatch(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long declaredLength = request.getContentLengthLong();
+        if (declaredLength > maxBatchSize) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "too-large",
+                    "Batch exceeds the maximum size of " + maxBatchSize + " bytes");
+            return;
+        }
+        admit(request, response, chain, request, declaredLength >= 0 ? declaredLength : maxBatchSize);
+    }
+
+    private void admit(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                       HttpServletRequest admitted, long reserved) throws ServletException, IOException {
+        String client = clientKey(request);
+        if (!reserveClientBytes(client, reserved)) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "client",
+                    "Too many uploads in progress for this client, retry later");
+            return;
+        }
+
+        int permits = toPermits(reserved);
+        if (!acquireGlobalBudget(permits, reserved)) {
+            releaseClientBytes(client, reserved);
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "global",
+                    "Too many uploads in progress, retry later");
+            return;
+        }
+
+        activeBytes.addAndGet(reserved);
+        try {
+            chain.doFilter(admitted, response);
+        } finally {
+            activeBytes.addAndGet(-reserved);
+            globalBudget.release(permits);
+            releaseClientBytes(client, reserved);
+        }
+    }
+
+    private static boolean isSingleUpload(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + "/resources");
+    }
+
+    private static boolean isBatchUpload(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + "/resources/batch");
+    }
+
+    private boolean acquireGlobalBudget(int permits, long bytes) {
+        queuedBytes.addAndGet(bytes);
+        try {
+            return globalBudget.tryAcquire(permits, properties.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queuedBytes.addAndGet(-bytes);
+        }
+    }
+
+    private boolean reserveClientBytes(String client, long bytes) {
+        boolean[] reserved = {false};
+        clientBytes.compute(client, (key, inFlight) -> {
+            long current = inFlight == null ? 0 : inFlight;
+            if (current + bytes > maxInFlightPerClient) {
+                return inFlight;
+            }
+            reserved[0] = true;
+            return current + bytes;
+        });
+        return reserved[0];
+    }
+
+    private void releaseClientBytes(String client, long bytes) {
+        clientBytes.computeIfPresent(client, (key, inFlight) -> inFlight - bytes > 0 ? inFlight - bytes : null);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String header = properties.getClientHeader();
+        String value = header != null && !header.isBlank() ? request.getHeader(header) : null;
+        if (value == null || value.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        // X-Forwarded-For style lists start with the original client
+        int comma = value.indexOf(',');
+        return (comma >= 0 ? value.substring(0, comma) : value).trim();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String reason, String message) throws IOException {
+        meterRegistry.counter("resource.upload.rejections", "reason", reason).increment();
+        response.setStatus(status.value());
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("errorMessage", message, "errorCode", String.valueOf(status.value())));
+    }
+
+    private static int toPermits(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + KIB - 1) / KIB);
+    }
+
+    private final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > limit) {
+                meterRegistry.counter("resource.upload.rejections", "reason", "too-large").increment();
+                throw new UploadTooLargeException("Audio file exceeds the maximum size of " + limit + " bytes");
+            }
+        }
+    }
+
+    private static final class AdmittedRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream inputStream;
+
+        AdmittedRequest(HttpServletRequest request, InputStream body) {
+            super(request);
+            this.inputStream = new BodyInputStream(body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+    }
+
+    // Replays the sniffed header, then the rest of the body, through the size limit
+    private static final class BodyInputStream extends ServletInputStream {
+        private final InputStream body;
+        private boolean finished;
+
+        BodyInputStream(InputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = body.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = body.read(b, off, len);
+            finished = n < 0;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return body.available();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * The body is a blocking stream that is always ready, so the listener
+         * is told right away that data is available and, once it has read to
+         * the end, that all of it was read.
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                if (finished) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
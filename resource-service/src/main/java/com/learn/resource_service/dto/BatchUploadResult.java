@@ -0,0 +1,31 @@
+package com.learn.resource_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+/**
+ * Outcome of one part of a batch upload: the new resource ID, or why that part failed.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchUploadResult {
+    private final int index;
+    private final String fileName;
+    private final Long id;
+    private final String error;
+
+    private BatchUploadResult(int index, String fileName, Long id, String error) {
+        this.index = index;
+        this.fileName = fileName;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BatchUploadResult succeeded(int index, String fileName, Long id) {
+        return new BatchUploadResult(index, fileName, id, null);
+    }
+
+    public static BatchUploadResult failed(int index, String fileName, String error) {
+        return new BatchUploadResult(index, fileName, null, error);
+    }
+}
@@ -0,0 +1,90 @@
+package com.learn.resource_service.dto;
+
+import com.learn.resource_service.entity.Resource;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An open stream over a resource's stored bytes, backed either by a remote
+ * stream or by a region of a locally cached file. Whoever receives it must
+ * either {@link #writeTo} it or {@link #close} it, or the underlying
+ * connection or file handle stays open.
+ */
+@Getter
+public class ResourceContent implements Closeable {
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    private final Resource resource;
+    /** Null when the content is a region of a cached file. */
+    private final InputStream inputStream;
+    private final long contentLength;
+    private final FileChannel fileChannel;
+    private final long position;
+
+    public ResourceContent(Resource resource, InputStream inputStream, long contentLength) {
+        this.resource = resource;
+        this.inputStream = inputStream;
+        this.contentLength = contentLength;
+        this.fileChannel = null;
+        this.position = 0;
+    }
+
+    public ResourceContent(Resource resource, FileChannel fileChannel, long position, long contentLength) {
+        this.resource = resource;
+        this.fileChannel = fileChannel;
+        this.position = position;
+        this.contentLength = contentLength;
+        this.inputStream = null;
+    }
+
+    /**
+     * Copies the content and closes it. Files go through
+     * {@link FileChannel#transferTo} from the region's offset; the target
+     * wraps the servlet stream rather than a socket, so this is not zero-copy
+     * and the JDK still moves the bytes through a small buffer of its own.
+     * Streams go through one fixed-size buffer. Either way heap use per
+     * download does not depend on the object size.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (fileChannel != null) {
+            try (FileChannel channel = fileChannel) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long transferred = 0;
+                while (transferred < contentLength) {
+                    long sent = channel.transferTo(position + transferred, contentLength - transferred, target);
+                    if (sent <= 0) {
+                        throw new IOException("Cached file ended after " + transferred + " of " + contentLength + " bytes");
+                    }
+                    transferred += sent;
+                }
+                out.flush();
+            }
+            return;
+        }
+
+        try (InputStream in = inputStream) {
+            byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileChannel != null) {
+            fileChannel.close();
+        } else {
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.learn.resource_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resource-created event waiting to be relayed to Kafka. Written in the same
+ * transaction as its {@link Resource}, and deleted once the broker acknowledges it.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private Long resourceId;
+    private LocalDateTime createdAt;
+    private int attempts;
+    @Column(length = 1000)
+    private String lastError;
+    /** Encoded ResourceCreatedEvent; null on rows written before events carried more than the ID. */
+    private byte[] payload;
+    /** Set while a relay is sending the event; once it passes, another pass may claim the event again. */
+    private LocalDateTime claimedUntil;
+
+    public OutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public OutboxEvent(Long resourceId) {
+        this();
+        this.resourceId = resourceId;
+    }
+
+    public OutboxEvent(Long resourceId, byte[] payload) {
+        this(resourceId);
+        this.payload = payload;
+    }
+}
@@ -1,5 +1,6 @@
 package com.learn.resource_service.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,21 +10,37 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "resources")
+@Table(name = "resources", indexes = @Index(name = "idx_resources_status", columnList = "status, status_changed_at"))
 public class Resource {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String s3Url;
     private String originalFileName;
+    private Long size;
+    private String checksum;
     private LocalDateTime uploadedAt;
+    // Null on rows written before states existed, which are all stored
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ResourceStatus status;
+    @JsonIgnore
+    private LocalDateTime statusChangedAt;
 
     public Resource() {
         this.uploadedAt = LocalDateTime.now();
+        this.status = ResourceStatus.STORED;
+        this.statusChangedAt = this.uploadedAt;
     }
 
     public Resource(String s3Url) {
         this();
         this.s3Url = s3Url;
     }
+
+    public void changeStatus(ResourceStatus status) {
+        this.status = status;
+        this.statusChangedAt = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,15 @@
+package com.learn.resource_service.entity;
+
+/**
+ * Where a {@link Resource} is in its storage lifecycle. Only STORED resources
+ * are visible; the other states mark work that happens outside a database
+ * transaction and that ResourceReconciler finishes if the request does not.
+ */
+public enum ResourceStatus {
+    /** Row reserved, object upload still in progress. */
+    PENDING,
+    /** Object uploaded and registered; the normal state. */
+    STORED,
+    /** References released, object and row still to be removed. */
+    DELETING
+}
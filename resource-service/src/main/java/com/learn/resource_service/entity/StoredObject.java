@@ -0,0 +1,27 @@
+package com.learn.resource_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One S3 object per distinct MP3 content, keyed by its SHA-256. Every
+ * {@link Resource} with that checksum shares the object; it is deleted when
+ * the last of them goes away. Maintained through StoredObjectRepository.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "stored_objects")
+public class StoredObject {
+    @Id
+    @Column(length = 64)
+    private String checksum;
+    @Column(nullable = false)
+    private String s3Url;
+    private Long size;
+    private int refCount;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package com.learn.resource_service.exception;
+
+public class UploadTooLargeException extends RuntimeException {
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,137 @@
+package com.learn.resource_service.kafka;
+
+import com.learn.resource_service.entity.OutboxEvent;
+import com.learn.resource_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes committed outbox events to Kafka. Delivery is at-least-once: an
+ * event is only removed after the broker acknowledged it, so a broker outage
+ * just leaves rows behind for the next pass. Each pass claims a batch in one
+ * short transaction and waits for the acks with no transaction or connection
+ * held; a relay that dies mid-pass leaves claims that lapse after
+ * {@code claim-ms}. The table is the retry queue: a failed event keeps its
+ * attempt count and last error, and {@code outbox.relay.failures} counts every
+ * failed send.
+ */
+@Component
+public class OutboxRelay {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ResourceProducer resourceProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long claimMs;
+    private final Counter publishedEvents;
+    private final Counter failedSends;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ResourceProducer resourceProducer,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${outbox.relay.claim-ms:30000}") long claimMs) {
+        if (claimMs <= sendTimeoutMs) {
+            throw new IllegalArgumentException("outbox.relay.claim-ms must be longer than outbox.relay.send-timeout-ms");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.resourceProducer = resourceProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.claimMs = claimMs;
+        this.publishedEvents = meterRegistry.counter("outbox.relay.published");
+        this.failedSends = meterRegistry.counter("outbox.relay.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        List<OutboxEvent> batch = claimNextBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Hand the whole batch to the producer before waiting, so it can share broker round trips
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            byte[] payload = event.getPayload() != null
+                    ? event.getPayload()
+                    : ResourceCreatedEvent.ofId(event.getResourceId()).encode();
+            sends.add(resourceProducer.sendEvent(event.getResourceId(), payload));
+        }
+
+        // One deadline for the whole batch; every event is settled on its own, so a
+        // failure in the middle does not hold back the acknowledged events after it
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<OutboxEvent> published = new ArrayList<>(batch.size());
+        List<OutboxEvent> unsent = new ArrayList<>();
+        boolean interrupted = false;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            if (interrupted) {
+                unsent.add(event);
+                continue;
+            }
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                unsent.add(event);
+            } catch (Exception e) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(String.valueOf(e.getMessage())));
+                unsent.add(event);
+                failedSends.increment();
+                System.err.println("Outbox relay failed to send event " + event.getId() + " for resource " + event.getResourceId() + ": " + e.getMessage());
+            }
+        }
+
+        settle(published, unsent);
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> locked = outboxEventRepository.lockNextBatch(batchSize, now);
+            LocalDateTime claimedUntil = now.plus(claimMs, ChronoUnit.MILLIS);
+            locked.forEach(event -> event.setClaimedUntil(claimedUntil));
+            return locked;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    /** Deletes the acknowledged events and releases the claim on the rest, in one short transaction. */
+    private void settle(List<OutboxEvent> published, List<OutboxEvent> unsent) {
+        unsent.forEach(event -> event.setClaimedUntil(null));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxEventRepository.deleteAllInBatch(published);
+            }
+            if (!unsent.isEmpty()) {
+                outboxEventRepository.saveAll(unsent);
+            }
+        });
+        publishedEvents.increment(published.size());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
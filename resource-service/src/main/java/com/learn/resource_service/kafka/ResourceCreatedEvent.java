@@ -0,0 +1,161 @@
+package com.learn.resource_service.kafka;
+
+import com.learn.resource_service.entity.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+/**
+ * Payload of the resource-created topic: everything a consumer needs to read
+ * the stored object itself instead of calling back into resource-service.
+ *
+ * <p>Wire format, big-endian: a magic byte and a major version, then each
+ * present field as tag (1 byte), length (2 bytes) and value. A typical event
+ * is about 110 bytes. Evolution rules:
+ * <ul>
+ *   <li>A new field gets a new tag. Readers skip tags they do not know, and a
+ *       field missing from an older event reads as null.</li>
+ *   <li>Tags are never reused or retyped. A change that old readers cannot
+ *       safely skip bumps the major version, and readers reject majors newer
+ *       than their own.</li>
+ *   <li>An 8-byte payload without the magic byte is a legacy
+ *       {@code LongSerializer} ID and decodes to an event carrying only the ID,
+ *       so consumers can be upgraded before producers.</li>
+ * </ul>
+ *
+ * <p>resource-processor keeps a copy of this class; the two must agree on tags.
+ */
+public record ResourceCreatedEvent(Long resourceId, String storageKey, Long size, String checksum,
+                                   String contentType, Instant uploadedAt) {
+
+    static final byte MAGIC = (byte) 0xA5;
+    static final byte VERSION = 1;
+
+    private static final int TAG_RESOURCE_ID = 1;
+    private static final int TAG_STORAGE_KEY = 2;
+    private static final int TAG_SIZE = 3;
+    private static final int TAG_CHECKSUM = 4;
+    private static final int TAG_CONTENT_TYPE = 5;
+    private static final int TAG_UPLOADED_AT = 6;
+
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+    private static final String AUDIO_MPEG = "audio/mpeg";
+
+    public ResourceCreatedEvent {
+        if (resourceId == null) {
+            throw new IllegalArgumentException("Resource ID is required");
+        }
+    }
+
+    public static ResourceCreatedEvent of(Resource resource) {
+        String s3Url = resource.getS3Url();
+        return new ResourceCreatedEvent(
+                resource.getId(),
+                s3Url != null ? s3Url.substring(s3Url.lastIndexOf('/') + 1) : null,
+                resource.getSize(),
+                resource.getChecksum(),
+                AUDIO_MPEG,
+                resource.getUploadedAt() != null ? resource.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant() : null);
+    }
+
+    /** An event for an outbox row written before events carried more than the ID. */
+    public static ResourceCreatedEvent ofId(Long resourceId) {
+        return new ResourceCreatedEvent(resourceId, null, null, null, null, null);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeLong(out, TAG_RESOURCE_ID, resourceId);
+            writeString(out, TAG_STORAGE_KEY, storageKey);
+            writeLong(out, TAG_SIZE, size);
+            if (checksum != null) {
+                // SHA-256 travels as 32 raw bytes rather than 64 hex characters
+                writeField(out, TAG_CHECKSUM, HexFormat.of().parseHex(checksum));
+            }
+            writeString(out, TAG_CONTENT_TYPE, contentType);
+            writeLong(out, TAG_UPLOADED_AT, uploadedAt != null ? uploadedAt.toEpochMilli() : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static ResourceCreatedEvent decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Empty resource-created event");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (data[0] != MAGIC) {
+            if (data.length == Long.BYTES) {
+                return ofId(buffer.getLong());
+            }
+            throw new IllegalArgumentException("Not a resource-created event");
+        }
+
+        try {
+            buffer.get();
+            int version = buffer.get() & 0xFF;
+            if (version > VERSION) {
+                throw new IllegalArgumentException("Unsupported resource-created event version " + version);
+            }
+
+            Long resourceId = null;
+            String storageKey = null;
+            Long size = null;
+            String checksum = null;
+            String contentType = null;
+            Instant uploadedAt = null;
+            while (buffer.hasRemaining()) {
+                int tag = buffer.get() & 0xFF;
+                byte[] value = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(value);
+                switch (tag) {
+                    case TAG_RESOURCE_ID -> resourceId = ByteBuffer.wrap(value).getLong();
+                    case TAG_STORAGE_KEY -> storageKey = new String(value, StandardCharsets.UTF_8);
+                    case TAG_SIZE -> size = ByteBuffer.wrap(value).getLong();
+                    case TAG_CHECKSUM -> checksum = HexFormat.of().formatHex(value);
+                    case TAG_CONTENT_TYPE -> contentType = new String(value, StandardCharsets.UTF_8);
+                    case TAG_UPLOADED_AT -> uploadedAt = Instant.ofEpochMilli(ByteBuffer.wrap(value).getLong());
+                    default -> {
+                        // Added by a newer producer; this reader has no use for it
+                    }
+                }
+            }
+            return new ResourceCreatedEvent(resourceId, storageKey, size, checksum, contentType, uploadedAt);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated resource-created event", e);
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, int tag, Long value) throws IOException {
+        if (value != null) {
+            writeField(out, tag, ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, int tag, String value) throws IOException {
+        if (value != null) {
+            writeField(out, tag, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeField(DataOutputStream out, int tag, byte[] value) throws IOException {
+        if (value.length > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Event field " + tag + " is longer than " + MAX_FIELD_LENGTH + " bytes");
+        }
+        out.writeByte(tag);
+        out.writeShort(value.length);
+        out.write(value);
+    }
+}
@@ -2,38 +2,43 @@ package com.learn.resource_service.kafka;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class ResourceProducer {
-    private final KafkaTemplate<String, Long> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final String resourceCreatedTopic;
 
-    public ResourceProducer(KafkaTemplate<String, Long> kafkaTemplate,
+    public ResourceProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
                             @Value("${kafka.topic.resource-created}") String topic) {
         this.kafkaTemplate = kafkaTemplate;
         this.resourceCreatedTopic = topic;
     }
 
-    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    public void sendId(Long id) {
+    /**
+     * Hands an encoded {@link ResourceCreatedEvent} to the producer without
+     * waiting for the broker. Failures are reported through the returned future;
+     * retrying is left to the outbox relay. The resource ID is the record key,
+     * so events for a resource stay in order on one partition as long as the
+     * topic's partition count does not change; adding partitions remaps keys.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> sendEvent(Long resourceId, byte[] event) {
+        CompletableFuture<SendResult<String, byte[]>> future;
         try {
-            // wait for ack from Kafka
-            var result = kafkaTemplate.send(resourceCreatedTopic, id).get();
-
-            System.out.printf(
-                    "Sent ID=%s to topic=%s, partition=%d, offset=%d%n",
-                    id,
-                    resourceCreatedTopic,
-                    result.getRecordMetadata().partition(),
-                    result.getRecordMetadata().offset()
-            );
+            future = kafkaTemplate.send(resourceCreatedTopic, String.valueOf(resourceId), event);
         } catch (Exception e) {
-            System.err.printf("Failed to send ID=%s to topic=%s. Reason: %s%n",
-                    id, resourceCreatedTopic, e.getMessage());
-            e.printStackTrace();
+            future = CompletableFuture.failedFuture(e);
         }
+
+        // Only failures are printed; a line per acknowledged send would cost more than the send itself
+        return future.whenComplete((result, error) -> {
+            if (error != null) {
+                System.err.printf("Failed to send ID=%s to topic=%s. Reason: %s%n",
+                        resourceId, resourceCreatedTopic, error.getMessage());
+            }
+        });
     }
 }
@@ -0,0 +1,20 @@
+package com.learn.resource_service.repository;
+
+import com.learn.resource_service.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Rows are only locked while the relay marks them claimed; SKIP LOCKED lets a second
+    // relay move on to the next unclaimed events instead of waiting for that short transaction
+    @Query(value = "SELECT * FROM outbox_events WHERE claimed_until IS NULL OR claimed_until < :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,128 @@
+package com.learn.resource_service.repository;
+
+import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.entity.ResourceStatus;
+import com.learn.resource_service.kafka.ResourceCreatedEvent;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-row writes for batch uploads. Hibernate cannot batch inserts for
+ * IDENTITY ids, so these go through JDBC batches instead of saveAll.
+ */
+@Repository
+public class ResourceBatchRepository {
+    private static final String INSERT_PENDING_RESOURCE =
+            "INSERT INTO resources (s3_url, original_file_name, uploaded_at, status, status_changed_at) " +
+                    "VALUES (?, ?, ?, 'PENDING', ?)";
+    private static final String COMPLETE_RESOURCE =
+            "UPDATE resources SET s3_url = ?, size = ?, checksum = ?, status = 'STORED', status_changed_at = ? " +
+                    "WHERE id = ? AND status = 'PENDING'";
+    private static final String INSERT_OUTBOX_EVENT =
+            "INSERT INTO outbox_events (resource_id, created_at, attempts, payload) VALUES (?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StoredObjectRepository storedObjectRepository;
+
+    public ResourceBatchRepository(JdbcTemplate jdbcTemplate, StoredObjectRepository storedObjectRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storedObjectRepository = storedObjectRepository;
+    }
+
+    /**
+     * Inserts a PENDING row for each resource before its object is uploaded
+     * and assigns the generated IDs back onto the entities.
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public List<Long> reserveAll(List<Resource> resources) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_PENDING_RESOURCE, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Resource resource = resources.get(i);
+                        ps.setString(1, resource.getS3Url());
+                        ps.setString(2, resource.getOriginalFileName());
+                        ps.setTimestamp(3, Timestamp.valueOf(resource.getUploadedAt()));
+                        ps.setTimestamp(4, Timestamp.valueOf(resource.getStatusChangedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return resources.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != resources.size()) {
+            throw new IllegalStateException("Expected " + resources.size() + " generated IDs but got " + keys.size());
+        }
+
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Long id = ((Number) keys.get(i).get("id")).longValue();
+            resources.get(i).setId(id);
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Marks reserved resources STORED and inserts their resource-created
+     * outbox events in one transaction. Each uploaded object is registered for
+     * deduplication first; a resource whose content was already stored is
+     * re-pointed at the existing object. Fails as a whole if any row is no
+     * longer PENDING because the reconciler gave up on it.
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public void completeAllWithOutbox(List<Resource> resources) {
+        // Checksum order keeps row locks consistent with concurrent batches sharing content
+        resources.stream()
+                .sorted(Comparator.comparing(Resource::getChecksum))
+                .forEach(resource -> resource.setS3Url(
+                        storedObjectRepository.register(resource.getChecksum(), resource.getS3Url(), resource.getSize())));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updated = jdbcTemplate.batchUpdate(COMPLETE_RESOURCE, resources, resources.size(), (ps, resource) -> {
+            ps.setString(1, resource.getS3Url());
+            if (resource.getSize() != null) {
+                ps.setLong(2, resource.getSize());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, resource.getChecksum());
+            ps.setTimestamp(4, now);
+            ps.setLong(5, resource.getId());
+        });
+        for (int[] counts : updated) {
+            for (int count : counts) {
+                if (count == 0) {
+                    throw new IllegalStateException("A resource of the batch is no longer pending");
+                }
+            }
+        }
+        resources.forEach(resource -> resource.changeStatus(ResourceStatus.STORED));
+
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_EVENT, resources, resources.size(), (ps, resource) -> {
+            ps.setLong(1, resource.getId());
+            ps.setTimestamp(2, now);
+            ps.setBytes(3, ResourceCreatedEvent.of(resource).encode());
+        });
+    }
+}
@@ -1,9 +1,31 @@
 package com.learn.resource_service.repository;
 
 import com.learn.resource_service.entity.Resource;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
+
+    // ID order so concurrent deletes of overlapping ID sets lock rows in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Resource r WHERE r.id IN :ids ORDER BY r.id")
+    List<Resource> lockAllById(@Param("ids") Collection<Long> ids);
+
+    // SKIP LOCKED: reconcilers on several pods split the stale rows instead of queueing on them
+    @Query(value = "SELECT * FROM resources " +
+            "WHERE (status = 'PENDING' AND status_changed_at < :pendingBefore) " +
+            "OR (status = 'DELETING' AND status_changed_at < :deletingBefore) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Resource> lockStale(@Param("pendingBefore") LocalDateTime pendingBefore,
+                             @Param("deletingBefore") LocalDateTime deletingBefore,
+                             @Param("limit") int limit);
 }
@@ -0,0 +1,145 @@
+package com.learn.resource_service.repository;
+
+import com.learn.resource_service.entity.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Reference counting for {@link com.learn.resource_service.entity.StoredObject}.
+ * Every count change is a conditional or row-locking statement, so concurrent
+ * uploads and deletes of the same content cannot lose a reference; callers run
+ * them inside the transaction that creates or deletes the owning resource.
+ */
+@Repository
+public class StoredObjectRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public StoredObjectRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a reference to already stored content, if there is a live object for it.
+     */
+    public Optional<String> acquire(String checksum) {
+        List<String> urls = jdbcTemplate.queryForList(
+                "UPDATE stored_objects SET ref_count = ref_count + 1 WHERE checksum = ? AND ref_count > 0 RETURNING s3_url",
+                String.class, checksum);
+        return urls.stream().findFirst();
+    }
+
+    /**
+     * Records a freshly uploaded object, or adds a reference to the object
+     * someone else stored first. Returns the URL every resource with this
+     * content must use; when it differs from {@code s3Url} the fresh object is
+     * a duplicate and can be deleted.
+     */
+    public String register(String checksum, String s3Url, long size) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO stored_objects (checksum, s3_url, size, ref_count, created_at) VALUES (?, ?, ?, 1, now()) " +
+                        "ON CONFLICT (checksum) DO UPDATE SET ref_count = stored_objects.ref_count + 1 " +
+                        "RETURNING s3_url",
+                String.class, checksum, s3Url, size);
+    }
+
+    /**
+     * Locks the rows behind these resources, in checksum order like
+     * registration, and returns the S3 URLs that nothing will refer to once
+     * they are all released. Objects stored before deduplication were never
+     * registered and are always included. Call {@link #releaseAll} in the same
+     * transaction; the locks keep the answer valid until then.
+     */
+    public Set<String> lockReleasable(List<Resource> resources) {
+        Map<ObjectRef, Integer> releases = countReleases(resources);
+        Set<String> releasable = new HashSet<>();
+        resources.stream()
+                .filter(resource -> resource.getS3Url() != null && resource.getChecksum() == null)
+                .forEach(resource -> releasable.add(resource.getS3Url()));
+        if (releases.isEmpty()) {
+            return releasable;
+        }
+
+        Map<ObjectRef, Integer> refCounts = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT checksum, s3_url, ref_count FROM stored_objects WHERE checksum = ANY (?) ORDER BY checksum FOR UPDATE",
+                rs -> {
+                    refCounts.put(new ObjectRef(rs.getString("checksum"), rs.getString("s3_url")), rs.getInt("ref_count"));
+                },
+                (Object) checksums(releases));
+
+        releases.forEach((ref, count) -> {
+            Integer refCount = refCounts.get(ref);
+            if (refCount == null || refCount <= count) {
+                releasable.add(ref.s3Url());
+            }
+        });
+        return releasable;
+    }
+
+    /**
+     * Drops one reference per resource with a single UPDATE, then removes the
+     * rows that reached zero with a single DELETE.
+     */
+    public void releaseAll(List<Resource> resources) {
+        Map<ObjectRef, Integer> releases = countReleases(resources);
+        if (releases.isEmpty()) {
+            return;
+        }
+
+        List<ObjectRef> refs = new ArrayList<>(releases.keySet());
+        jdbcTemplate.update(
+                "UPDATE stored_objects s SET ref_count = s.ref_count - r.released " +
+                        "FROM unnest(?::varchar[], ?::varchar[], ?::int[]) AS r(checksum, s3_url, released) " +
+                        "WHERE s.checksum = r.checksum AND s.s3_url = r.s3_url",
+                refs.stream().map(ObjectRef::checksum).toArray(String[]::new),
+                refs.stream().map(ObjectRef::s3Url).toArray(String[]::new),
+                refs.stream().map(releases::get).toArray(Integer[]::new));
+        jdbcTemplate.update("DELETE FROM stored_objects WHERE checksum = ANY (?) AND ref_count <= 0",
+                (Object) checksums(releases));
+    }
+
+    /**
+     * Returns the URLs among these that something still needs: a registered
+     * object, or a resource that is not being deleted. Anything else is left
+     * over from an interrupted upload or delete and can be removed from S3.
+     */
+    public Set<String> findReferenced(Collection<String> s3Urls) {
+        if (s3Urls.isEmpty()) {
+            return Set.of();
+        }
+        String[] urls = s3Urls.toArray(String[]::new);
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT s3_url FROM stored_objects WHERE s3_url = ANY (?) " +
+                        "UNION SELECT s3_url FROM resources WHERE s3_url = ANY (?) AND status IS DISTINCT FROM 'DELETING'",
+                String.class, urls, urls));
+    }
+
+    private static Map<ObjectRef, Integer> countReleases(List<Resource> resources) {
+        Map<ObjectRef, Integer> releases = new TreeMap<>(
+                Comparator.comparing(ObjectRef::checksum).thenComparing(ObjectRef::s3Url));
+        for (Resource resource : resources) {
+            if (resource.getS3Url() != null && resource.getChecksum() != null) {
+                releases.merge(new ObjectRef(resource.getChecksum(), resource.getS3Url()), 1, Integer::sum);
+            }
+        }
+        return releases;
+    }
+
+    private static String[] checksums(Map<ObjectRef, Integer> releases) {
+        return releases.keySet().stream().map(ObjectRef::checksum).distinct().toArray(String[]::new);
+    }
+
+    private record ObjectRef(String checksum, String s3Url) {
+    }
+}
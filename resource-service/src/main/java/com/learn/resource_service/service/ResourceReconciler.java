@@ -0,0 +1,131 @@
+package com.learn.resource_service.service;
+
+import com.learn.resource_service.cache.DiskContentCache;
+import com.learn.resource_service.cache.ResourceMetadataCache;
+import com.learn.resource_service.client.SongServiceClient;
+import com.learn.resource_service.storage.StorageService;
+import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.entity.ResourceStatus;
+import com.learn.resource_service.repository.ResourceRepository;
+import com.learn.resource_service.repository.StoredObjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Finishes uploads and deletes that a request started but did not complete,
+ * because the pod died or S3 failed. A resource left PENDING longer than any
+ * upload can take is abandoned; a DELETING one has its object removed unless
+ * something still refers to it, then its row and its song. Each pass claims
+ * rows in a short transaction and talks to S3 and song-service with no
+ * transaction open.
+ */
+@Component
+public class ResourceReconciler {
+    private final ResourceRepository resourceRepository;
+    private final StoredObjectRepository storedObjectRepository;
+    private final StorageService storageService;
+    private final SongServiceClient songServiceClient;
+    private final DiskContentCache contentCache;
+    private final ResourceMetadataCache metadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pendingTimeout;
+    private final Duration deletingTimeout;
+    private final int batchSize;
+
+    public ResourceReconciler(ResourceRepository resourceRepository,
+                              StoredObjectRepository storedObjectRepository,
+                              StorageService storageService,
+                              SongServiceClient songServiceClient,
+                              DiskContentCache contentCache,
+                              ResourceMetadataCache metadataCache,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${resource.reconciler.pending-timeout:30m}") Duration pendingTimeout,
+                              @Value("${resource.reconciler.deleting-timeout:5m}") Duration deletingTimeout,
+                              @Value("${resource.reconciler.batch-size:100}") int batchSize) {
+        this.resourceRepository = resourceRepository;
+        this.storedObjectRepository = storedObjectRepository;
+        this.storageService = storageService;
+        this.songServiceClient = songServiceClient;
+        this.contentCache = contentCache;
+        this.metadataCache = metadataCache;
+        this.transactionTemplate = transactionTemplate;
+        this.pendingTimeout = pendingTimeout;
+        this.deletingTimeout = deletingTimeout;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${resource.reconciler.interval-ms:60000}")
+    public void reconcile() {
+        List<Resource> claimed = claimStale();
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        Set<String> referenced = storedObjectRepository.findReferenced(
+                claimed.stream().map(Resource::getS3Url).filter(Objects::nonNull).distinct().toList());
+        List<String> fileNames = claimed.stream()
+                .map(Resource::getS3Url)
+                .filter(s3Url -> s3Url != null && !referenced.contains(s3Url))
+                .distinct()
+                .map(ResourceReconciler::fileName)
+                .toList();
+        Set<String> failed = fileNames.isEmpty() ? Set.of() : storageService.deleteFiles(fileNames);
+        fileNames.stream()
+                .filter(fileName -> !failed.contains(fileName))
+                .forEach(contentCache::invalidate);
+
+        // Rows whose object is still there stay DELETING and come back after the timeout
+        List<Long> purgedIds = claimed.stream()
+                .filter(resource -> resource.getS3Url() == null || !failed.contains(fileName(resource.getS3Url())))
+                .map(Resource::getId)
+                .toList();
+        if (!purgedIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> resourceRepository.deleteAllByIdInBatch(purgedIds));
+        }
+        deleteSongs(purgedIds);
+        claimed.forEach(resource -> metadataCache.invalidate(resource.getId(),
+                resource.getS3Url() != null ? fileName(resource.getS3Url()) : null));
+
+        System.out.println("Reconciler purged " + purgedIds.size() + " of " + claimed.size() + " stale resources");
+    }
+
+    // A delete interrupted before its song went leaves the song to this pass; song-service ignores IDs it never had
+    private void deleteSongs(List<Long> purgedIds) {
+        if (purgedIds.isEmpty()) {
+            return;
+        }
+        try {
+            songServiceClient.deleteSongsByIds(purgedIds);
+        } catch (Exception ex) {
+            System.err.println("Failed to delete songs for resources " + purgedIds + " : " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Marks stale rows DELETING and restarts their clock, so an upload that
+     * finishes late cannot complete them and another pod will not pick them
+     * up again until this pass has had its time.
+     */
+    private List<Resource> claimStale() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Resource> claimed = transactionTemplate.execute(status -> {
+            List<Resource> stale = resourceRepository.lockStale(
+                    now.minus(pendingTimeout), now.minus(deletingTimeout), batchSize);
+            stale.forEach(resource -> resource.changeStatus(ResourceStatus.DELETING));
+            return stale;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private static String fileName(String s3Url) {
+        return s3Url.substring(s3Url.lastIndexOf("/") + 1);
+    }
+}
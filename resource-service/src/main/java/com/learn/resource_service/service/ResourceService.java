@@ -1,12 +1,21 @@
 package com.learn.resource_service.service;
 
+import com.learn.resource_service.dto.BatchUploadResult;
+import com.learn.resource_service.dto.ResourceContent;
 import com.learn.resource_service.entity.Resource;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface ResourceService {
     Long uploadResource(byte[] mp3Data);
+    Long uploadResource(InputStream mp3Stream);
+    List<BatchUploadResult> uploadResources(List<MultipartFile> mp3Files);
     Resource getResourceById(Long id);
     List<Long> deleteResourcesByIds(String csvIds);
-    byte[] getResourceContent(Long id);
+    Resource findContentResource(Long id);
+    CompletableFuture<ResourceContent> openResourceContentAsync(Resource resource);
+    CompletableFuture<ResourceContent> openResourceContentAsync(Resource resource, long start, long end);
 }
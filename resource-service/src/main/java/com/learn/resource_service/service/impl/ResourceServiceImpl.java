@@ -1,87 +1,383 @@
 package com.learn.resource_service.service.impl;
 
+import com.learn.resource_service.cache.DiskContentCache;
+import com.learn.resource_service.cache.ResourceMetadataCache;
 import com.learn.resource_service.client.SongServiceClient;
+import com.learn.resource_service.entity.OutboxEvent;
 import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.entity.ResourceStatus;
+import com.learn.resource_service.dto.BatchUploadResult;
+import com.learn.resource_service.dto.ResourceContent;
+import com.learn.resource_service.exception.UploadTooLargeException;
+import com.learn.resource_service.kafka.ResourceCreatedEvent;
+import com.learn.resource_service.repository.OutboxEventRepository;
+import com.learn.resource_service.repository.ResourceBatchRepository;
+import com.learn.resource_service.repository.StoredObjectRepository;
 import com.learn.resource_service.repository.ResourceRepository;
-import com.learn.resource_service.kafka.ResourceProducer;
 import com.learn.resource_service.service.ResourceService;
-import com.learn.resource_service.client.S3Service;
-import jakarta.transaction.Transactional;
-import org.apache.tika.Tika;
+import com.learn.resource_service.storage.ObjectContent;
+import com.learn.resource_service.storage.StorageService;
+import com.learn.resource_service.util.DigestingInputStream;
+import com.learn.resource_service.util.Mp3Detector;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class ResourceServiceImpl implements ResourceService {
 
     private final ResourceRepository resourceRepository;
-    private final S3Service s3Service;
+    private final OutboxEventRepository outboxEventRepository;
+    private final StorageService storageService;
     private final SongServiceClient songServiceClient;
-    private final ResourceProducer resourceProducer;
-
-    public ResourceServiceImpl(ResourceRepository resourceRepository, S3Service s3Service, SongServiceClient songServiceClient, ResourceProducer resourceProducer) {
+    private final ResourceBatchRepository resourceBatchRepository;
+    private final StoredObjectRepository storedObjectRepository;
+    private final DiskContentCache contentCache;
+    private final ResourceMetadataCache metadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor batchUploadExecutor;
+    private final int maxBatchFiles;
+
+    public ResourceServiceImpl(ResourceRepository resourceRepository,
+                               OutboxEventRepository outboxEventRepository,
+                               StorageService storageService,
+                               SongServiceClient songServiceClient,
+                               ResourceBatchRepository resourceBatchRepository,
+                               StoredObjectRepository storedObjectRepository,
+                               DiskContentCache contentCache,
+                               ResourceMetadataCache metadataCache,
+                               TransactionTemplate transactionTemplate,
+                               @Qualifier("batchUploadExecutor") Executor batchUploadExecutor,
+                               @Value("${resource.batch.max-files:100}") int maxBatchFiles) {
         this.resourceRepository = resourceRepository;
-        this.s3Service = s3Service;
+        this.outboxEventRepository = outboxEventRepository;
+        this.storageService = storageService;
         this.songServiceClient = songServiceClient;
-        this.resourceProducer = resourceProducer;
+        this.resourceBatchRepository = resourceBatchRepository;
+        this.storedObjectRepository = storedObjectRepository;
+        this.contentCache = contentCache;
+        this.metadataCache = metadataCache;
+        this.transactionTemplate = transactionTemplate;
+        this.batchUploadExecutor = batchUploadExecutor;
+        this.maxBatchFiles = maxBatchFiles;
     }
 
+    /**
+     * Content already stored under the same SHA-256 is not uploaded again; the
+     * new resource just takes another reference to the existing object. Its
+     * event still carries the checksum, and the processor copies the metadata
+     * song-service already holds for it rather than parsing the audio. New
+     * content is uploaded with no transaction open: the row is reserved as
+     * PENDING first and marked STORED once the object exists.
+     */
     @Override
-    @Transactional(rollbackOn = Exception.class)
     public Long uploadResource(byte[] mp3Data) {
         validateMp3Data(mp3Data);
 
-        String fileName = null;
-        String s3Url;
-        Resource resource = null;
+        String checksum = sha256Hex(mp3Data);
+        Long existingId;
+        try {
+            existingId = transactionTemplate.execute(status -> storedObjectRepository.acquire(checksum)
+                    .map(s3Url -> {
+                        Resource resource = new Resource(s3Url);
+                        resource.setSize((long) mp3Data.length);
+                        resource.setChecksum(checksum);
+                        return saveAndPublish(resource).getId();
+                    })
+                    .orElse(null));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload resource to S3", e);
+        }
+        if (existingId != null) {
+            return existingId;
+        }
 
+        String fileName = generateUniqueFileName();
+        Long pendingId = reservePending(fileName);
         try {
-            fileName = generateUniqueFileName();
-            s3Url = s3Service.uploadMp3(mp3Data, fileName);
+            String s3Url = storageService.uploadMp3(mp3Data, fileName);
+            return completeUpload(pendingId, s3Url, mp3Data.length, checksum);
+        } catch (Exception e) {
+            abandonUpload(pendingId, fileName);
+            throw new RuntimeException("Failed to upload resource to S3", e);
+        }
+    }
 
-            resource = new Resource();
-            resource.setS3Url(s3Url);
-            resource = resourceRepository.save(resource);
+    /**
+     * Single-pass upload: the MP3 header is sniffed from a small mark/reset
+     * window, then the same stream is hashed and counted on its way to S3, so
+     * heap use does not grow with the file size. The checksum is only known
+     * once the object is written, so a duplicate is deleted right after upload.
+     */
+    @Override
+    public Long uploadResource(InputStream mp3Stream) {
+        Mp3Stream stream = openMp3Stream(mp3Stream);
+        String fileName = generateUniqueFileName();
+        Long pendingId = reservePending(fileName);
 
-            if (resource.getId() == null) {
-                throw new RuntimeException("Failed to save resource to database - ID is null");
-            }
+        try {
+            String s3Url = storageService.uploadMp3(stream.body(), fileName);
+            return completeUpload(pendingId, s3Url, stream.digest().getByteCount(), stream.digest().getHexDigest());
+        } catch (Exception e) {
+            abandonUpload(pendingId, fileName);
+            throw streamingUploadFailure(e);
+        }
+    }
 
-            if (!s3Service.fileExists(fileName)) {
-                throw new RuntimeException("S3 file verification failed after database save");
+    // A body cut off by the admission size limit is the client's fault, however deep the storage wrapped it
+    private static RuntimeException streamingUploadFailure(Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UploadTooLargeException tooLarge) {
+                return tooLarge;
             }
-            resourceProducer.sendId(resource.getId());
-            return resource.getId();
+        }
+        return new RuntimeException("Failed to upload resource to S3", e);
+    }
+
+    // The row exists before the object does, so an upload cut short always leaves something to clean up
+    private Long reservePending(String fileName) {
+        Resource pending = new Resource(storageService.objectUrl(fileName));
+        pending.changeStatus(ResourceStatus.PENDING);
+        try {
+            return transactionTemplate.execute(status -> resourceRepository.save(pending).getId());
         } catch (Exception e) {
-            performCleanupOnFailure(fileName, resource);
-            throw new RuntimeException("Failed to upload resource to S3", e);
+            throw new RuntimeException("Failed to save resource to database", e);
+        }
+    }
+
+    // Fails if the reconciler gave up on the row while the upload was running
+    private Long completeUpload(Long id, String uploadedS3Url, long size, String checksum) {
+        Resource stored = transactionTemplate.execute(status -> {
+            Resource resource = resourceRepository.lockAllById(List.of(id)).stream()
+                    .filter(row -> row.getStatus() == ResourceStatus.PENDING)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Upload of resource " + id + " is no longer pending"));
+            resource.setS3Url(storedObjectRepository.register(checksum, uploadedS3Url, size));
+            resource.setSize(size);
+            resource.setChecksum(checksum);
+            resource.changeStatus(ResourceStatus.STORED);
+            return saveAndPublish(resource);
+        });
+
+        if (!uploadedS3Url.equals(stored.getS3Url())) {
+            // Identical content was stored first; the fresh object is not needed
+            deleteObjectQuietly(uploadedS3Url);
+        }
+        return stored.getId();
+    }
+
+    /**
+     * The fresh object was never registered, so nothing else refers to it. The
+     * row is marked DELETING before the object goes and removed after, so if
+     * any step fails here ResourceReconciler finishes the job.
+     */
+    private void abandonUpload(Long id, String fileName) {
+        try {
+            Boolean stored = transactionTemplate.execute(status -> {
+                List<Resource> rows = resourceRepository.lockAllById(List.of(id));
+                rows.stream()
+                        .filter(row -> row.getStatus() == ResourceStatus.PENDING)
+                        .forEach(row -> row.changeStatus(ResourceStatus.DELETING));
+                return rows.stream().anyMatch(row -> row.getStatus() == ResourceStatus.STORED);
+            });
+            if (Boolean.TRUE.equals(stored)) {
+                return;
+            }
+
+            storageService.deleteFile(fileName);
+            transactionTemplate.executeWithoutResult(status -> resourceRepository.deleteAllByIdInBatch(List.of(id)));
+        } catch (Exception ex) {
+            System.err.println("Failed to clean up upload of resource " + id + ", leaving it to the reconciler: " + ex.getMessage());
         }
     }
 
-    private void performCleanupOnFailure(String fileName, Resource resource) {
-        if (fileName != null) {
+    /**
+     * Reserves a PENDING row for every file with one JDBC batch, uploads the
+     * files to S3 in parallel on the bounded batch executor, then marks the
+     * stored ones STORED and inserts their outbox events with another. A file
+     * that fails validation or upload only fails its own entry; if the final
+     * update fails, all entries fail. Either way the rows are abandoned like a
+     * single failed upload, so nothing is left that ResourceReconciler cannot
+     * find.
+     */
+    @Override
+    public List<BatchUploadResult> uploadResources(List<MultipartFile> mp3Files) {
+        if (mp3Files == null || mp3Files.isEmpty()) {
+            throw new IllegalArgumentException("At least one audio file is required");
+        }
+        if (mp3Files.size() > maxBatchFiles) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxBatchFiles + " files. Got " + mp3Files.size());
+        }
+
+        List<String> fileNames = new ArrayList<>(mp3Files.size());
+        List<Resource> pending = new ArrayList<>(mp3Files.size());
+        for (MultipartFile file : mp3Files) {
+            String fileName = generateUniqueFileName();
+            Resource resource = new Resource(storageService.objectUrl(fileName));
+            resource.setOriginalFileName(file.getOriginalFilename());
+            resource.changeStatus(ResourceStatus.PENDING);
+            fileNames.add(fileName);
+            pending.add(resource);
+        }
+        try {
+            resourceBatchRepository.reserveAll(pending);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to save resource to database", e);
+        }
+
+        List<CompletableFuture<Resource>> uploads = new ArrayList<>(mp3Files.size());
+        for (int i = 0; i < mp3Files.size(); i++) {
+            MultipartFile file = mp3Files.get(i);
+            Resource resource = pending.get(i);
+            String fileName = fileNames.get(i);
+            uploads.add(CompletableFuture.supplyAsync(() -> storeFile(file, resource, fileName), batchUploadExecutor));
+        }
+        CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0]))
+                .exceptionally(error -> null)
+                .join();
+
+        BatchUploadResult[] results = new BatchUploadResult[mp3Files.size()];
+        List<Resource> stored = new ArrayList<>();
+        List<Integer> storedIndexes = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            String originalName = mp3Files.get(i).getOriginalFilename();
             try {
-                if (s3Service.fileExists(fileName)) {
-                    s3Service.deleteFile(fileName);
-                }
-            } catch (Exception ex) {
-                System.err.println("Failed to delete file from S3 during cleanup: " + ex.getMessage());
+                stored.add(uploads.get(i).join());
+                storedIndexes.add(i);
+            } catch (CompletionException e) {
+                abandonUpload(pending.get(i).getId(), fileNames.get(i));
+                results[i] = BatchUploadResult.failed(i, originalName, e.getCause().getMessage());
             }
         }
 
-        if (resource != null && resource.getId() != null) {
+        if (!stored.isEmpty()) {
+            List<String> uploadedUrls = stored.stream().map(Resource::getS3Url).toList();
             try {
-                resourceRepository.deleteById(resource.getId());
-            } catch (Exception ex) {
-                System.err.println("Failed to delete resource from database during cleanup: " + ex.getMessage());
+                resourceBatchRepository.completeAllWithOutbox(stored);
+                for (int j = 0; j < stored.size(); j++) {
+                    int index = storedIndexes.get(j);
+                    Resource resource = stored.get(j);
+                    results[index] = BatchUploadResult.succeeded(index, resource.getOriginalFileName(), resource.getId());
+                    metadataCache.invalidate(resource.getId(), extractFileNameFromS3Url(resource.getS3Url()));
+                    if (!uploadedUrls.get(j).equals(resource.getS3Url())) {
+                        // Content was already stored; the update pointed the resource at the existing object
+                        deleteObjectQuietly(uploadedUrls.get(j));
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to save batch of " + stored.size() + " resources: " + e.getMessage());
+                for (int j = 0; j < stored.size(); j++) {
+                    int index = storedIndexes.get(j);
+                    abandonUpload(stored.get(j).getId(), fileNames.get(index));
+                    results[index] = BatchUploadResult.failed(index, mp3Files.get(index).getOriginalFilename(),
+                            "Failed to save resource to database");
+                }
             }
         }
+
+        return Arrays.asList(results);
+    }
+
+    private Resource storeFile(MultipartFile file, Resource reserved, String fileName) {
+        try (InputStream in = file.getInputStream()) {
+            return storeStream(in, reserved, fileName);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read uploaded file", e);
+        }
+    }
+
+    // Validates the header, then streams the body to S3; the reserved row is only updated in memory
+    private Resource storeStream(InputStream mp3Stream, Resource reserved, String fileName) {
+        Mp3Stream stream = openMp3Stream(mp3Stream);
+
+        try {
+            reserved.setS3Url(storageService.uploadMp3(stream.body(), fileName));
+            reserved.setSize(stream.digest().getByteCount());
+            reserved.setChecksum(stream.digest().getHexDigest());
+            return reserved;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload resource to S3", e);
+        }
+    }
+
+    // Rejects anything without an MP3 header before a byte goes to S3
+    private Mp3Stream openMp3Stream(InputStream mp3Stream) {
+        if (mp3Stream == null) {
+            throw new IllegalArgumentException("Audio file is required");
+        }
+
+        DigestingInputStream digestingStream = new DigestingInputStream(mp3Stream);
+        BufferedInputStream bufferedStream = new BufferedInputStream(digestingStream, Mp3Detector.SNIFF_LENGTH);
+        validateMp3Data(readHeader(bufferedStream));
+        return new Mp3Stream(digestingStream, bufferedStream);
+    }
+
+    private record Mp3Stream(DigestingInputStream digest, InputStream body) {
+    }
+
+    private void deleteObjectQuietly(String s3Url) {
+        storageService.deleteFileAsync(extractFileNameFromS3Url(s3Url))
+                .exceptionally(error -> {
+                    System.err.println("Failed to delete file from S3 during cleanup: " + error.getMessage());
+                    return null;
+                });
+    }
+
+    private byte[] readHeader(BufferedInputStream stream) {
+        try {
+            stream.mark(Mp3Detector.SNIFF_LENGTH);
+            byte[] header = stream.readNBytes(Mp3Detector.SNIFF_LENGTH);
+            stream.reset();
+            return header;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read upload stream", e);
+        }
+    }
+
+    private Resource saveAndPublish(Resource resource) {
+        Resource saved = resourceRepository.save(resource);
+
+        if (saved.getId() == null) {
+            throw new RuntimeException("Failed to save resource to database - ID is null");
+        }
+
+        // Same transaction as the resource row; OutboxRelay publishes it once committed,
+        // so the processor can never see an ID before the row is visible
+        outboxEventRepository.save(new OutboxEvent(saved.getId(), ResourceCreatedEvent.of(saved).encode()));
+        metadataCache.invalidate(saved.getId(), extractFileNameFromS3Url(saved.getS3Url()));
+        return saved;
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     private String generateUniqueFileName() {
@@ -93,12 +389,13 @@ public class ResourceServiceImpl implements ResourceService {
     @Override
     public Resource getResourceById(Long id) {
         validateId(id);
-        Resource resource = resourceRepository.findById(id)
+        Resource resource = metadataCache.findResource(id)
+                .filter(ResourceServiceImpl::isStored)
                 .orElseThrow(() -> new NoSuchElementException("Resource with ID=" + id + " not found"));
 
         if (resource.getS3Url() != null) {
             String fileName = extractFileNameFromS3Url(resource.getS3Url());
-            if (!s3Service.fileExists(fileName)) {
+            if (!metadataCache.objectExists(fileName)) {
                 throw new NoSuchElementException("S3 file for resource ID=" + id + " does not exist");
             }
         }
@@ -106,69 +403,194 @@ public class ResourceServiceImpl implements ResourceService {
         return resource;
     }
 
+    // Rows written before states existed have none and are all stored
+    private static boolean isStored(Resource resource) {
+        return resource.getStatus() == null || resource.getStatus() == ResourceStatus.STORED;
+    }
+
     private String extractFileNameFromS3Url(String s3Url) {
         // Format: https://bucket-name.s3.amazonaws.com/filename
         return s3Url.substring(s3Url.lastIndexOf("/") + 1);
     }
 
+    /**
+     * Deletes in a fixed number of round trips however many IDs are given: one
+     * S3 DeleteObjects per 1000 objects, set-based SQL and batched song-service
+     * calls. The rows are hidden as DELETING and their references released in
+     * one short transaction, and removed in another once S3 is done, so no
+     * connection is held during S3 or song-service calls. A resource whose S3
+     * object could not be deleted stays DELETING for the reconciler and is
+     * left out of the result.
+     */
     @Override
-    @Transactional(rollbackOn = Exception.class)
     public List<Long> deleteResourcesByIds(String csvIds) {
         validateCsvIds(csvIds);
-        List<Long> deletedIds = new ArrayList<>();
 
         List<Long> ids = Arrays.stream(csvIds.split(","))
                 .map(String::trim)
                 .map(Long::valueOf)
+                .distinct()
                 .toList();
 
-        ids.forEach(id -> {
-            Optional<Resource> resourceOpt = resourceRepository.findById(id);
-            if (resourceOpt.isPresent()) {
-                Resource resource = resourceOpt.get();
+        DeletePlan plan = transactionTemplate.execute(status -> {
+            Map<Long, Resource> found = resourceRepository.lockAllById(ids).stream()
+                    .filter(ResourceServiceImpl::isStored)
+                    .collect(Collectors.toMap(Resource::getId, Function.identity()));
+            List<Resource> resources = ids.stream().filter(found::containsKey).map(found::get).toList();
+            if (resources.isEmpty()) {
+                return new DeletePlan(List.of(), Set.of());
+            }
 
-                try {
-                    if (resource.getS3Url() != null) {
-                        String fileName = extractFileNameFromS3Url(resource.getS3Url());
-                        s3Service.deleteFile(fileName);
+            Set<String> releasable = storedObjectRepository.lockReleasable(resources);
+            storedObjectRepository.releaseAll(resources);
+            resources.forEach(resource -> resource.changeStatus(ResourceStatus.DELETING));
+            return new DeletePlan(resources, releasable);
+        });
+        if (plan.resources().isEmpty()) {
+            return List.of();
+        }
+        plan.resources().forEach(resource -> metadataCache.invalidate(resource.getId(),
+                resource.getS3Url() != null ? extractFileNameFromS3Url(resource.getS3Url()) : null));
 
-                        if (s3Service.fileExists(fileName)) {
-                            throw new RuntimeException("S3 file deletion verification failed for: " + fileName);
-                        }
-                    }
+        Set<String> failedFileNames = deleteObjects(plan.releasable());
+        List<Resource> deletable = plan.resources().stream()
+                .filter(resource -> resource.getS3Url() == null
+                        || !failedFileNames.contains(extractFileNameFromS3Url(resource.getS3Url())))
+                .toList();
+        plan.resources().stream()
+                .filter(resource -> !deletable.contains(resource))
+                .forEach(resource -> System.err.println("Failed to delete resource " + resource.getId()
+                        + " : S3 object could not be deleted, left to the reconciler"));
+        if (deletable.isEmpty()) {
+            return List.of();
+        }
 
-                    resourceRepository.delete(resource);
-                    songServiceClient.deleteSongById(resource.getId());
-                    deletedIds.add(id);
-                } catch (Exception ex) {
-                    System.err.println("Failed to delete resource " + id + " : " + ex.getMessage());
-                }
-            }
-        });
+        List<Long> deletedIds = deletable.stream().map(Resource::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> resourceRepository.deleteAllByIdInBatch(deletedIds));
+
+        try {
+            songServiceClient.deleteSongsByIds(deletedIds);
+        } catch (Exception ex) {
+            System.err.println("Failed to delete songs for resources " + deletedIds + " : " + ex.getMessage());
+        }
 
         return deletedIds;
     }
 
+    private record DeletePlan(List<Resource> resources, Set<String> releasable) {
+    }
+
+    // Returns the file names S3 could not delete
+    private Set<String> deleteObjects(Set<String> s3Urls) {
+        if (s3Urls.isEmpty()) {
+            return Set.of();
+        }
+        List<String> fileNames = s3Urls.stream().map(this::extractFileNameFromS3Url).toList();
+        Set<String> failed = storageService.deleteFiles(fileNames);
+        fileNames.stream()
+                .filter(fileName -> !failed.contains(fileName))
+                .forEach(contentCache::invalidate);
+        return failed;
+    }
+
+    /**
+     * Looks the resource up without touching S3, for callers that need its
+     * size and validators before deciding what to stream.
+     */
+    @Override
+    public Resource findContentResource(Long id) {
+        return findResourceWithContent(id);
+    }
+
+    /**
+     * Opens the stored object as a stream instead of loading it. The bytes were
+     * validated as MP3 at upload and objects are immutable, so they are not
+     * sniffed again. Every failure is reported through the returned future.
+     */
+    @Override
+    public CompletableFuture<ResourceContent> openResourceContentAsync(Resource resource) {
+        if (resource.getS3Url() == null) {
+            return CompletableFuture.failedFuture(new RuntimeException(
+                    "Resource " + resource.getId() + " has no S3 URL - cannot retrieve content"));
+        }
+
+        String fileName = extractFileNameFromS3Url(resource.getS3Url());
+        if (contentCache.accepts(resource.getSize())) {
+            return openFromCache(resource, fileName,
+                    () -> toResourceContent(resource, storageService.openAsync(fileName), resource.getSize()));
+        }
+        return toResourceContent(resource, storageService.openAsync(fileName), resource.getSize());
+    }
+
+    /**
+     * A range is served from the cached copy only if the whole object is
+     * already on disk. On a miss it is read from storage straight away while
+     * the cache fills in the background, so a seek into a large file never
+     * waits for the rest of it to download.
+     */
     @Override
-    public byte[] getResourceContent(Long id) {
+    public CompletableFuture<ResourceContent> openResourceContentAsync(Resource resource, long start, long end) {
+        if (resource.getS3Url() == null) {
+            return CompletableFuture.failedFuture(new RuntimeException(
+                    "Resource " + resource.getId() + " has no S3 URL - cannot retrieve content"));
+        }
+
+        String fileName = extractFileNameFromS3Url(resource.getS3Url());
+        long length = end - start + 1;
+        if (contentCache.accepts(resource.getSize())) {
+            Optional<FileChannel> cached = contentCache.openIfCached(fileName);
+            if (cached.isPresent()) {
+                contentCache.recordServed(length);
+                return CompletableFuture.completedFuture(new ResourceContent(resource, cached.get(), start, length));
+            }
+            contentCache.prefetch(fileName);
+        }
+        return toResourceContent(resource, storageService.openAsync(fileName, start, end), length);
+    }
+
+    // A cache failure only costs the S3 round trip the cache was meant to save
+    private CompletableFuture<ResourceContent> openFromCache(Resource resource, String fileName,
+                                                             Supplier<CompletableFuture<ResourceContent>> fromS3) {
+        return contentCache.openAsync(fileName)
+                .thenApply(channel -> {
+                    contentCache.recordServed(resource.getSize());
+                    return new ResourceContent(resource, channel, 0, resource.getSize());
+                })
+                .exceptionallyCompose(error -> {
+                    System.err.println("Serving " + fileName + " from S3, content cache failed: " + error.getMessage());
+                    return fromS3.get();
+                });
+    }
+
+    private CompletableFuture<ResourceContent> toResourceContent(Resource resource,
+                                                                 CompletableFuture<ObjectContent> opened,
+                                                                 Long fallbackLength) {
+        return opened.handle((content, error) -> {
+            if (error != null) {
+                throw new RuntimeException("Failed to retrieve resource content for ID=" + resource.getId(),
+                        error instanceof CompletionException ? error.getCause() : error);
+            }
+            if (content.getFileChannel() != null) {
+                return new ResourceContent(resource, content.getFileChannel(), content.getPosition(), content.getContentLength());
+            }
+            long contentLength = content.getContentLength();
+            return new ResourceContent(resource, content.getInputStream(),
+                    contentLength >= 0 || fallbackLength == null ? contentLength : fallbackLength);
+        });
+    }
+
+    private Resource findResourceWithContent(Long id) {
         validateId(id);
 
         Resource resource = resourceRepository.findById(id)
+                .filter(ResourceServiceImpl::isStored)
                 .orElseThrow(() -> new NoSuchElementException("Resource with ID=" + id + " not found"));
 
         if (resource.getS3Url() == null) {
             throw new RuntimeException("Resource " + id + " has no S3 URL - cannot retrieve content");
         }
 
-        try {
-            String fileName = extractFileNameFromS3Url(resource.getS3Url());
-            byte[] content = s3Service.downloadFile(fileName);
-
-            validateMp3Data(content);
-            return content;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to retrieve resource content for ID=" + id, e);
-        }
+        return resource;
     }
 
     private void validateMp3Data(byte[] mp3Data) {
@@ -176,9 +598,7 @@ public class ResourceServiceImpl implements ResourceService {
             throw new IllegalArgumentException("Audio file is required");
         }
 
-        Tika tika = new Tika();
-        String mimeType = tika.detect(mp3Data);
-        if (!"audio/mpeg".equals(mimeType)) {
+        if (!Mp3Detector.isMp3(mp3Data)) {
             throw new IllegalArgumentException("Invalid MP3 file");
         }
     }
@@ -0,0 +1,243 @@
+package com.learn.resource_service.storage;
+
+import com.learn.resource_service.config.LocalStorageProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Keeps objects as plain files in one directory, for edge nodes with local
+ * disks and for measuring the upload and download pipeline without S3
+ * latency. Writes go to a temporary file that is moved into place
+ * atomically, so a reader never sees half an object; reads hand out file
+ * regions that are sent with {@link FileChannel#transferTo}.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalFileStorageService implements StorageService {
+    private static final String PARTIAL_SUFFIX = ".part";
+    // Bytes moved per transferFrom call when reading an upload stream
+    private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final Path directory;
+
+    public LocalFileStorageService(LocalStorageProperties properties) {
+        this.directory = properties.getDirectory().toAbsolutePath().normalize();
+        prepareDirectory();
+    }
+
+    @Override
+    public String objectUrl(String fileName) {
+        return resolve(fileName).toUri().toString();
+    }
+
+    @Override
+    public String uploadMp3(byte[] mp3Data, String fileName) {
+        if (mp3Data == null || mp3Data.length == 0) {
+            throw new IllegalArgumentException("Upload data cannot be null or empty");
+        }
+        return write(fileName, channel -> {
+            ByteBuffer buffer = ByteBuffer.wrap(mp3Data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    @Override
+    public String uploadMp3(InputStream mp3Stream, String fileName) {
+        if (mp3Stream == null) {
+            throw new IllegalArgumentException("Upload stream cannot be null");
+        }
+        return write(fileName, channel -> {
+            ReadableByteChannel source = Channels.newChannel(mp3Stream);
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+        });
+    }
+
+    @Override
+    public byte[] downloadFile(String fileName) {
+        try {
+            return Files.readAllBytes(resolve(fileName));
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("File not found in storage: " + fileName, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file from storage: " + fileName, e);
+        }
+    }
+
+    @Override
+    public boolean fileExists(String fileName) {
+        Path path = resolve(fileName);
+        try {
+            return Files.isRegularFile(path) && Files.size(path) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<ObjectContent> openAsync(String fileName) {
+        try {
+            FileChannel channel = open(fileName);
+            return CompletableFuture.completedFuture(ObjectContent.ofFile(channel, 0, channel.size()));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Like a ranged GET, an end past the last byte is cut back to it. */
+    @Override
+    public CompletableFuture<ObjectContent> openAsync(String fileName, long start, long end) {
+        if (start < 0 || end < start) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid byte range: " + start + "-" + end));
+        }
+        FileChannel channel = null;
+        try {
+            channel = open(fileName);
+            long size = channel.size();
+            if (start >= size) {
+                throw new IllegalArgumentException("Byte range " + start + "-" + end + " is outside " + fileName + " of " + size + " bytes");
+            }
+            return CompletableFuture.completedFuture(ObjectContent.ofFile(channel, start, Math.min(end, size - 1) - start + 1));
+        } catch (Exception e) {
+            closeQuietly(channel);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void deleteFile(String fileName) {
+        try {
+            Files.deleteIfExists(resolve(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete file from storage: " + fileName, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFileAsync(String fileName) {
+        try {
+            deleteFile(fileName);
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public Set<String> deleteFiles(Collection<String> fileNames) {
+        Set<String> failed = new LinkedHashSet<>();
+        for (String fileName : new LinkedHashSet<>(fileNames)) {
+            try {
+                deleteFile(fileName);
+            } catch (Exception e) {
+                System.err.println("Failed to delete " + fileName + " from storage: " + e.getMessage());
+                failed.add(fileName);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    private String write(String fileName, ChannelWriter writer) {
+        Path target = resolve(fileName);
+        Path partial = null;
+        try {
+            partial = Files.createTempFile(directory, "upload-", PARTIAL_SUFFIX);
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                writer.write(channel);
+                // The object must be on disk before the database says it exists
+                channel.force(true);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            return objectUrl(fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store file locally: " + fileName, e);
+        } finally {
+            if (partial != null) {
+                try {
+                    Files.deleteIfExists(partial);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete partial upload " + partial + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private FileChannel open(String fileName) throws IOException {
+        try {
+            return FileChannel.open(resolve(fileName), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("File not found in storage: " + fileName, e);
+        }
+    }
+
+    // File names come from clients' resources, so anything that could leave the directory is rejected
+    private Path resolve(String fileName) {
+        if (fileName == null || fileName.isBlank() || fileName.length() > 255
+                || fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid file name: " + fileName);
+        }
+        return directory.resolve(fileName);
+    }
+
+    private void prepareDirectory() {
+        try {
+            Files.createDirectories(directory);
+            // Uploads interrupted by a crash never made it into place
+            try (Stream<Path> leftovers = Files.list(directory)) {
+                leftovers.filter(path -> path.getFileName().toString().endsWith(PARTIAL_SUFFIX))
+                        .forEach(path -> {
+                            try {
+                                Files.deleteIfExists(path);
+                            } catch (IOException e) {
+                                System.err.println("Failed to delete partial upload " + path + ": " + e.getMessage());
+                            }
+                        });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare storage directory " + directory, e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing was read from it
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+}
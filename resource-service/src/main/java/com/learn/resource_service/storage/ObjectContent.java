@@ -0,0 +1,48 @@
+package com.learn.resource_service.storage;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+
+/**
+ * An opened object or byte range of one, as a {@link StorageService} hands it
+ * out: either a stream, or a region of a local file that can be sent with
+ * {@link FileChannel#transferTo} without passing through the heap. Whoever
+ * receives it must read and close it.
+ */
+@Getter
+public final class ObjectContent implements Closeable {
+    /** Null when the content is a file region. */
+    private final InputStream inputStream;
+    /** Null when the content is a stream. */
+    private final FileChannel fileChannel;
+    private final long position;
+    private final long contentLength;
+
+    private ObjectContent(InputStream inputStream, FileChannel fileChannel, long position, long contentLength) {
+        this.inputStream = inputStream;
+        this.fileChannel = fileChannel;
+        this.position = position;
+        this.contentLength = contentLength;
+    }
+
+    public static ObjectContent ofStream(InputStream inputStream, long contentLength) {
+        return new ObjectContent(inputStream, null, 0, contentLength);
+    }
+
+    public static ObjectContent ofFile(FileChannel fileChannel, long position, long contentLength) {
+        return new ObjectContent(null, fileChannel, position, contentLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileChannel != null) {
+            fileChannel.close();
+        } else {
+            inputStream.close();
+        }
+    }
+}
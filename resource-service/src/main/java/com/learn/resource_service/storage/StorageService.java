@@ -0,0 +1,52 @@
+package com.learn.resource_service.storage;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where MP3 objects live. Exactly one implementation is active, chosen by
+ * {@code storage.type}: {@code s3} (the default) or {@code local}. Objects
+ * are immutable and addressed by file name; the URL returned on upload is
+ * what resources store, and its last path segment is always the file name.
+ */
+public interface StorageService {
+
+    /** The URL an object stored under this name has, even before it is written. */
+    String objectUrl(String fileName);
+
+    String uploadMp3(byte[] mp3Data, String fileName);
+
+    /** Stores a body of unknown length without holding it in memory. */
+    String uploadMp3(InputStream mp3Stream, String fileName);
+
+    byte[] downloadFile(String fileName);
+
+    boolean fileExists(String fileName);
+
+    /**
+     * Opens the object for streaming. Every failure, including a missing
+     * object, is reported through the returned future.
+     */
+    CompletableFuture<ObjectContent> openAsync(String fileName);
+
+    /** Same as {@link #openAsync(String)}, limited to the inclusive byte range {@code [start, end]}. */
+    CompletableFuture<ObjectContent> openAsync(String fileName, long start, long end);
+
+    void deleteFile(String fileName);
+
+    CompletableFuture<Void> deleteFileAsync(String fileName);
+
+    /**
+     * Deletes many objects at once and returns the names that could not be
+     * deleted. Missing objects count as deleted.
+     */
+    Set<String> deleteFiles(Collection<String> fileNames);
+
+    /**
+     * Whether reads cross the network, so a copy on local disk is worth
+     * keeping. The content cache stays out of the way when this is false.
+     */
+    boolean isRemote();
+}
@@ -0,0 +1,76 @@
+package com.learn.resource_service.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Counts and SHA-256 hashes every byte read through it, so size and checksum
+ * come out of the same pass that ships the bytes to storage.
+ */
+public class DigestingInputStream extends FilterInputStream {
+    private final MessageDigest digest;
+    private long byteCount;
+    private String hexDigest;
+
+    public DigestingInputStream(InputStream in) {
+        super(in);
+        this.digest = newSha256();
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            digest.update((byte) b);
+            byteCount++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            digest.update(b, off, read);
+            byteCount += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes would be missing from the checksum
+        throw new IOException("skip is not supported on a digesting stream");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Finishes the digest; call once the stream has been fully consumed.
+     */
+    public String getHexDigest() {
+        if (hexDigest == null) {
+            hexDigest = HexFormat.of().formatHex(digest.digest());
+        }
+        return hexDigest;
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.learn.resource_service.util;
+
+/**
+ * Recognises MP3 content from its first few kilobytes: an optional ID3v2 tag
+ * followed by an MPEG audio frame header. Accepts the same leading signatures
+ * Tika maps to audio/mpeg, but also checks the header fields so random bytes
+ * behind a plausible magic number are rejected.
+ *
+ * <p>Stateless, and therefore safe to share between threads.
+ */
+public final class Mp3Detector {
+
+    /** Number of leading bytes that are ever inspected. */
+    public static final int SNIFF_LENGTH = 8 * 1024;
+
+    private static final int ID3V2_HEADER_LENGTH = 10;
+    private static final int FRAME_HEADER_LENGTH = 4;
+
+    private Mp3Detector() {
+    }
+
+    public static boolean isMp3(byte[] data) {
+        return data != null && isMp3(data, data.length);
+    }
+
+    public static boolean isMp3(byte[] data, int length) {
+        if (data == null) {
+            return false;
+        }
+        int limit = Math.min(Math.min(length, data.length), SNIFF_LENGTH);
+
+        if (hasId3v2Header(data, limit)) {
+            long audioStart = id3v2TagEnd(data);
+            if (audioStart < 0) {
+                return false;
+            }
+            if (audioStart + FRAME_HEADER_LENGTH > limit) {
+                // Tag runs past the sniff window; a well-formed ID3 header is all we can check
+                return true;
+            }
+            return findFrameHeader(data, (int) audioStart, limit) >= 0;
+        }
+
+        return limit >= FRAME_HEADER_LENGTH && isFrameHeader(data, 0);
+    }
+
+    // Offset of the first valid MPEG frame header in [from, limit), or -1
+    private static int findFrameHeader(byte[] data, int from, int limit) {
+        for (int i = from; i + FRAME_HEADER_LENGTH <= limit; i++) {
+            if (isFrameHeader(data, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isFrameHeader(byte[] data, int offset) {
+        int b1 = data[offset + 1] & 0xFF;
+        int b2 = data[offset + 2] & 0xFF;
+        int b3 = data[offset + 3] & 0xFF;
+
+        if ((data[offset] & 0xFF) != 0xFF || (b1 & 0xE0) != 0xE0) {
+            return false;
+        }
+        int version = (b1 >> 3) & 0x03;
+        int layer = (b1 >> 1) & 0x03;
+        int bitrateIndex = (b2 >> 4) & 0x0F;
+        int sampleRateIndex = (b2 >> 2) & 0x03;
+        int emphasis = b3 & 0x03;
+
+        return version != 1        // reserved
+                && layer != 0      // reserved
+                && bitrateIndex != 15
+                && sampleRateIndex != 3
+                && emphasis != 2;  // reserved
+    }
+
+    private static boolean hasId3v2Header(byte[] data, int limit) {
+        return limit >= ID3V2_HEADER_LENGTH
+                && data[0] == 'I' && data[1] == 'D' && data[2] == '3';
+    }
+
+    // Offset just past the ID3v2 tag (header, body and optional footer), or -1 if the header is malformed
+    private static long id3v2TagEnd(byte[] data) {
+        int majorVersion = data[3] & 0xFF;
+        int revision = data[4] & 0xFF;
+        int flags = data[5] & 0xFF;
+
+        if (majorVersion < 2 || majorVersion > 4 || revision == 0xFF) {
+            return -1;
+        }
+
+        long tagSize = 0;
+        for (int i = 6; i < ID3V2_HEADER_LENGTH; i++) {
+            int b = data[i] & 0xFF;
+            if ((b & 0x80) != 0) {
+                return -1; // sizes are synchsafe integers
+            }
+            tagSize = (tagSize << 7) | b;
+        }
+
+        boolean hasFooter = majorVersion == 4 && (flags & 0x10) != 0;
+        return ID3V2_HEADER_LENGTH + tagSize + (hasFooter ? ID3V2_HEADER_LENGTH : 0);
+    }
+}
@@ -0,0 +1,95 @@
+package com.learn.resource_service.benchmark;
+
+import com.learn.resource_service.config.HttpClientProperties;
+import com.learn.resource_service.config.PooledHttpClients;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pooled keep-alive client with the plain {@code new RestTemplate()}
+ * it replaced, with 16 threads calling a local server like concurrent song
+ * deletions would. HttpURLConnection keeps at most five idle connections per
+ * host, so under this load most of its calls open a fresh socket.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.learn.resource_service.benchmark.HttpClientPoolBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpClientPoolBenchmark {
+
+    @Param({"simple", "pooled"})
+    private String client;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpClient pooledClient;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = "{\"ids\":[1]}".getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/songs", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/songs?id=1";
+
+        if ("pooled".equals(client)) {
+            pooledClient = PooledHttpClients.create("song-service", new HttpClientProperties.Pool(), new SimpleMeterRegistry());
+            restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(pooledClient));
+        } else {
+            restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (pooledClient != null) {
+            pooledClient.close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public String call() {
+        return restTemplate.getForObject(url, String.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HttpClientPoolBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
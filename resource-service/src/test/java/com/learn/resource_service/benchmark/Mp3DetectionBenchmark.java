@@ -0,0 +1,61 @@
+package com.learn.resource_service.benchmark;
+
+import com.learn.resource_service.util.Mp3Detector;
+import org.apache.tika.Tika;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the header-only sniffer with the per-request Tika detection it replaced.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.learn.resource_service.benchmark.Mp3DetectionBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Mp3DetectionBenchmark {
+
+    @Param({"16384", "1048576", "52428800"})
+    private int fileSize;
+
+    private byte[] mp3Data;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] sample;
+        try (InputStream in = Mp3DetectionBenchmark.class.getResourceAsStream("/test.mp3")) {
+            sample = in.readAllBytes();
+        }
+        mp3Data = new byte[fileSize];
+        for (int offset = 0; offset < fileSize; offset += sample.length) {
+            System.arraycopy(sample, 0, mp3Data, offset, Math.min(sample.length, fileSize - offset));
+        }
+    }
+
+    @Benchmark
+    public String tikaPerRequest() {
+        return new Tika().detect(mp3Data);
+    }
+
+    @Benchmark
+    public boolean headerSniffer() {
+        return Mp3Detector.isMp3(mp3Data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Mp3DetectionBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
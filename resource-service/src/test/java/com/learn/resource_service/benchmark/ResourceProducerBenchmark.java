@@ -0,0 +1,106 @@
+package com.learn.resource_service.benchmark;
+
+import com.learn.resource_service.kafka.ResourceCreatedEvent;
+import com.learn.resource_service.kafka.ResourceProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Send throughput and latency percentiles against an embedded broker: one
+ * blocking send per message, like the old {@code send().get()} producer,
+ * versus a relay-sized batch handed over at once and awaited together, each
+ * with default and with the tuned producer settings from application.properties.
+ * SampleTime reports p99 per operation, and an operation is one message.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.learn.resource_service.benchmark.ResourceProducerBenchmark}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceProducerBenchmark {
+    private static final String TOPIC = "resource-created-benchmark";
+    private static final int RELAY_BATCH = 100;
+
+    @Param({"default", "tuned"})
+    private String producerSettings;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    private ResourceProducer resourceProducer;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        if ("tuned".equals(producerSettings)) {
+            config.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+            config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+            config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        }
+        producerFactory = new DefaultKafkaProducerFactory<>(config);
+        resourceProducer = new ResourceProducer(new KafkaTemplate<>(producerFactory), TOPIC);
+    }
+
+    @TearDown
+    public void tearDown() {
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    public Object blockingPerMessage() {
+        return send().join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RELAY_BATCH)
+    public void relayBatch() {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[RELAY_BATCH];
+        for (int i = 0; i < RELAY_BATCH; i++) {
+            sends[i] = send();
+        }
+        CompletableFuture.allOf(sends).join();
+    }
+
+    // A full event as the outbox stores it, so the payload size matches production
+    private CompletableFuture<?> send() {
+        long id = nextId.incrementAndGet();
+        ResourceCreatedEvent event = new ResourceCreatedEvent(id, "benchmark-" + id + ".mp3", 5_000_000L,
+                "0".repeat(64), "audio/mpeg", Instant.now());
+        return resourceProducer.sendEvent(id, event.encode());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResourceProducerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -3,36 +3,50 @@ package com.learn.resource_service.component;
 import com.learn.resource_service.client.S3Service;
 import com.learn.resource_service.client.SongServiceClient;
 import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.entity.ResourceStatus;
 import com.learn.resource_service.kafka.ResourceProducer;
 import com.learn.resource_service.repository.ResourceRepository;
+import com.learn.resource_service.storage.ObjectContent;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @TestPropertySource(properties = {
         "spring.jpa.hibernate.ddl-auto=create-drop",
+        "resource.cache.enabled=false",
         "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
 })
 @EmbeddedKafka(partitions = 1, topics = "resource-created")
@@ -58,6 +72,9 @@ class ResourceControllerComponentTest {
     @Autowired
     private ResourceRepository resourceRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @MockitoBean // Mock only external S3 service
     private S3Service s3Service;
 
@@ -72,6 +89,7 @@ class ResourceControllerComponentTest {
     @BeforeEach
     void setUp() {
         resourceRepository.deleteAll();
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "stored_objects");
         validMp3Data = createValidMp3Data();
     }
 
@@ -109,8 +127,8 @@ class ResourceControllerComponentTest {
         Resource savedResource = resourceRepository.findById(resourceId.longValue()).get();
         assertEquals(s3Url, savedResource.getS3Url());
 
-        // Verify S3 interactions
-        verify(s3Service).fileExists(anyString());
+        // Upload is verified by checksum, no extra HEAD round trip
+        verify(s3Service, never()).fileExists(anyString());
     }
 
     @Test
@@ -166,7 +184,7 @@ class ResourceControllerComponentTest {
         resource.setS3Url("https://test-bucket.s3.amazonaws.com/download-test.mp3");
         Resource savedResource = resourceRepository.save(resource);
 
-        when(s3Service.downloadFile("download-test.mp3")).thenReturn(validMp3Data);
+        when(s3Service.openAsync("download-test.mp3")).thenReturn(CompletableFuture.completedFuture(s3Stream(validMp3Data)));
 
         // When
         ResponseEntity<byte[]> response = restTemplate.getForEntity(
@@ -183,8 +201,64 @@ class ResourceControllerComponentTest {
         assertTrue(contentDisposition.contains("attachment"));
         assertTrue(contentDisposition.contains("resource_" + savedResource.getId() + ".mp3"));
 
-        // Verify S3 download was called
-        verify(s3Service).downloadFile("download-test.mp3");
+        // Verify the object was streamed rather than downloaded into memory
+        verify(s3Service).openAsync("download-test.mp3");
+        verify(s3Service, never()).downloadFileAsync(anyString());
+    }
+
+    @Test
+    @DisplayName("Component Test: GET /resources/{id} with Range should return 206 from a ranged S3 read")
+    void downloadResourceContent_WithRange_ReturnsPartialContent() {
+        // Given
+        Resource resource = new Resource("https://test-bucket.s3.amazonaws.com/range-test.mp3");
+        resource.setSize((long) validMp3Data.length);
+        Resource savedResource = resourceRepository.save(resource);
+
+        byte[] slice = Arrays.copyOfRange(validMp3Data, 4, 8);
+        when(s3Service.openAsync("range-test.mp3", 4L, 7L)).thenReturn(CompletableFuture.completedFuture(s3Stream(slice)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=4-7");
+
+        // When
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                "/resources/" + savedResource.getId(),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        // Then
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 4-7/" + validMp3Data.length, response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(slice, response.getBody());
+        verify(s3Service, never()).openAsync("range-test.mp3");
+    }
+
+    @Test
+    @DisplayName("Component Test: GET /resources/{id} with a matching If-None-Match should return 304 without S3")
+    void downloadResourceContent_WithMatchingETag_ReturnsNotModified() {
+        // Given
+        Resource resource = new Resource("https://test-bucket.s3.amazonaws.com/etag-test.mp3");
+        resource.setChecksum("0123abcd");
+        Resource savedResource = resourceRepository.save(resource);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"0123abcd\"");
+
+        // When
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                "/resources/" + savedResource.getId(),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"0123abcd\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("immutable"));
+        verifyNoInteractions(s3Service);
     }
 
     @Test
@@ -195,8 +269,7 @@ class ResourceControllerComponentTest {
         Resource resource2 = resourceRepository.save(createResource("delete2.mp3"));
         Resource resource3 = resourceRepository.save(createResource("delete3.mp3"));
 
-        when(s3Service.fileExists(anyString())).thenReturn(false); // Simulate successful S3 deletion
-        doNothing().when(songServiceClient).deleteSongById(anyLong());
+        when(s3Service.deleteFiles(anyCollection())).thenReturn(Set.of()); // Simulate successful S3 deletion
         String csvIds = String.format("%d,%d,%d", resource1.getId(), resource2.getId(), resource3.getId());
 
         // When
@@ -222,9 +295,8 @@ class ResourceControllerComponentTest {
         assertEquals(0, resourceRepository.count());
 
         // Verify S3 cleanup calls
-        verify(s3Service).deleteFile("delete1.mp3");
-        verify(s3Service).deleteFile("delete2.mp3");
-        verify(s3Service).deleteFile("delete3.mp3");
+        verify(s3Service).deleteFiles(argThat(fileNames -> fileNames.size() == 3
+                && fileNames.containsAll(List.of("delete1.mp3", "delete2.mp3", "delete3.mp3"))));
     }
 
     @Test
@@ -269,9 +341,54 @@ class ResourceControllerComponentTest {
         verifyNoInteractions(s3Service);
     }
 
+    @Test
+    @DisplayName("Component Test: POST /resources/batch should reserve and complete rows with JDBC batches")
+    void uploadResourcesBatch_WithRealDatabase_ReturnsPerItemResults() {
+        // Given
+        when(s3Service.uploadMp3(any(InputStream.class), anyString()))
+                .thenAnswer(inv -> "https://test-bucket.s3.amazonaws.com/" + inv.getArgument(1));
+
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("files", namedPart("first.mp3", validMp3Data));
+        body.add("files", namedPart("broken.mp3", "not mp3 data".getBytes()));
+        body.add("files", namedPart("second.mp3", validMp3Data));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        // When
+        ResponseEntity<Map> response = restTemplate.postForEntity("/resources/batch", new HttpEntity<>(body, headers), Map.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<Map<String, Object>> results = (List<Map<String, Object>>) response.getBody().get("results");
+        assertEquals(3, results.size());
+        assertNotNull(results.get(0).get("id"));
+        assertEquals("Invalid MP3 file", results.get(1).get("error"));
+        assertNotNull(results.get(2).get("id"));
+
+        Resource first = resourceRepository.findById(((Number) results.get(0).get("id")).longValue()).orElseThrow();
+        assertEquals("first.mp3", first.getOriginalFileName());
+        assertEquals(validMp3Data.length, first.getSize());
+        assertEquals(ResourceStatus.STORED, first.getStatus());
+        // The rejected file's reservation is gone again
+        assertEquals(2, resourceRepository.count());
+    }
+
+    private static HttpEntity<ByteArrayResource> namedPart(String fileName, byte[] data) {
+        HttpHeaders partHeaders = new HttpHeaders();
+        partHeaders.setContentType(MediaType.parseMediaType("audio/mpeg"));
+        partHeaders.setContentDisposition(ContentDisposition.formData().name("files").filename(fileName).build());
+        return new HttpEntity<>(new ByteArrayResource(data), partHeaders);
+    }
+
     private Resource createResource(String fileName) {
         Resource resource = new Resource();
         resource.setS3Url("https://test-bucket.s3.amazonaws.com/" + fileName);
         return resource;
     }
+
+    private static ObjectContent s3Stream(byte[] data) {
+        return ObjectContent.ofStream(new ByteArrayInputStream(data), data.length);
+    }
 }
@@ -3,31 +3,43 @@ package com.learn.resource_service.component;
 import com.learn.resource_service.client.S3Service;
 import com.learn.resource_service.client.SongServiceClient;
 import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.entity.ResourceStatus;
 import com.learn.resource_service.kafka.ResourceProducer;
 import com.learn.resource_service.repository.ResourceRepository;
+import com.learn.resource_service.service.ResourceReconciler;
 import com.learn.resource_service.service.ResourceService;
+import com.learn.resource_service.storage.ObjectContent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.jdbc.JdbcTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -59,6 +71,12 @@ class ResourceServiceComponentTest {
     @Autowired
     private ResourceRepository resourceRepository;
 
+    @Autowired
+    private ResourceReconciler resourceReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @MockitoBean // Mock external S3 service
     private S3Service s3Service;
 
@@ -76,6 +94,7 @@ class ResourceServiceComponentTest {
     @BeforeEach
     void setUp() {
         resourceRepository.deleteAll();
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "stored_objects");
         validMp3Data = createValidMp3Data();
     }
 
@@ -106,8 +125,8 @@ class ResourceServiceComponentTest {
         assertEquals(s3Url, savedResource.get().getS3Url());
         assertNotNull(savedResource.get().getUploadedAt());
 
-        // Verify mocked S3 interactions
-        verify(s3Service).fileExists(anyString());
+        // Upload is verified by checksum, no extra HEAD round trip
+        verify(s3Service, never()).fileExists(anyString());
     }
 
     @Test
@@ -139,8 +158,7 @@ class ResourceServiceComponentTest {
         Resource resource2 = resourceRepository.save(createResource("file2.mp3"));
         Resource resource3 = resourceRepository.save(createResource("file3.mp3"));
 
-        when(s3Service.fileExists(anyString())).thenReturn(false); // Simulate successful S3 deletion
-        doNothing().when(songServiceClient).deleteSongById(anyLong());
+        when(s3Service.deleteFiles(anyCollection())).thenReturn(Set.of()); // Simulate successful S3 deletion
         String csvIds = String.format("%d,%d,%d", resource1.getId(), resource2.getId(), resource3.getId());
 
         // When
@@ -155,10 +173,10 @@ class ResourceServiceComponentTest {
         assertFalse(resourceRepository.existsById(resource2.getId()));
         assertFalse(resourceRepository.existsById(resource3.getId()));
 
-        // Verify S3 cleanup calls
-        verify(s3Service).deleteFile("file1.mp3");
-        verify(s3Service).deleteFile("file2.mp3");
-        verify(s3Service).deleteFile("file3.mp3");
+        // Verify S3 cleanup is one bulk call
+        verify(s3Service).deleteFiles(argThat(fileNames -> fileNames.size() == 3
+                && fileNames.containsAll(List.of("file1.mp3", "file2.mp3", "file3.mp3"))));
+        verify(songServiceClient).deleteSongsByIds(deletedIds);
     }
 
     @Test
@@ -169,10 +187,7 @@ class ResourceServiceComponentTest {
         Resource resource2 = resourceRepository.save(createResource("file2.mp3"));
 
         // S3 deletion fails for first file, succeeds for second
-        doThrow(new RuntimeException("S3 delete failed")).when(s3Service).deleteFile("file1.mp3");
-        when(s3Service.fileExists("file1.mp3")).thenReturn(true); // Still exists
-        when(s3Service.fileExists("file2.mp3")).thenReturn(false); // Deleted successfully
-        doNothing().when(songServiceClient).deleteSongById(anyLong());
+        when(s3Service.deleteFiles(anyCollection())).thenReturn(Set.of("file1.mp3"));
         String csvIds = String.format("%d,%d", resource1.getId(), resource2.getId());
 
         // When
@@ -183,25 +198,63 @@ class ResourceServiceComponentTest {
         assertEquals(resource2.getId(), deletedIds.get(0));
 
         // Verify partial deletion in real database
-        assertTrue(resourceRepository.existsById(resource1.getId())); // Should still exist
+        assertTrue(resourceRepository.existsById(resource1.getId())); // Left for the reconciler
+        assertEquals(ResourceStatus.DELETING, resourceRepository.findById(resource1.getId()).get().getStatus());
         assertFalse(resourceRepository.existsById(resource2.getId())); // Should be deleted
+        assertThrows(NoSuchElementException.class, () -> resourceService.getResourceById(resource1.getId()));
     }
 
     @Test
-    @DisplayName("Component Test: Should download content with real DB and mocked S3")
-    void getResourceContent_WithRealDB_Success() {
+    @DisplayName("Component Test: Should leave no row behind when the S3 upload fails")
+    void uploadResource_S3Failure_RemovesPendingRow() {
+        // Given
+        when(s3Service.uploadMp3(any(byte[].class), anyString())).thenThrow(new RuntimeException("S3 down"));
+
+        // When
+        assertThrows(RuntimeException.class, () -> resourceService.uploadResource(validMp3Data));
+
+        // Then
+        assertEquals(0, resourceRepository.count());
+        assertEquals(0, JdbcTestUtils.countRowsInTable(jdbcTemplate, "stored_objects"));
+    }
+
+    @Test
+    @DisplayName("Component Test: Reconciler should finish an interrupted delete")
+    void reconcile_StaleDeletingResource_IsPurged() {
+        // Given - a delete that released its reference but never removed the object
+        Resource resource = createResource("stale.mp3");
+        resource.changeStatus(ResourceStatus.DELETING);
+        resource.setStatusChangedAt(LocalDateTime.now().minusHours(1));
+        Resource stale = resourceRepository.save(resource);
+
+        // When
+        resourceReconciler.reconcile();
+
+        // Then
+        verify(s3Service).deleteFiles(List.of("stale.mp3"));
+        verify(songServiceClient).deleteSongsByIds(List.of(stale.getId()));
+        assertFalse(resourceRepository.existsById(stale.getId()));
+    }
+
+    @Test
+    @DisplayName("Component Test: Should stream content with real DB and mocked S3")
+    void openResourceContentAsync_WithRealDB_Success() throws Exception {
         // Given
         Resource resource = resourceRepository.save(createResource("download-test.mp3"));
-        when(s3Service.downloadFile("download-test.mp3")).thenReturn(validMp3Data);
+        when(s3Service.openAsync("download-test.mp3")).thenReturn(CompletableFuture.completedFuture(
+                ObjectContent.ofStream(new ByteArrayInputStream(validMp3Data), validMp3Data.length)));
 
         // When
-        byte[] content = resourceService.getResourceContent(resource.getId());
+        Resource found = resourceService.findContentResource(resource.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resourceService.openResourceContentAsync(found).join().writeTo(out);
 
         // Then
-        assertArrayEquals(validMp3Data, content);
+        assertArrayEquals(validMp3Data, out.toByteArray());
 
-        // Verify real DB query happened
-        verify(s3Service).downloadFile("download-test.mp3");
+        // Verify the row came from the real DB and the bytes from S3
+        assertEquals(resource.getId(), found.getId());
+        verify(s3Service).openAsync("download-test.mp3");
     }
 
     @Test
@@ -244,6 +297,32 @@ class ResourceServiceComponentTest {
         assertNotNull(resource.getUploadedAt());
     }
 
+    @Test
+    @DisplayName("Component Test: Identical uploads should share one reference-counted S3 object")
+    void uploadResource_DuplicateContent_SharesObjectUntilLastDelete() {
+        // Given
+        String s3Url = "https://test-bucket.s3.amazonaws.com/dedup-test.mp3";
+        when(s3Service.uploadMp3(any(byte[].class), anyString())).thenReturn(s3Url);
+
+        // When
+        Long firstId = resourceService.uploadResource(validMp3Data);
+        Long secondId = resourceService.uploadResource(validMp3Data);
+
+        // Then - only the first upload reached S3
+        verify(s3Service, times(1)).uploadMp3(any(byte[].class), anyString());
+        assertEquals(s3Url, resourceRepository.findById(secondId).get().getS3Url());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT ref_count FROM stored_objects WHERE s3_url = ?", Integer.class, s3Url));
+
+        // Deleting one copy keeps the object, deleting the last one removes it
+        resourceService.deleteResourcesByIds(String.valueOf(firstId));
+        verify(s3Service, never()).deleteFiles(anyCollection());
+
+        resourceService.deleteResourcesByIds(String.valueOf(secondId));
+        verify(s3Service).deleteFiles(List.of("dedup-test.mp3"));
+        assertEquals(0, JdbcTestUtils.countRowsInTable(jdbcTemplate, "stored_objects"));
+    }
+
     private Resource createResource(String fileName) {
         Resource resource = new Resource();
         resource.setS3Url("https://test-bucket.s3.amazonaws.com/" + fileName);
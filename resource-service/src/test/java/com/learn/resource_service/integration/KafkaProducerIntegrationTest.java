@@ -1,11 +1,12 @@
 package com.learn.resource_service.integration;
 
+import com.learn.resource_service.kafka.ResourceCreatedEvent;
 import com.learn.resource_service.kafka.ResourceProducer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
-import org.apache.kafka.common.serialization.LongDeserializer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +23,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -48,8 +50,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @TestPropertySource(properties = {
         "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
         "kafka.topic.resource-created=resource-created-test",
-        "spring.kafka.consumer.value-deserializer=org.apache.kafka.common.serialization.LongDeserializer",
-        "spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.LongSerializer"
+        "spring.kafka.consumer.value-deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer",
+        "spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.ByteArraySerializer"
 })
 @DirtiesContext
 class KafkaProducerIntegrationTest {
@@ -58,7 +60,7 @@ class KafkaProducerIntegrationTest {
     private ResourceProducer resourceProducer;
 
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
 
     @Autowired
     private EmbeddedKafkaBroker embeddedKafkaBroker;
@@ -66,7 +68,7 @@ class KafkaProducerIntegrationTest {
     @Value("${kafka.topic.resource-created}")
     private String resourceCreatedTopic;
 
-    private KafkaConsumer<String, Long> testConsumer;
+    private KafkaConsumer<String, byte[]> testConsumer;
 
     @BeforeEach
     void setUp() {
@@ -78,7 +80,7 @@ class KafkaProducerIntegrationTest {
         );
         consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, LongDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
 
         testConsumer = new KafkaConsumer<>(consumerProps);
         testConsumer.subscribe(Collections.singletonList(resourceCreatedTopic));
@@ -92,20 +94,37 @@ class KafkaProducerIntegrationTest {
     }
 
     @Test
-    void shouldSendResourceIdToKafkaTopic() throws InterruptedException {
+    void shouldSendResourceCreatedEventToKafkaTopic() throws InterruptedException {
         // Given
         Long resourceId = 12345L;
 
         // When
-        resourceProducer.sendId(resourceId);
+        send(resourceId);
 
         // Then
-        ConsumerRecord<String, Long> record = getSingleRecord();
+        ConsumerRecord<String, byte[]> record = getSingleRecord();
 
         assertThat(record).isNotNull();
         assertThat(record.topic()).isEqualTo(resourceCreatedTopic);
-        assertThat(record.value()).isEqualTo(resourceId);
-        assertThat(record.key()).isNull(); // Since we're not setting a key
+        assertThat(ResourceCreatedEvent.decode(record.value())).isEqualTo(event(resourceId));
+        assertThat(record.key()).isEqualTo("12345");
+    }
+
+    @Test
+    void shouldKeepEventsForOneResourceOnOnePartition() throws InterruptedException {
+        // Given
+        Long resourceId = 301L;
+
+        // When
+        send(resourceId);
+        send(resourceId);
+        send(resourceId);
+
+        // Then
+        List<ConsumerRecord<String, byte[]>> records = getMultipleRecords(3);
+
+        assertThat(records).hasSize(3);
+        assertThat(records.stream().map(ConsumerRecord::partition).distinct()).hasSize(1);
     }
 
     @Test
@@ -115,16 +134,16 @@ class KafkaProducerIntegrationTest {
 
         // When
         for (Long id : resourceIds) {
-            resourceProducer.sendId(id);
+            send(id);
         }
 
         // Then
-        List<ConsumerRecord<String, Long>> records = getMultipleRecords(3);
+        List<ConsumerRecord<String, byte[]>> records = getMultipleRecords(3);
 
         assertThat(records).hasSize(3);
 
         List<Long> receivedIds = records.stream()
-                .map(ConsumerRecord::value)
+                .map(record -> ResourceCreatedEvent.decode(record.value()).resourceId())
                 .toList();
 
         assertThat(receivedIds).containsExactlyInAnyOrderElementsOf(resourceIds);
@@ -141,14 +160,14 @@ class KafkaProducerIntegrationTest {
 
         // When
         for (Long id : resourceIds) {
-            resourceProducer.sendId(id);
+            send(id);
         }
 
         // Then
-        List<ConsumerRecord<String, Long>> records = getMultipleRecords(5);
+        List<ConsumerRecord<String, byte[]>> records = getMultipleRecords(5);
 
         Set<Integer> partitions = new HashSet<>();
-        for (ConsumerRecord<String, Long> record : records) {
+        for (ConsumerRecord<String, byte[]> record : records) {
             partitions.add(record.partition());
         }
 
@@ -160,23 +179,32 @@ class KafkaProducerIntegrationTest {
         );
     }
 
-    private ConsumerRecord<String, Long> getSingleRecord() {
-        List<ConsumerRecord<String, Long>> records = getMultipleRecords(1);
+    private void send(Long resourceId) {
+        resourceProducer.sendEvent(resourceId, event(resourceId).encode());
+    }
+
+    private static ResourceCreatedEvent event(Long resourceId) {
+        return new ResourceCreatedEvent(resourceId, resourceId + ".mp3", 1024L, "ab".repeat(32), "audio/mpeg",
+                Instant.ofEpochMilli(1_700_000_000_000L));
+    }
+
+    private ConsumerRecord<String, byte[]> getSingleRecord() {
+        List<ConsumerRecord<String, byte[]>> records = getMultipleRecords(1);
         assertThat(records).hasSize(1);
         return records.get(0);
     }
 
-    private List<ConsumerRecord<String, Long>> getMultipleRecords(int expectedCount) {
-        List<ConsumerRecord<String, Long>> allRecords = new ArrayList<>();
+    private List<ConsumerRecord<String, byte[]>> getMultipleRecords(int expectedCount) {
+        List<ConsumerRecord<String, byte[]>> allRecords = new ArrayList<>();
         long startTime = System.currentTimeMillis();
         long timeoutMs = 10000;
 
         while (allRecords.size() < expectedCount &&
                 (System.currentTimeMillis() - startTime) < timeoutMs) {
 
-            ConsumerRecords<String, Long> records = testConsumer.poll(Duration.ofMillis(1000));
+            ConsumerRecords<String, byte[]> records = testConsumer.poll(Duration.ofMillis(1000));
 
-            for (ConsumerRecord<String, Long> record : records) {
+            for (ConsumerRecord<String, byte[]> record : records) {
                 allRecords.add(record);
             }
         }
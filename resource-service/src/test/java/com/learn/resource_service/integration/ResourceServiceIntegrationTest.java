@@ -4,14 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.learn.resource_service.client.S3Service;
 import com.learn.resource_service.entity.Resource;
 import com.learn.resource_service.kafka.ResourceProducer;
+import com.learn.resource_service.repository.OutboxEventRepository;
 import com.learn.resource_service.repository.ResourceRepository;
 import com.learn.resource_service.service.ResourceService;
+import com.learn.resource_service.storage.ObjectContent;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
@@ -21,13 +24,16 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.jdbc.JdbcTestUtils;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,8 +45,9 @@ import static org.mockito.Mockito.*;
 @TestPropertySource(properties = {
         "spring.kafka.bootstrap-servers=localhost:9092", // Will be mocked anyway
         "spring.jpa.hibernate.ddl-auto=create-drop",
-        "spring.kafka.consumer.value-deserializer=org.apache.kafka.common.serialization.LongDeserializer",
-        "spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.LongSerializer"
+        "resource.cache.enabled=false",
+        "spring.kafka.consumer.value-deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer",
+        "spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.ByteArraySerializer"
 })
 @DirtiesContext
 class ResourceServiceIntegrationTest {
@@ -67,6 +74,12 @@ class ResourceServiceIntegrationTest {
     @Autowired
     private ResourceRepository resourceRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Autowired
     private ResourceService resourceService;
 
@@ -93,13 +106,16 @@ class ResourceServiceIntegrationTest {
         when(s3Service.uploadMp3(any(byte[].class), anyString()))
                 .thenReturn("https://test-bucket.s3.amazonaws.com/test-file.mp3");
         when(s3Service.fileExists(anyString())).thenReturn(true);
-        when(s3Service.downloadFile(anyString())).thenReturn(validMp3Data);
-        doNothing().when(resourceProducer).sendId(anyLong());
+        when(s3Service.openAsync(anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(s3Stream(validMp3Data)));
+        when(resourceProducer.sendEvent(anyLong(), any())).thenReturn(CompletableFuture.completedFuture(null));
     }
 
     @AfterEach
     void tearDown() {
+        outboxEventRepository.deleteAll();
         resourceRepository.deleteAll();
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "stored_objects");
     }
 
     @Test
@@ -126,10 +142,10 @@ class ResourceServiceIntegrationTest {
 
         // Verify S3 service calls
         verify(s3Service, times(1)).uploadMp3(eq(validMp3Data), anyString());
-        verify(s3Service, times(1)).fileExists(anyString());
+        verify(s3Service, never()).fileExists(anyString());
 
-        // Verify Kafka producer call
-        verify(resourceProducer, times(1)).sendId(resourceId);
+        // Verify the outbox relay published the event after commit
+        verify(resourceProducer, timeout(5000).times(1)).sendEvent(eq(resourceId), any());
     }
 
     @Test
@@ -174,26 +190,37 @@ class ResourceServiceIntegrationTest {
     }
 
     @Test
-    void shouldRollbackOnKafkaFailureAndCleanup() {
+    void shouldKeepEventInOutboxWhileKafkaIsUnavailable() throws InterruptedException {
         // Given
-        doThrow(new RuntimeException("Kafka send failed"))
-                .when(resourceProducer).sendId(anyLong());
+        when(resourceProducer.sendEvent(anyLong(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka send failed")));
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("audio/mpeg"));
         HttpEntity<byte[]> request = new HttpEntity<>(validMp3Data, headers);
 
         // When
-        ResponseEntity<String> response = restTemplate.postForEntity(baseUrl, request, String.class);
-
-        // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
-
-        // Verify cleanup was performed
-        verify(s3Service, times(1)).deleteFile(anyString());
+        ResponseEntity<Map> response = restTemplate.postForEntity(baseUrl, request, Map.class);
 
-        // Verify transaction rollback - no database record should exist
-        assertThat(resourceRepository.count()).isZero();
+        // Then - the upload does not depend on the broker
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Long resourceId = ((Number) response.getBody().get("id")).longValue();
+        assertThat(resourceRepository.existsById(resourceId)).isTrue();
+        verify(s3Service, never()).deleteFile(anyString());
+
+        // The event survives failed relay attempts
+        verify(resourceProducer, timeout(5000).atLeast(2)).sendEvent(eq(resourceId), any());
+        assertThat(outboxEventRepository.findAll())
+                .singleElement()
+                .satisfies(event -> assertThat(event.getAttempts()).isPositive());
+
+        // And is delivered and removed once the broker is back
+        when(resourceProducer.sendEvent(anyLong(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(outboxEventRepository.count()).isZero();
     }
 
     @Test
@@ -244,7 +271,7 @@ class ResourceServiceIntegrationTest {
         assertThat(contentDisposition).contains("resource_" + resource.getId() + ".mp3");
 
         // Verify S3 download call
-        verify(s3Service, times(1)).downloadFile(anyString());
+        verify(s3Service, times(1)).openAsync(anyString());
     }
 
     @Test
@@ -261,8 +288,8 @@ class ResourceServiceIntegrationTest {
     void shouldHandleS3DownloadFailure() {
         // Given
         Resource resource = createResourceInDatabase();
-        when(s3Service.downloadFile(anyString()))
-                .thenThrow(new RuntimeException("S3 download failed"));
+        when(s3Service.openAsync(anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("S3 download failed")));
 
         // When
         ResponseEntity<byte[]> response = restTemplate.getForEntity(
@@ -290,4 +317,8 @@ class ResourceServiceIntegrationTest {
 
         return fullMp3;
     }
+
+    private static ObjectContent s3Stream(byte[] data) {
+        return ObjectContent.ofStream(new ByteArrayInputStream(data), data.length);
+    }
 }
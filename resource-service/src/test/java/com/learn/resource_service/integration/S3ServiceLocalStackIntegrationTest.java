@@ -0,0 +1,180 @@
+package com.learn.resource_service.integration;
+
+import com.learn.resource_service.client.S3Service;
+import com.learn.resource_service.config.S3Properties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the async S3 client against LocalStack instead of mocks.
+ */
+@Testcontainers
+class S3ServiceLocalStackIntegrationTest {
+
+    private static final String BUCKET = "resource-service-test";
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Container
+    static LocalStackContainer localStack = new LocalStackContainer(DockerImageName.parse("localstack/localstack:3.0"))
+            .withServices(LocalStackContainer.Service.S3);
+
+    private S3Service s3Service;
+
+    @BeforeAll
+    static void createBucket() {
+        try (S3Client s3Client = S3Client.builder()
+                .endpointOverride(localStack.getEndpoint())
+                .forcePathStyle(true)
+                .region(Region.of(localStack.getRegion()))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(localStack.getAccessKey(), localStack.getSecretKey())))
+                .build()) {
+            s3Client.createBucket(request -> request.bucket(BUCKET));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        S3Properties properties = new S3Properties();
+        properties.setEndpoint(localStack.getEndpoint().toString());
+        properties.setPathStyleAccess(true);
+        properties.getMultipart().setPartSize(PART_SIZE);
+
+        s3Service = new S3Service(localStack.getAccessKey(), localStack.getSecretKey(), BUCKET,
+                localStack.getRegion(), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Service.shutdown();
+    }
+
+    @Test
+    void uploadDownloadAndDeleteAsync_roundTrip() {
+        byte[] data = randomBytes(64 * 1024);
+
+        String s3Url = s3Service.uploadMp3Async(data, "round-trip.mp3").join();
+        assertThat(s3Url).endsWith("/round-trip.mp3");
+
+        assertTrue(s3Service.fileExistsAsync("round-trip.mp3").join());
+        assertArrayEquals(data, s3Service.downloadFileAsync("round-trip.mp3").join());
+
+        s3Service.deleteFileAsync("round-trip.mp3").join();
+        assertFalse(s3Service.fileExists("round-trip.mp3"));
+    }
+
+    @Test
+    void deleteFiles_removesEveryKeyInOneBatch() {
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String fileName = "bulk-delete-" + i + ".mp3";
+            s3Service.uploadMp3(randomBytes(1024), fileName);
+            fileNames.add(fileName);
+        }
+        fileNames.add("bulk-delete-missing.mp3");
+
+        Set<String> failed = s3Service.deleteFiles(fileNames);
+
+        // Deleting a missing key is not an error for S3
+        assertThat(failed).isEmpty();
+        for (String fileName : fileNames) {
+            assertFalse(s3Service.fileExists(fileName));
+        }
+    }
+
+    @Test
+    void concurrentUploads_shareTheConnectionPool() {
+        CompletableFuture<?>[] uploads = new CompletableFuture<?>[20];
+        for (int i = 0; i < uploads.length; i++) {
+            uploads[i] = s3Service.uploadMp3Async(randomBytes(16 * 1024), "concurrent-" + i + ".mp3");
+        }
+
+        CompletableFuture.allOf(uploads).join();
+
+        for (int i = 0; i < uploads.length; i++) {
+            assertTrue(s3Service.fileExists("concurrent-" + i + ".mp3"));
+        }
+    }
+
+    @Test
+    void streamingUpload_largerThanOnePart_usesMultipart() {
+        byte[] data = randomBytes(2 * PART_SIZE + 1024);
+
+        s3Service.uploadMp3(new ByteArrayInputStream(data), "multipart.mp3");
+
+        assertArrayEquals(data, s3Service.downloadFile("multipart.mp3"));
+    }
+
+    @Test
+    void openStreamAsync_reportsLengthAndStreamsBody() throws Exception {
+        byte[] data = randomBytes(3 * 1024 * 1024);
+        s3Service.uploadMp3(data, "streamed.mp3");
+
+        try (ResponseInputStream<GetObjectResponse> stream = s3Service.openStreamAsync("streamed.mp3").join()) {
+            assertEquals(data.length, stream.response().contentLength());
+            assertArrayEquals(data, stream.readAllBytes());
+        }
+    }
+
+    @Test
+    void openStreamAsync_range_transfersOnlyRequestedBytes() throws Exception {
+        byte[] data = randomBytes(256 * 1024);
+        s3Service.uploadMp3(data, "ranged.mp3");
+
+        try (ResponseInputStream<GetObjectResponse> stream = s3Service.openStreamAsync("ranged.mp3", 1000, 1999).join()) {
+            assertEquals(1000, stream.response().contentLength());
+            assertEquals("bytes 1000-1999/" + data.length, stream.response().contentRange());
+            assertArrayEquals(Arrays.copyOfRange(data, 1000, 2000), stream.readAllBytes());
+        }
+    }
+
+    @Test
+    void openAsync_invalidRangeOrName_failsTheFuture() {
+        CompletableFuture<?> badRange = s3Service.openAsync("ranged.mp3", 10, 5);
+        CompletableFuture<?> badName = s3Service.openAsync("../escape.mp3", 0, 5);
+
+        CompletionException rangeError = assertThrows(CompletionException.class, badRange::join);
+        CompletionException nameError = assertThrows(CompletionException.class, badName::join);
+        assertInstanceOf(IllegalArgumentException.class, rangeError.getCause());
+        assertInstanceOf(IllegalArgumentException.class, nameError.getCause());
+    }
+
+    @Test
+    void downloadFileAsync_missingKey_failsAsNotFound() {
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> s3Service.downloadFileAsync("missing.mp3").join());
+
+        assertThat(exception.getCause().getMessage()).contains("File not found in S3");
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+}
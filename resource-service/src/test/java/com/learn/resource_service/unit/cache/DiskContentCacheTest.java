@@ -0,0 +1,198 @@
+package com.learn.resource_service.unit.cache;
+
+import com.learn.resource_service.cache.DiskContentCache;
+import com.learn.resource_service.client.S3Service;
+import com.learn.resource_service.config.ContentCacheProperties;
+import com.learn.resource_service.storage.ObjectContent;
+import com.learn.resource_service.storage.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DiskContentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final S3Service s3Service = mock(S3Service.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DiskContentCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void accepts_onlyKnownSizesWithinLimitWhenEnabled() {
+        cache = newCache(true, DataSize.ofMegabytes(1));
+
+        assertTrue(cache.accepts(100L));
+        assertFalse(cache.accepts(null));
+        assertFalse(cache.accepts(DataSize.ofMegabytes(2).toBytes()));
+
+        DiskContentCache disabled = newCache(false, DataSize.ofMegabytes(1));
+        assertFalse(disabled.accepts(100L));
+        disabled.shutdown();
+    }
+
+    @Test
+    void accepts_nothingWhenStorageIsLocal() {
+        ContentCacheProperties properties = new ContentCacheProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        StorageService localStorage = mock(StorageService.class);
+        when(localStorage.isRemote()).thenReturn(false);
+
+        cache = new DiskContentCache(localStorage, properties, meterRegistry);
+
+        assertFalse(cache.accepts(100L));
+    }
+
+    @Test
+    void openAsync_concurrentMisses_fillOnce() throws Exception {
+        cache = newCache(true, DataSize.ofMegabytes(1));
+        byte[] data = new byte[]{1, 2, 3, 4};
+        CompletableFuture<ObjectContent> download = new CompletableFuture<>();
+        when(s3Service.openAsync("a.mp3")).thenReturn(download);
+
+        CompletableFuture<FileChannel> first = cache.openAsync("a.mp3");
+        CompletableFuture<FileChannel> second = cache.openAsync("a.mp3");
+        download.complete(s3Stream(data));
+
+        assertArrayEquals(data, readAll(first.join()));
+        assertArrayEquals(data, readAll(second.join()));
+        assertArrayEquals(data, readAll(cache.openAsync("a.mp3").join()));
+        verify(s3Service, times(1)).openAsync("a.mp3");
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "resource.content.cache")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void openIfCached_missOrFillInFlight_emptyWithoutDownloading() throws Exception {
+        cache = newCache(true, DataSize.ofMegabytes(1));
+        byte[] data = new byte[]{1, 2, 3, 4};
+        CompletableFuture<ObjectContent> download = new CompletableFuture<>();
+        when(s3Service.openAsync("a.mp3")).thenReturn(download);
+
+        assertFalse(isCached("a.mp3"));
+        verify(s3Service, never()).openAsync("a.mp3");
+
+        cache.prefetch("a.mp3");
+        assertFalse(isCached("a.mp3"));
+
+        download.complete(s3Stream(data));
+        awaitTrue(() -> isCached("a.mp3"));
+        assertArrayEquals(data, readAll(cache.openIfCached("a.mp3").orElseThrow()));
+        verify(s3Service, times(1)).openAsync("a.mp3");
+    }
+
+    @Test
+    void invalidate_deletesCachedFile() throws Exception {
+        cache = newCache(true, DataSize.ofMegabytes(1));
+        when(s3Service.openAsync("a.mp3")).thenReturn(CompletableFuture.completedFuture(s3Stream(new byte[]{1})));
+        cache.openAsync("a.mp3").join().close();
+        assertEquals(1, fileCount());
+
+        cache.invalidate("a.mp3");
+
+        awaitTrue(() -> fileCount() == 0);
+    }
+
+    @Test
+    void openAsync_overMaxSize_evictsByWeight() throws Exception {
+        cache = newCache(true, DataSize.ofBytes(10));
+        when(s3Service.openAsync(anyString()))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(s3Stream(new byte[8])));
+
+        cache.openAsync("a.mp3").join().close();
+        cache.openAsync("b.mp3").join().close();
+
+        awaitTrue(() -> fileCount() == 1);
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cache", "resource.content.cache")
+                .functionCounter().count());
+    }
+
+    @Test
+    void startup_removesOnlyFilesTheCacheLeft() throws Exception {
+        Files.createFile(directory.resolve("fill-123.part"));
+        Files.createFile(directory.resolve("0f8fad5b-d9cb-469f-a165-70867728950e.mp3"));
+        Path foreign = Files.createFile(directory.resolve("notes.txt"));
+        Path foreignMp3 = Files.createFile(directory.resolve("song.mp3"));
+
+        cache = newCache(true, DataSize.ofMegabytes(1));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(Set.of(foreign, foreignMp3), files.collect(Collectors.toSet()));
+        }
+    }
+
+    private DiskContentCache newCache(boolean enabled, DataSize maxSize) {
+        ContentCacheProperties properties = new ContentCacheProperties();
+        properties.setEnabled(enabled);
+        properties.setDirectory(directory);
+        properties.setMaxSize(maxSize);
+        properties.setMaxObjectSize(DataSize.ofMegabytes(1));
+        properties.setFillThreads(2);
+        when(s3Service.isRemote()).thenReturn(true);
+        return new DiskContentCache(s3Service, properties, meterRegistry);
+    }
+
+    private boolean isCached(String fileName) {
+        return cache.openIfCached(fileName).map(channel -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return true;
+        }).orElse(false);
+    }
+
+    private long fileCount() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Caffeine runs removal and eviction work on its executor
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5s");
+            Thread.sleep(20);
+        }
+    }
+
+    private static byte[] readAll(FileChannel channel) throws IOException {
+        try (InputStream in = Channels.newInputStream(channel)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static ObjectContent s3Stream(byte[] data) {
+        return ObjectContent.ofStream(new ByteArrayInputStream(data), data.length);
+    }
+}
@@ -0,0 +1,69 @@
+package com.learn.resource_service.unit.cache;
+
+import com.learn.resource_service.cache.ResourceMetadataCache;
+import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.repository.ResourceRepository;
+import com.learn.resource_service.storage.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResourceMetadataCacheTest {
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final StorageService storageService = mock(StorageService.class);
+    private final ResourceMetadataCache cache = new ResourceMetadataCache(resourceRepository, storageService,
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Test
+    void findResource_concurrentMisses_loadOnce() throws Exception {
+        Resource resource = new Resource();
+        resource.setId(1L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(resourceRepository.findById(1L)).thenAnswer(inv -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return Optional.of(resource);
+        });
+
+        CompletableFuture<Optional<Resource>> first = CompletableFuture.supplyAsync(() -> cache.findResource(1L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Optional<Resource>> second = CompletableFuture.supplyAsync(() -> cache.findResource(1L));
+        release.countDown();
+
+        assertSame(resource, first.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertSame(resource, second.get(5, TimeUnit.SECONDS).orElseThrow());
+        verify(resourceRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findResource_missingRow_isNotCached() {
+        Resource resource = new Resource();
+        resource.setId(2L);
+        when(resourceRepository.findById(2L)).thenReturn(Optional.empty(), Optional.of(resource));
+
+        assertTrue(cache.findResource(2L).isEmpty());
+        assertSame(resource, cache.findResource(2L).orElseThrow());
+    }
+
+    @Test
+    void objectExists_failedCheck_isNotCached() {
+        when(storageService.fileExists("a.mp3"))
+                .thenThrow(new RuntimeException("S3 unavailable"))
+                .thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> cache.objectExists("a.mp3"));
+        assertTrue(cache.objectExists("a.mp3"));
+        assertTrue(cache.objectExists("a.mp3"));
+        verify(storageService, times(2)).fileExists("a.mp3");
+    }
+}
@@ -0,0 +1,89 @@
+package com.learn.resource_service.unit.client;
+
+import com.learn.resource_service.client.SongServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SongServiceClientTest {
+    private static final String URL_PREFIX = "http://localhost:8082/songs?id=";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private SongServiceClient songServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        songServiceClient = new SongServiceClient(restTemplate, "localhost", "8082");
+    }
+
+    @Test
+    void deleteSongsByIds_csvOfExactly199Characters_isSentInOneRequest() {
+        // 20 nine-digit IDs plus 19 commas
+        List<Long> ids = LongStream.range(100_000_000L, 100_000_020L).boxed().toList();
+
+        songServiceClient.deleteSongsByIds(ids);
+
+        List<String> chunks = sentChunks();
+        assertEquals(1, chunks.size());
+        assertEquals(199, chunks.get(0).length());
+    }
+
+    @Test
+    void deleteSongsByIds_idThatWouldReach200Characters_startsANewChunk() {
+        // 19 nine-digit IDs make 189 characters; a comma and a ten-digit ID would make exactly 200
+        List<Long> ids = new ArrayList<>(LongStream.range(100_000_000L, 100_000_019L).boxed().toList());
+        ids.add(1_000_000_000L);
+
+        songServiceClient.deleteSongsByIds(ids);
+
+        List<String> chunks = sentChunks();
+        assertEquals(List.of(189, 10), chunks.stream().map(String::length).toList());
+        assertEquals("1000000000", chunks.get(1));
+    }
+
+    @Test
+    void deleteSongsByIds_manyIds_keepsEveryChunkUnder200CharactersAndEveryId() {
+        List<Long> ids = LongStream.rangeClosed(1, 500).map(i -> i * 7_919).boxed().toList();
+
+        songServiceClient.deleteSongsByIds(ids);
+
+        List<String> chunks = sentChunks();
+        List<Long> sentIds = new ArrayList<>();
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() < 200, "chunk of " + chunk.length() + " characters");
+            for (String id : chunk.split(",")) {
+                sentIds.add(Long.valueOf(id));
+            }
+        }
+        assertEquals(ids, sentIds);
+    }
+
+    @Test
+    void deleteSongsByIds_noIds_sendsNothing() {
+        songServiceClient.deleteSongsByIds(List.of());
+
+        verifyNoInteractions(restTemplate);
+    }
+
+    private List<String> sentChunks() {
+        ArgumentCaptor<String> urls = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate, atLeastOnce()).delete(urls.capture());
+        return urls.getAllValues().stream()
+                .peek(url -> assertTrue(url.startsWith(URL_PREFIX), url))
+                .map(url -> url.substring(URL_PREFIX.length()))
+                .toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.learn.resource_service.unit.config;
+
+import com.learn.resource_service.config.HttpClientProperties;
+import com.learn.resource_service.config.PooledHttpClients;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledHttpClientsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/songs", exchange -> {
+            clientAddresses.add(exchange.getRemoteAddress());
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void sequentialCalls_reuseOneConnection() {
+        RestTemplate restTemplate = newRestTemplate(new HttpClientProperties.Pool());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ok", restTemplate.getForObject(url("/songs"), String.class));
+        }
+
+        assertEquals(1, clientAddresses.size());
+    }
+
+    @Test
+    void create_registersPoolGaugesPerService() {
+        RestTemplate restTemplate = newRestTemplate(new HttpClientProperties.Pool());
+        restTemplate.getForObject(url("/songs"), String.class);
+
+        assertEquals(50.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "song-service").gauge().value());
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "song-service").tag("state", "available").gauge().value());
+    }
+
+    @Test
+    void slowPeer_failsAfterResponseTimeout() {
+        HttpClientProperties.Pool pool = new HttpClientProperties.Pool();
+        pool.setReadTimeout(Duration.ofMillis(200));
+        pool.setResponseTimeout(Duration.ofMillis(200));
+        RestTemplate restTemplate = newRestTemplate(pool);
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/slow"), String.class));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(1500)) < 0);
+    }
+
+    @Test
+    void forService_fallsBackToDefaults() {
+        HttpClientProperties properties = new HttpClientProperties();
+        HttpClientProperties.Pool songService = new HttpClientProperties.Pool();
+        songService.setMaxConnections(5);
+        properties.getServices().put("song-service", songService);
+
+        assertEquals(5, properties.forService("song-service").getMaxConnections());
+        assertEquals(50, properties.forService("other-service").getMaxConnections());
+    }
+
+    private RestTemplate newRestTemplate(HttpClientProperties.Pool pool) {
+        httpClient = PooledHttpClients.create("song-service", pool, meterRegistry);
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+}
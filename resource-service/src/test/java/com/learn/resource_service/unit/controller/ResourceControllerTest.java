@@ -1,17 +1,35 @@
 package com.learn.resource_service.unit.controller;
 
 import com.learn.resource_service.controller.ResourceController;
+import com.learn.resource_service.dto.BatchUploadResult;
+import com.learn.resource_service.dto.ResourceContent;
 import com.learn.resource_service.entity.Resource;
 import com.learn.resource_service.service.ResourceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,82 +39,342 @@ class ResourceControllerTest {
     @Mock
     private ResourceService resourceService;
 
-    @InjectMocks
     private ResourceController resourceController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        resourceController = new ResourceController(resourceService, "buffered");
     }
 
     @Test
-    void uploadResource_success() {
+    void uploadResource_success() throws Exception {
         byte[] mp3Data = new byte[]{1, 2, 3};
         when(resourceService.uploadResource(mp3Data)).thenReturn(42L);
 
-        ResponseEntity<?> response = resourceController.uploadResource(mp3Data);
+        ResponseEntity<?> response = resourceController.uploadResource(new ByteArrayInputStream(mp3Data));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Map.of("id", 42L), response.getBody());
         verify(resourceService).uploadResource(mp3Data);
     }
 
+    @Test
+    void uploadResource_streamingMode_passesStreamThrough() throws Exception {
+        ResourceController streamingController = new ResourceController(resourceService, "streaming");
+        InputStream mp3Stream = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        when(resourceService.uploadResource(mp3Stream)).thenReturn(42L);
+
+        ResponseEntity<?> response = streamingController.uploadResource(mp3Stream);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("id", 42L), response.getBody());
+        verify(resourceService).uploadResource(mp3Stream);
+        verify(resourceService, never()).uploadResource(any(byte[].class));
+    }
+
+    @Test
+    void uploadResources_returnsPerItemResults() {
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "a.mp3", "audio/mpeg", new byte[]{1}),
+                new MockMultipartFile("files", "b.mp3", "audio/mpeg", new byte[]{2}));
+        List<BatchUploadResult> results = List.of(
+                BatchUploadResult.succeeded(0, "a.mp3", 1L),
+                BatchUploadResult.failed(1, "b.mp3", "Invalid MP3 file"));
+        when(resourceService.uploadResources(files)).thenReturn(results);
+
+        ResponseEntity<?> response = resourceController.uploadResources(files);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("results", results), response.getBody());
+        verify(resourceService).uploadResources(files);
+    }
+
     @Test
     void getResource_success() {
         Resource resource = new Resource();
         resource.setId(1L);
         when(resourceService.getResourceById(1L)).thenReturn(resource);
 
-        ResponseEntity<?> response = resourceController.getResource(1L);
+        ResponseEntity<?> response = resourceController.getResource(1L, webRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"resource-1-info\"", response.getHeaders().getETag());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
         assertEquals(resource, response.getBody());
         verify(resourceService).getResourceById(1L);
     }
 
+    @Test
+    void getResource_matchingIfNoneMatch_returns304() {
+        Resource resource = rangedResource();
+        when(resourceService.getResourceById(1L)).thenReturn(resource);
+
+        ResponseEntity<?> response = resourceController.getResource(1L, webRequest(HttpHeaders.IF_NONE_MATCH, "\"abc-info\""));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
     @Test
     void getResourceV2_success() throws Exception {
         byte[] content = new byte[]{1, 2, 3};
-        when(resourceService.getResourceContent(1L)).thenReturn(content);
+        Resource resource = rangedResource();
+        ByteArrayInputStream contentStream = spy(new ByteArrayInputStream(content));
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource)).thenReturn(
+                CompletableFuture.completedFuture(new ResourceContent(resource, contentStream, content.length)));
 
-        ResponseEntity<byte[]> response = resourceController.getResourceV2(1L);
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, null, null, webRequest()).join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertArrayEquals(content, response.getBody());
         assertEquals(MediaType.parseMediaType("audio/mpeg"), response.getHeaders().getContentType());
         assertEquals(content.length, response.getHeaders().getContentLength());
         assertTrue(Objects.requireNonNull(response.getHeaders().getContentDisposition().getFilename()).contains("resource_1.mp3"));
-        verify(resourceService).getResourceContent(1L);
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getLastModified() > 0);
+        assertEquals("max-age=31536000, public, immutable", response.getHeaders().getCacheControl());
+
+        assertArrayEquals(content, writeBody(response));
+        verify(contentStream).close();
+        verify(resourceService).openResourceContentAsync(resource);
+    }
+
+    @Test
+    void getResourceV2_matchingIfNoneMatch_returns304WithoutOpeningContent() {
+        when(resourceService.findContentResource(1L)).thenReturn(rangedResource());
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, null, null,
+                webRequest(HttpHeaders.IF_NONE_MATCH, "\"abc\"")).join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class));
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void getResourceV2_ifModifiedSinceUpload_returns304() {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        String uploadedAt = DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(resource.getUploadedAt().atZone(ZoneId.systemDefault()).plusSeconds(1));
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, null, null,
+                webRequest(HttpHeaders.IF_MODIFIED_SINCE, uploadedAt)).join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class));
     }
 
     @Test
     void getResourceV2_notFound() {
-        when(resourceService.getResourceContent(1L)).thenThrow(new NoSuchElementException());
+        when(resourceService.findContentResource(1L)).thenThrow(new NoSuchElementException());
 
-        ResponseEntity<byte[]> response = resourceController.getResourceV2(1L);
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, null, null, webRequest()).join();
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     void getResourceV2_badRequest() {
-        when(resourceService.getResourceContent(1L)).thenThrow(new IllegalArgumentException());
+        when(resourceService.findContentResource(1L)).thenThrow(new IllegalArgumentException());
 
-        ResponseEntity<byte[]> response = resourceController.getResourceV2(1L);
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, null, null, webRequest()).join();
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     @Test
     void getResourceV2_internalError() {
-        when(resourceService.getResourceContent(1L)).thenThrow(new RuntimeException());
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource)).thenReturn(CompletableFuture.failedFuture(new RuntimeException()));
 
-        ResponseEntity<byte[]> response = resourceController.getResourceV2(1L);
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, null, null, webRequest()).join();
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
+    @Test
+    void getResourceV2_singleRange_returnsPartialContent() throws Exception {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource, 2L, 5L)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[]{2, 3, 4, 5}), 4)));
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, "bytes=2-5", null, webRequest()).join();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 2-5/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getHeaders().getContentLength());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertArrayEquals(new byte[]{2, 3, 4, 5}, writeBody(response));
+        verify(resourceService, never()).openResourceContentAsync(resource);
+    }
+
+    @Test
+    void getResourceV2_multipleRanges_returnsByteranges() throws Exception {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource, 0L, 1L)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[]{'a', 'b'}), 2)));
+        when(resourceService.openResourceContentAsync(resource, 8L, 9L)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[]{'y', 'z'}), 2)));
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, "bytes=0-1,-2", null, webRequest()).join();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        MediaType contentType = response.getHeaders().getContentType();
+        assertEquals("multipart/byteranges", Objects.requireNonNull(contentType).getType() + "/" + contentType.getSubtype());
+        String boundary = contentType.getParameter("boundary");
+        String body = new String(writeBody(response), StandardCharsets.US_ASCII);
+        assertTrue(body.contains("Content-Range: bytes 0-1/10\r\n\r\nab"));
+        assertTrue(body.contains("Content-Range: bytes 8-9/10\r\n\r\nyz"));
+        assertTrue(body.endsWith("--" + boundary + "--\r\n"));
+    }
+
+    @Test
+    void getResourceV2_overlappingAndAdjacentRanges_mergedIntoOneRead() throws Exception {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource, 0L, 3L)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[]{0, 1, 2, 3}), 4)));
+
+        ResponseEntity<StreamingResponseBody> response =
+                resourceController.getResourceV2(1L, "bytes=2-3,0-1,1-2", null, webRequest()).join();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 0-3/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(new byte[]{0, 1, 2, 3}, writeBody(response));
+        verify(resourceService, times(1)).openResourceContentAsync(any(Resource.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void getResourceV2_tooManyRanges_returnsFullContent() {
+        Resource resource = rangedResource();
+        resource.setSize(100L);
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[100]), 100)));
+        String manyRanges = "bytes=" + IntStream.range(0, 17)
+                .mapToObj(i -> (i * 2) + "-" + (i * 2))
+                .collect(Collectors.joining(","));
+
+        ResponseEntity<StreamingResponseBody> response =
+                resourceController.getResourceV2(1L, manyRanges, null, webRequest()).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void getResourceV2_laterPartFails_errorStatusAndOpenedPartsClosed() {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        AtomicBoolean firstClosed = new AtomicBoolean();
+        InputStream first = new ByteArrayInputStream(new byte[]{'a', 'b'}) {
+            @Override
+            public void close() {
+                firstClosed.set(true);
+            }
+        };
+        when(resourceService.openResourceContentAsync(resource, 0L, 1L))
+                .thenReturn(CompletableFuture.completedFuture(new ResourceContent(resource, first, 2)));
+        when(resourceService.openResourceContentAsync(resource, 8L, 9L))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("S3 down")));
+
+        ResponseEntity<StreamingResponseBody> response =
+                resourceController.getResourceV2(1L, "bytes=0-1,-2", null, webRequest()).join();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertTrue(firstClosed.get());
+    }
+
+    @Test
+    void getResourceV2_unsatisfiableRange_returns416() {
+        when(resourceService.findContentResource(1L)).thenReturn(rangedResource());
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, "bytes=10-20", null, webRequest()).join();
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+        assertEquals("bytes */10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void getResourceV2_malformedRange_returnsFullContent() {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[10]), 10)));
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, "bytes=abc", null, webRequest()).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(10, response.getHeaders().getContentLength());
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void getResourceV2_unknownRangeUnit_returnsFullContent() {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[10]), 10)));
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, "items=0-5", null, webRequest()).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void getResourceV2_oneRangeUnsatisfiable_servesTheOther() {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource, 0L, 4L)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[5]), 5)));
+
+        ResponseEntity<StreamingResponseBody> response =
+                resourceController.getResourceV2(1L, "bytes=0-4,500-600", null, webRequest()).join();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 0-4/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(5, response.getHeaders().getContentLength());
+        verify(resourceService).openResourceContentAsync(resource, 0L, 4L);
+        verify(resourceService, never()).openResourceContentAsync(resource, 500L, 600L);
+    }
+
+    @Test
+    void getResourceV2_staleIfRange_returnsFullContent() {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[10]), 10)));
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, "bytes=2-5", "\"other\"", webRequest()).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(10, response.getHeaders().getContentLength());
+        verify(resourceService, never()).openResourceContentAsync(any(Resource.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void getResourceV2_matchingIfRange_returnsPartialContent() {
+        Resource resource = rangedResource();
+        when(resourceService.findContentResource(1L)).thenReturn(resource);
+        when(resourceService.openResourceContentAsync(resource, 5L, 9L)).thenReturn(CompletableFuture.completedFuture(
+                new ResourceContent(resource, new ByteArrayInputStream(new byte[5]), 5)));
+
+        ResponseEntity<StreamingResponseBody> response = resourceController.getResourceV2(1L, "bytes=5-", "\"abc\"", webRequest()).join();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 5-9/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+
     @Test
     void deleteResources_success() {
         List<Long> ids = List.of(1L, 2L);
@@ -108,4 +386,26 @@ class ResourceControllerTest {
         assertEquals(Map.of("ids", ids), response.getBody());
         verify(resourceService).deleteResourcesByIds("1,2");
     }
-}
\ No newline at end of file
+
+    private static Resource rangedResource() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        resource.setSize(10L);
+        resource.setChecksum("abc");
+        return resource;
+    }
+
+    private static byte[] writeBody(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Objects.requireNonNull(response.getBody()).writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static ServletWebRequest webRequest(String... headerNameAndValue) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resources/1");
+        for (int i = 0; i < headerNameAndValue.length; i += 2) {
+            request.addHeader(headerNameAndValue[i], headerNameAndValue[i + 1]);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,264 @@
+package com.learn.resource_service.unit.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.resource_service.config.UploadAdmissionProperties;
+import com.learn.resource_service.controller.UploadAdmissionFilter;
+import com.learn.resource_service.exception.UploadTooLargeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadAdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void contentLengthOverLimit_rejectedWith413BeforeReadingBody() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(upload(mp3(20 * 1024), "10.0.0.1"), response, failingChain());
+
+        assertEquals(413, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"errorCode\":\"413\""));
+    }
+
+    @Test
+    void nonMp3Body_rejectedWith400FromLeadingBytes() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(upload("not mp3 data".getBytes(), "10.0.0.1"), response, failingChain());
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Invalid MP3 file"));
+    }
+
+    @Test
+    void admittedUpload_seesWholeBodyAndActiveBytes() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        byte[] data = mp3(6 * 1024);
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        AtomicReference<Double> activeDuringUpload = new AtomicReference<>();
+
+        filter.doFilter(upload(data, "10.0.0.1"), new MockHttpServletResponse(), (request, response) -> {
+            received.set(request.getInputStream().readAllBytes());
+            activeDuringUpload.set(gauge("resource.upload.active.bytes"));
+        });
+
+        assertArrayEquals(data, received.get());
+        assertEquals(6 * 1024.0, activeDuringUpload.get());
+        assertEquals(0.0, gauge("resource.upload.active.bytes"));
+    }
+
+    @Test
+    void admittedUpload_readListenerGetsWholeBody() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        byte[] data = mp3(6 * 1024);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        filter.doFilter(upload(data, "10.0.0.1"), new MockHttpServletResponse(), (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[1024];
+                    int n;
+                    while (in.isReady() && (n = in.read(buffer)) != -1) {
+                        received.write(buffer, 0, n);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+        });
+
+        assertArrayEquals(data, received.toByteArray());
+        assertTrue(allRead.get());
+    }
+
+    @Test
+    void sameClientOverItsShare_rejectedWith503AndRetryAfter() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        filter.doFilter(upload(mp3(6 * 1024), "10.0.0.1"), new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(upload(mp3(6 * 1024), "10.0.0.1"), second, failingChain()));
+
+        assertEquals(503, second.getStatus());
+        assertEquals("5", second.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void globalBudgetTaken_otherClientWaitsThenGets503() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        AtomicReference<Double> queuedWhileWaiting = new AtomicReference<>();
+
+        filter.doFilter(upload(mp3(6 * 1024), "10.0.0.1"), new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(upload(mp3(6 * 1024), "10.0.0.2"), new MockHttpServletResponse(), (r, s) -> {
+                    Thread waiter = new Thread(() -> queuedWhileWaiting.set(awaitQueued()));
+                    waiter.start();
+                    try {
+                        filter.doFilter(upload(mp3(6 * 1024), "10.0.0.3"), third, failingChain());
+                        waiter.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+
+        assertEquals(503, third.getStatus());
+        assertEquals(6 * 1024.0, queuedWhileWaiting.get());
+        assertEquals(0.0, gauge("resource.upload.queued.bytes"));
+        assertEquals(1.0, meterRegistry.get("resource.upload.rejections").tag("reason", "global").counter().count());
+    }
+
+    @Test
+    void unknownLength_cutOffAtMaxFileSize() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/resources") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContent(mp3(12 * 1024));
+
+        filter.doFilter(chunked, new MockHttpServletResponse(), (request, response) ->
+                assertThrows(UploadTooLargeException.class, () -> request.getInputStream().readAllBytes()));
+    }
+
+    @Test
+    void batchOverMaxBatchSize_rejectedWith413BeforeReadingBody() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(batch(new byte[20 * 1024], "10.0.0.1"), response, failingChain());
+
+        assertEquals(413, response.getStatus());
+        assertEquals(1.0, meterRegistry.get("resource.upload.rejections").tag("reason", "too-large").counter().count());
+    }
+
+    @Test
+    void batch_reservesContentLengthFromSameBudgets() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        AtomicReference<Double> activeDuringBatch = new AtomicReference<>();
+        MockHttpServletResponse single = new MockHttpServletResponse();
+
+        // Multipart bodies are not MP3 themselves, so they are not sniffed
+        filter.doFilter(batch(new byte[6 * 1024], "10.0.0.1"), new MockHttpServletResponse(), (request, response) -> {
+            activeDuringBatch.set(gauge("resource.upload.active.bytes"));
+            filter.doFilter(upload(mp3(6 * 1024), "10.0.0.1"), single, failingChain());
+        });
+
+        assertEquals(6 * 1024.0, activeDuringBatch.get());
+        assertEquals(503, single.getStatus());
+        assertEquals(0.0, gauge("resource.upload.active.bytes"));
+    }
+
+    @Test
+    void batchUnknownLength_reservesMaxBatchSize() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/resources/batch") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContent(new byte[1024]);
+        AtomicReference<Double> activeDuringBatch = new AtomicReference<>();
+
+        filter.doFilter(chunked, new MockHttpServletResponse(), (request, response) ->
+                activeDuringBatch.set(gauge("resource.upload.active.bytes")));
+
+        assertEquals(8 * 1024.0, activeDuringBatch.get());
+    }
+
+    @Test
+    void otherEndpoints_notFiltered() throws Exception {
+        UploadAdmissionFilter filter = newFilter();
+        MockHttpServletRequest other = new MockHttpServletRequest("DELETE", "/resources");
+        other.setContent(new byte[20 * 1024]);
+        AtomicReference<Boolean> passed = new AtomicReference<>(false);
+
+        filter.doFilter(other, new MockHttpServletResponse(), (request, response) -> passed.set(true));
+
+        assertTrue(passed.get());
+    }
+
+    // 10 KiB per file and per client, 8 KiB per batch, 16 KiB in total
+    private UploadAdmissionFilter newFilter() {
+        UploadAdmissionProperties properties = new UploadAdmissionProperties();
+        properties.setMaxFileSize(DataSize.ofKilobytes(10));
+        properties.setMaxBatchSize(DataSize.ofKilobytes(8));
+        properties.setMaxInFlightPerClient(DataSize.ofKilobytes(10));
+        properties.setMaxInFlight(DataSize.ofKilobytes(16));
+        properties.setQueueTimeout(Duration.ofMillis(300));
+        properties.setRetryAfter(Duration.ofSeconds(5));
+        return new UploadAdmissionFilter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    private double awaitQueued() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (gauge("resource.upload.queued.bytes") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        return gauge("resource.upload.queued.bytes");
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static MockHttpServletRequest upload(byte[] data, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/resources");
+        request.setContentType("audio/mpeg");
+        request.setRemoteAddr(client);
+        request.setContent(data);
+        return request;
+    }
+
+    private static MockHttpServletRequest batch(byte[] data, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/resources/batch");
+        request.setContentType("multipart/form-data; boundary=files");
+        request.setRemoteAddr(client);
+        request.setContent(data);
+        return request;
+    }
+
+    // An MPEG-1 Layer III frame header followed by silence
+    private static byte[] mp3(int size) {
+        byte[] data = new byte[size];
+        data[0] = (byte) 0xFF;
+        data[1] = (byte) 0xFB;
+        data[2] = (byte) 0x90;
+        return data;
+    }
+
+    private static FilterChain failingChain() {
+        return (request, response) -> fail("request should not reach the controller");
+    }
+}
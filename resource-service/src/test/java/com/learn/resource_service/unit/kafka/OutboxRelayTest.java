@@ -0,0 +1,137 @@
+package com.learn.resource_service.unit.kafka;
+
+import com.learn.resource_service.entity.OutboxEvent;
+import com.learn.resource_service.kafka.OutboxRelay;
+import com.learn.resource_service.kafka.ResourceCreatedEvent;
+import com.learn.resource_service.kafka.ResourceProducer;
+import com.learn.resource_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ResourceProducer resourceProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxRelay = new OutboxRelay(outboxEventRepository, resourceProducer, new TransactionTemplate(transactionManager),
+                meterRegistry, 100, 1000, 5000);
+    }
+
+    @Test
+    void relay_publishesBatchInOrderAndDeletesIt() {
+        List<OutboxEvent> batch = List.of(event(1L, 10L), event(2L, 11L), event(3L, 12L));
+        when(outboxEventRepository.lockNextBatch(eq(100), any())).thenReturn(batch);
+        when(resourceProducer.sendEvent(anyLong(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        InOrder inOrder = inOrder(resourceProducer);
+        inOrder.verify(resourceProducer).sendEvent(10L, batch.get(0).getPayload());
+        inOrder.verify(resourceProducer).sendEvent(11L, batch.get(1).getPayload());
+        inOrder.verify(resourceProducer).sendEvent(12L, batch.get(2).getPayload());
+        verify(outboxEventRepository).deleteAllInBatch(batch);
+        assertEquals(3.0, meterRegistry.counter("outbox.relay.published").count());
+    }
+
+    @Test
+    void relay_deletesEveryAcknowledgedEventAndKeepsOnlyTheFailedOne() {
+        OutboxEvent first = event(1L, 10L);
+        OutboxEvent failing = event(2L, 11L);
+        OutboxEvent last = event(3L, 12L);
+        when(outboxEventRepository.lockNextBatch(eq(100), any())).thenReturn(List.of(first, failing, last));
+        when(resourceProducer.sendEvent(eq(10L), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(resourceProducer.sendEvent(eq(11L), any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker down")));
+        when(resourceProducer.sendEvent(eq(12L), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository).deleteAllInBatch(List.of(first, last));
+        verify(outboxEventRepository).saveAll(List.of(failing));
+        assertEquals(1, failing.getAttempts());
+        assertTrue(failing.getLastError().contains("Broker down"));
+        assertNull(failing.getClaimedUntil());
+        assertEquals(0, last.getAttempts());
+        assertEquals(2.0, meterRegistry.counter("outbox.relay.published").count());
+        assertEquals(1.0, meterRegistry.counter("outbox.relay.failures").count());
+    }
+
+    @Test
+    void relay_claimsInOneTransactionAndWaitsForAcksOutsideIt() {
+        OutboxEvent event = event(1L, 10L);
+        when(outboxEventRepository.lockNextBatch(eq(100), any())).thenReturn(List.of(event));
+        when(resourceProducer.sendEvent(anyLong(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        // The claim commits before the send, and the delete runs in a transaction of its own
+        InOrder inOrder = inOrder(transactionManager, outboxEventRepository, resourceProducer);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxEventRepository).lockNextBatch(eq(100), any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(resourceProducer).sendEvent(eq(10L), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxEventRepository).deleteAllInBatch(List.of(event));
+        inOrder.verify(transactionManager).commit(any());
+        assertNotNull(event.getClaimedUntil());
+    }
+
+    @Test
+    void relay_legacyRowWithoutPayload_sendsIdOnlyEvent() {
+        OutboxEvent legacy = new OutboxEvent(10L);
+        legacy.setId(1L);
+        when(outboxEventRepository.lockNextBatch(eq(100), any())).thenReturn(List.of(legacy));
+        when(resourceProducer.sendEvent(anyLong(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(resourceProducer).sendEvent(eq(10L), payload.capture());
+        assertEquals(ResourceCreatedEvent.ofId(10L), ResourceCreatedEvent.decode(payload.getValue()));
+    }
+
+    @Test
+    void relay_emptyOutbox_sendsNothing() {
+        when(outboxEventRepository.lockNextBatch(eq(100), any())).thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        verifyNoInteractions(resourceProducer);
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        verify(outboxEventRepository, never()).saveAll(any());
+    }
+
+    private static OutboxEvent event(Long id, Long resourceId) {
+        OutboxEvent event = new OutboxEvent(resourceId, ResourceCreatedEvent.ofId(resourceId).encode());
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,103 @@
+package com.learn.resource_service.unit.kafka;
+
+import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.kafka.ResourceCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceCreatedEventTest {
+
+    private static final String CHECKSUM = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Test
+    void encodeDecode_roundTripsAllFields() {
+        ResourceCreatedEvent event = new ResourceCreatedEvent(42L, "abc.mp3", 5_000_000L, CHECKSUM,
+                "audio/mpeg", Instant.ofEpochMilli(1_700_000_000_123L));
+
+        assertEquals(event, ResourceCreatedEvent.decode(event.encode()));
+    }
+
+    @Test
+    void encode_checksumTravelsAsRawBytes() {
+        byte[] withChecksum = new ResourceCreatedEvent(42L, null, null, CHECKSUM, null, null).encode();
+        byte[] withoutChecksum = ResourceCreatedEvent.ofId(42L).encode();
+
+        // tag + length + 32 bytes of SHA-256
+        assertEquals(35, withChecksum.length - withoutChecksum.length);
+    }
+
+    @Test
+    void of_resource_takesObjectKeyFromUrl() {
+        Resource resource = new Resource();
+        resource.setId(7L);
+        resource.setS3Url("https://bucket.s3.amazonaws.com/" + CHECKSUM);
+        resource.setSize(1024L);
+        resource.setChecksum(CHECKSUM);
+
+        ResourceCreatedEvent event = ResourceCreatedEvent.of(resource);
+
+        assertEquals(7L, event.resourceId());
+        assertEquals(CHECKSUM, event.storageKey());
+        assertEquals(1024L, event.size());
+        assertEquals("audio/mpeg", event.contentType());
+        assertNotNull(event.uploadedAt());
+    }
+
+    @Test
+    void decode_skipsUnknownTags() {
+        byte[] known = ResourceCreatedEvent.ofId(42L).encode();
+        byte[] withUnknown = Arrays.copyOf(known, known.length + 6);
+        ByteBuffer.wrap(withUnknown, known.length, 6).put((byte) 99).putShort((short) 3).put(new byte[]{1, 2, 3});
+
+        assertEquals(ResourceCreatedEvent.ofId(42L), ResourceCreatedEvent.decode(withUnknown));
+    }
+
+    @Test
+    void decode_legacyLongPayload() {
+        byte[] legacy = ByteBuffer.allocate(Long.BYTES).putLong(12345L).array();
+
+        assertEquals(ResourceCreatedEvent.ofId(12345L), ResourceCreatedEvent.decode(legacy));
+    }
+
+    @Test
+    void decode_newerMajorVersion_rejected() {
+        byte[] data = ResourceCreatedEvent.ofId(42L).encode();
+        data[1] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> ResourceCreatedEvent.decode(data));
+    }
+
+    @Test
+    void decode_highVersionByte_rejected() {
+        byte[] data = ResourceCreatedEvent.ofId(42L).encode();
+        data[1] = (byte) 0x80;
+
+        assertThrows(IllegalArgumentException.class, () -> ResourceCreatedEvent.decode(data));
+    }
+
+    @Test
+    void decode_truncated_rejected() {
+        byte[] data = ResourceCreatedEvent.ofId(42L).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ResourceCreatedEvent.decode(Arrays.copyOf(data, data.length - 3)));
+    }
+
+    @Test
+    void decode_missingResourceId_rejected() {
+        byte[] data = {(byte) 0xA5, 1};
+
+        assertThrows(IllegalArgumentException.class, () -> ResourceCreatedEvent.decode(data));
+    }
+
+    @Test
+    void decode_garbage_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> ResourceCreatedEvent.decode("hello".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> ResourceCreatedEvent.decode(new byte[0]));
+    }
+}
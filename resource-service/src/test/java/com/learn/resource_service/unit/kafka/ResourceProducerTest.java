@@ -10,19 +10,21 @@ import org.springframework.kafka.support.SendResult;
 
 import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ResourceProducerTest {
 
     @Mock
-    private KafkaTemplate<String, Long> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
 
     @Mock
-    private SendResult<String, Long> sendResult;
+    private SendResult<String, byte[]> sendResult;
 
     private ResourceProducer resourceProducer;
     private final String topic = "resource-created-topic";
+    private final byte[] payload = {1, 2, 3};
 
     @BeforeEach
     void setUp() {
@@ -31,48 +33,62 @@ class ResourceProducerTest {
     }
 
     @Test
-    void sendId_success() throws Exception {
+    void sendEvent_success() {
         // Arrange
         Long id = 123L;
-        CompletableFuture<SendResult<String, Long>> future = CompletableFuture.completedFuture(sendResult);
-        when(kafkaTemplate.send(eq(topic), eq(id))).thenReturn(future);
-        when(sendResult.getRecordMetadata()).thenReturn(mock(org.apache.kafka.clients.producer.RecordMetadata.class));
+        CompletableFuture<SendResult<String, byte[]>> future = CompletableFuture.completedFuture(sendResult);
+        when(kafkaTemplate.send(eq(topic), eq("123"), eq(payload))).thenReturn(future);
 
         // Act
-        resourceProducer.sendId(id);
+        CompletableFuture<SendResult<String, byte[]>> result = resourceProducer.sendEvent(id, payload);
 
         // Assert
-        verify(kafkaTemplate).send(topic, id);
+        assertSame(sendResult, result.join());
+        verify(kafkaTemplate).send(topic, "123", payload);
     }
 
     @Test
-    void sendId_handlesException() throws Exception {
+    void sendEvent_doesNotSwallowBrokerFailure() {
         // Arrange
         Long id = 123L;
-        CompletableFuture<SendResult<String, Long>> future = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, byte[]>> future = new CompletableFuture<>();
         future.completeExceptionally(new RuntimeException("Kafka unavailable"));
-        when(kafkaTemplate.send(eq(topic), eq(id))).thenReturn(future);
+        when(kafkaTemplate.send(eq(topic), eq("123"), eq(payload))).thenReturn(future);
 
-        // Act - should not throw exception due to try-catch
-        resourceProducer.sendId(id);
+        // Act
+        CompletableFuture<SendResult<String, byte[]>> result = resourceProducer.sendEvent(id, payload);
+
+        // Assert - the failure reaches the caller so the outbox keeps the event
+        assertTrue(result.isCompletedExceptionally());
+        verify(kafkaTemplate).send(topic, "123", payload);
+    }
+
+    @Test
+    void sendEvent_synchronousSendError_returnsFailedFuture() {
+        // Arrange
+        Long id = 123L;
+        when(kafkaTemplate.send(eq(topic), eq("123"), eq(payload)))
+                .thenThrow(new RuntimeException("Metadata not available"));
+
+        // Act
+        CompletableFuture<SendResult<String, byte[]>> result = resourceProducer.sendEvent(id, payload);
 
         // Assert
-        verify(kafkaTemplate).send(topic, id);
+        assertTrue(result.isCompletedExceptionally());
+        verify(kafkaTemplate, times(1)).send(topic, "123", payload);
     }
 
     @Test
-    void sendId_retriesOnFailure() throws Exception {
+    void sendEvent_doesNotWaitForAck() {
         // Arrange
         Long id = 123L;
-        when(kafkaTemplate.send(eq(topic), eq(id)))
-                .thenThrow(new RuntimeException("First attempt failed"))
-                .thenReturn(CompletableFuture.completedFuture(sendResult));
-        when(sendResult.getRecordMetadata()).thenReturn(mock(org.apache.kafka.clients.producer.RecordMetadata.class));
+        CompletableFuture<SendResult<String, byte[]>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(topic), eq("123"), eq(payload))).thenReturn(pending);
 
         // Act
-        resourceProducer.sendId(id);
+        CompletableFuture<SendResult<String, byte[]>> result = resourceProducer.sendEvent(id, payload);
 
-        // Assert - should be called at least once (actual retries managed by Spring)
-        verify(kafkaTemplate, atLeastOnce()).send(topic, id);
+        // Assert
+        assertFalse(result.isDone());
     }
-}
\ No newline at end of file
+}
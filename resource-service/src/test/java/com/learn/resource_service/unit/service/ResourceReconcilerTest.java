@@ -0,0 +1,136 @@
+package com.learn.resource_service.unit.service;
+
+import com.learn.resource_service.cache.DiskContentCache;
+import com.learn.resource_service.cache.ResourceMetadataCache;
+import com.learn.resource_service.client.S3Service;
+import com.learn.resource_service.client.SongServiceClient;
+import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.entity.ResourceStatus;
+import com.learn.resource_service.repository.ResourceRepository;
+import com.learn.resource_service.repository.StoredObjectRepository;
+import com.learn.resource_service.service.ResourceReconciler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ResourceReconcilerTest {
+
+    @Mock
+    private ResourceRepository resourceRepository;
+    @Mock
+    private StoredObjectRepository storedObjectRepository;
+    @Mock
+    private S3Service s3Service;
+    @Mock
+    private SongServiceClient songServiceClient;
+    @Mock
+    private DiskContentCache contentCache;
+    @Mock
+    private ResourceMetadataCache metadataCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ResourceReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reconciler = new ResourceReconciler(resourceRepository, storedObjectRepository, s3Service, songServiceClient,
+                contentCache, metadataCache, new TransactionTemplate(transactionManager),
+                Duration.ofMinutes(30), Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void reconcile_abandonedUpload_deletesObjectAndRow() {
+        Resource pending = resource(1L, "https://bucket.s3.amazonaws.com/pending.mp3", ResourceStatus.PENDING);
+        when(resourceRepository.lockStale(any(), any(), anyInt())).thenReturn(List.of(pending));
+
+        reconciler.reconcile();
+
+        assertEquals(ResourceStatus.DELETING, pending.getStatus());
+        verify(s3Service).deleteFiles(List.of("pending.mp3"));
+        verify(contentCache).invalidate("pending.mp3");
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void reconcile_objectStillReferenced_onlyDeletesRow() {
+        Resource deleting = resource(2L, "https://bucket.s3.amazonaws.com/shared.mp3", ResourceStatus.DELETING);
+        when(resourceRepository.lockStale(any(), any(), anyInt())).thenReturn(List.of(deleting));
+        when(storedObjectRepository.findReferenced(List.of(deleting.getS3Url()))).thenReturn(Set.of(deleting.getS3Url()));
+
+        reconciler.reconcile();
+
+        verify(s3Service, never()).deleteFiles(anyCollection());
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    void reconcile_s3Failure_keepsRowForNextPass() {
+        Resource failing = resource(3L, "https://bucket.s3.amazonaws.com/failing.mp3", ResourceStatus.DELETING);
+        Resource deleted = resource(4L, "https://bucket.s3.amazonaws.com/deleted.mp3", ResourceStatus.DELETING);
+        when(resourceRepository.lockStale(any(), any(), anyInt())).thenReturn(List.of(failing, deleted));
+        when(s3Service.deleteFiles(anyCollection())).thenReturn(Set.of("failing.mp3"));
+
+        reconciler.reconcile();
+
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(4L));
+        verify(songServiceClient).deleteSongsByIds(List.of(4L));
+        verify(contentCache, never()).invalidate("failing.mp3");
+    }
+
+    @Test
+    void reconcile_interruptedDelete_deletesSongs() {
+        Resource deleting = resource(5L, "https://bucket.s3.amazonaws.com/deleting.mp3", ResourceStatus.DELETING);
+        when(resourceRepository.lockStale(any(), any(), anyInt())).thenReturn(List.of(deleting));
+
+        reconciler.reconcile();
+
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(5L));
+        verify(songServiceClient).deleteSongsByIds(List.of(5L));
+    }
+
+    @Test
+    void reconcile_songServiceDown_stillPurgesRows() {
+        Resource deleting = resource(6L, "https://bucket.s3.amazonaws.com/deleting.mp3", ResourceStatus.DELETING);
+        when(resourceRepository.lockStale(any(), any(), anyInt())).thenReturn(List.of(deleting));
+        doThrow(new RuntimeException("song-service down")).when(songServiceClient).deleteSongsByIds(anyList());
+
+        assertDoesNotThrow(() -> reconciler.reconcile());
+
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(6L));
+        verify(metadataCache).invalidate(6L, "deleting.mp3");
+    }
+
+    @Test
+    void reconcile_nothingStale_leavesS3Alone() {
+        when(resourceRepository.lockStale(any(), any(), anyInt())).thenReturn(List.of());
+
+        reconciler.reconcile();
+
+        verifyNoInteractions(s3Service, storedObjectRepository);
+        verify(resourceRepository, never()).deleteAllByIdInBatch(any());
+        verifyNoInteractions(songServiceClient);
+    }
+
+    private static Resource resource(Long id, String s3Url, ResourceStatus status) {
+        Resource resource = new Resource(s3Url);
+        resource.setId(id);
+        resource.changeStatus(status);
+        return resource;
+    }
+}
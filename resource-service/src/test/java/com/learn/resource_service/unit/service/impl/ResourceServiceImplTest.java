@@ -1,17 +1,49 @@
 package com.learn.resource_service.unit.service.impl;
 
+import com.learn.resource_service.cache.DiskContentCache;
+import com.learn.resource_service.cache.ResourceMetadataCache;
 import com.learn.resource_service.client.SongServiceClient;
+import com.learn.resource_service.entity.OutboxEvent;
 import com.learn.resource_service.entity.Resource;
+import com.learn.resource_service.entity.ResourceStatus;
+import com.learn.resource_service.dto.BatchUploadResult;
+import com.learn.resource_service.dto.ResourceContent;
+import com.learn.resource_service.repository.OutboxEventRepository;
+import com.learn.resource_service.repository.ResourceBatchRepository;
 import com.learn.resource_service.repository.ResourceRepository;
-import com.learn.resource_service.kafka.ResourceProducer;
+import com.learn.resource_service.repository.StoredObjectRepository;
 import com.learn.resource_service.client.S3Service;
+import com.learn.resource_service.kafka.ResourceCreatedEvent;
 import com.learn.resource_service.service.impl.ResourceServiceImpl;
+import com.learn.resource_service.storage.ObjectContent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
 import java.util.Optional;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,33 +55,231 @@ class ResourceServiceImplTest {
     @Mock
     private S3Service s3Service;
     @Mock
-    private ResourceProducer resourceProducer;
+    private OutboxEventRepository outboxEventRepository;
     @Mock
     private SongServiceClient songServiceClient;
 
-    @InjectMocks
+    @Mock
+    private ResourceBatchRepository resourceBatchRepository;
+    @Mock
+    private StoredObjectRepository storedObjectRepository;
+    @Mock
+    private DiskContentCache contentCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ResourceMetadataCache metadataCache;
     private ResourceServiceImpl resourceService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Batch uploads run inline so the tests stay deterministic
+        metadataCache = new ResourceMetadataCache(resourceRepository, s3Service, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(5));
+        resourceService = new ResourceServiceImpl(resourceRepository, outboxEventRepository, s3Service,
+                songServiceClient, resourceBatchRepository, storedObjectRepository, contentCache, metadataCache,
+                new TransactionTemplate(transactionManager), Runnable::run, 100);
+        // By default every upload is new content and keeps its own object
+        when(storedObjectRepository.register(anyString(), anyString(), anyLong()))
+                .thenAnswer(inv -> inv.getArgument(1));
     }
 
     @Test
     void uploadResource_success() throws Exception{
         byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
-        when(s3Service.uploadMp3(any(), anyString())).thenReturn("https://bucket.s3.amazonaws.com/file.mp3");
-        when(resourceRepository.save(any())).thenAnswer(inv -> {
-            Resource r = inv.getArgument(0);
-            r.setId(1L);
-            return r;
-        });
+        when(s3Service.uploadMp3(any(byte[].class), anyString())).thenReturn("https://bucket.s3.amazonaws.com/file.mp3");
+        List<Resource> saved = stubSavedRows(1L);
         when(s3Service.fileExists(anyString())).thenReturn(true);
 
         Long id = resourceService.uploadResource(mp3Data);
 
         assertNotNull(id);
-        verify(resourceProducer).sendId(1L);
+        assertEquals(ResourceStatus.STORED, saved.get(0).getStatus());
+        assertEquals("https://bucket.s3.amazonaws.com/file.mp3", saved.get(0).getS3Url());
+        ArgumentCaptor<OutboxEvent> outbox = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(outbox.capture());
+        ResourceCreatedEvent event = ResourceCreatedEvent.decode(outbox.getValue().getPayload());
+        assertEquals(1L, event.resourceId());
+        assertEquals("file.mp3", event.storageKey());
+        assertEquals((long) mp3Data.length, event.size());
+        assertEquals(saved.get(0).getChecksum(), event.checksum());
+        assertEquals("audio/mpeg", event.contentType());
+        assertNotNull(event.uploadedAt());
+    }
+
+    @Test
+    void uploadResource_noTransactionOpenDuringS3Upload() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        List<Resource> saved = stubSavedRows(1L);
+        when(s3Service.uploadMp3(any(byte[].class), anyString())).thenAnswer(inv -> {
+            assertEquals(ResourceStatus.PENDING, saved.get(0).getStatus());
+            return "https://bucket.s3.amazonaws.com/" + inv.getArgument(1);
+        });
+
+        resourceService.uploadResource(mp3Data);
+
+        // lookup, reserve, then complete: every transaction commits before or after the upload, never around it
+        InOrder inOrder = inOrder(transactionManager, s3Service);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(s3Service).uploadMp3(any(byte[].class), anyString());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void uploadResource_s3Failure_removesPendingRow() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        List<Resource> saved = stubSavedRows(1L);
+        when(s3Service.uploadMp3(any(byte[].class), anyString())).thenThrow(new RuntimeException("S3 down"));
+
+        assertThrows(RuntimeException.class, () -> resourceService.uploadResource(mp3Data));
+
+        assertEquals(ResourceStatus.DELETING, saved.get(0).getStatus());
+        verify(s3Service).deleteFile(argThat(name -> name.startsWith("mp3_")));
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(storedObjectRepository, never()).register(anyString(), anyString(), anyLong());
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void uploadResource_claimedByReconciler_failsAndDeletesFreshObject() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        List<Resource> saved = stubSavedRows(1L);
+        when(s3Service.uploadMp3(any(byte[].class), anyString())).thenAnswer(inv -> {
+            // The upload outlived the pending timeout
+            saved.get(0).changeStatus(ResourceStatus.DELETING);
+            return "https://bucket.s3.amazonaws.com/" + inv.getArgument(1);
+        });
+
+        assertThrows(RuntimeException.class, () -> resourceService.uploadResource(mp3Data));
+
+        verify(s3Service).deleteFile(argThat(name -> name.startsWith("mp3_")));
+        verify(storedObjectRepository, never()).register(anyString(), anyString(), anyLong());
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void uploadResource_streaming_recordsSizeAndChecksum() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        when(s3Service.uploadMp3(any(InputStream.class), anyString())).thenAnswer(inv -> {
+            inv.getArgument(0, InputStream.class).transferTo(OutputStream.nullOutputStream());
+            return "https://bucket.s3.amazonaws.com/file.mp3";
+        });
+        List<Resource> saved = stubSavedRows(1L);
+        when(s3Service.fileExists(anyString())).thenReturn(true);
+
+        Long id = resourceService.uploadResource(new ByteArrayInputStream(mp3Data));
+
+        assertEquals(1L, id);
+        assertEquals(mp3Data.length, saved.get(0).getSize());
+        String expectedChecksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(mp3Data));
+        assertEquals(expectedChecksum, saved.get(0).getChecksum());
+        verify(outboxEventRepository).save(argThat((OutboxEvent event) -> event.getResourceId() == 1L));
+    }
+
+    @Test
+    void uploadResource_streamingInvalidMp3_rejectedBeforeS3() {
+        InputStream invalidStream = new ByteArrayInputStream("notmp3".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> resourceService.uploadResource(invalidStream));
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    void uploadResources_batch_savesStoredFilesAndReportsPerItemErrors() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "first.mp3", "audio/mpeg", mp3Data),
+                new MockMultipartFile("files", "broken.mp3", "audio/mpeg", "notmp3".getBytes()),
+                new MockMultipartFile("files", "second.mp3", "audio/mpeg", mp3Data));
+        when(s3Service.objectUrl(anyString())).thenAnswer(inv -> "https://bucket.s3.amazonaws.com/" + inv.getArgument(0));
+        when(s3Service.uploadMp3(any(InputStream.class), anyString()))
+                .thenAnswer(inv -> "https://bucket.s3.amazonaws.com/" + inv.getArgument(1));
+        reserveIds(7L, 8L, 9L);
+
+        List<BatchUploadResult> results = resourceService.uploadResources(files);
+
+        assertEquals(3, results.size());
+        assertEquals(7L, results.get(0).getId());
+        assertEquals("first.mp3", results.get(0).getFileName());
+        assertNull(results.get(1).getId());
+        assertEquals("Invalid MP3 file", results.get(1).getError());
+        assertEquals(9L, results.get(2).getId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Resource>> reserved = ArgumentCaptor.forClass(List.class);
+        verify(resourceBatchRepository).reserveAll(reserved.capture());
+        assertTrue(reserved.getValue().stream().allMatch(resource -> resource.getStatus() == ResourceStatus.PENDING));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Resource>> completed = ArgumentCaptor.forClass(List.class);
+        verify(resourceBatchRepository).completeAllWithOutbox(completed.capture());
+        assertEquals(List.of("first.mp3", "second.mp3"),
+                completed.getValue().stream().map(Resource::getOriginalFileName).toList());
+        verify(s3Service, times(2)).uploadMp3(any(InputStream.class), anyString());
+        // Only the rejected entry's reservation is given up
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(8L));
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void uploadResources_reservedBeforeAnyUpload() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        List<MultipartFile> files = List.of(new MockMultipartFile("files", "first.mp3", "audio/mpeg", mp3Data));
+        when(s3Service.uploadMp3(any(InputStream.class), anyString()))
+                .thenAnswer(inv -> "https://bucket.s3.amazonaws.com/" + inv.getArgument(1));
+        reserveIds(7L);
+
+        resourceService.uploadResources(files);
+
+        InOrder order = inOrder(resourceBatchRepository, s3Service);
+        order.verify(resourceBatchRepository).reserveAll(anyList());
+        order.verify(s3Service).uploadMp3(any(InputStream.class), anyString());
+        order.verify(resourceBatchRepository).completeAllWithOutbox(anyList());
+    }
+
+    @Test
+    void uploadResources_reservationFails_nothingUploaded() {
+        List<MultipartFile> files = List.of(new MockMultipartFile("files", "a.mp3", "audio/mpeg", new byte[]{1}));
+        when(resourceBatchRepository.reserveAll(anyList())).thenThrow(new RuntimeException("DB down"));
+
+        assertThrows(RuntimeException.class, () -> resourceService.uploadResources(files));
+        verify(s3Service, never()).uploadMp3(any(InputStream.class), anyString());
+    }
+
+    @Test
+    void uploadResources_batchUpdateFails_abandonsStoredObjects() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "first.mp3", "audio/mpeg", mp3Data),
+                new MockMultipartFile("files", "second.mp3", "audio/mpeg", mp3Data));
+        when(s3Service.uploadMp3(any(InputStream.class), anyString()))
+                .thenAnswer(inv -> "https://bucket.s3.amazonaws.com/" + inv.getArgument(1));
+        reserveIds(7L, 8L);
+        doThrow(new RuntimeException("DB down")).when(resourceBatchRepository).completeAllWithOutbox(anyList());
+
+        List<BatchUploadResult> results = resourceService.uploadResources(files);
+
+        assertTrue(results.stream().allMatch(result -> result.getId() == null && result.getError() != null));
+        verify(s3Service, times(2)).deleteFile(anyString());
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(7L));
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(8L));
+    }
+
+    @Test
+    void uploadResources_tooManyFiles_rejected() {
+        ResourceServiceImpl smallBatchService = new ResourceServiceImpl(resourceRepository, outboxEventRepository,
+                s3Service, songServiceClient, resourceBatchRepository, storedObjectRepository, contentCache, metadataCache,
+                new TransactionTemplate(transactionManager), Runnable::run, 1);
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "a.mp3", "audio/mpeg", new byte[]{1}),
+                new MockMultipartFile("files", "b.mp3", "audio/mpeg", new byte[]{1}));
+
+        assertThrows(IllegalArgumentException.class, () -> smallBatchService.uploadResources(files));
+        verifyNoInteractions(s3Service);
     }
 
     @Test
@@ -71,6 +301,29 @@ class ResourceServiceImplTest {
         assertEquals(1L, result.getId());
     }
 
+    @Test
+    void getResourceById_pendingUpload_notFound() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        resource.changeStatus(ResourceStatus.PENDING);
+        when(resourceRepository.findById(1L)).thenReturn(Optional.of(resource));
+
+        assertThrows(NoSuchElementException.class, () -> resourceService.getResourceById(1L));
+        verify(s3Service, never()).fileExists(anyString());
+    }
+
+    @Test
+    void deleteResourcesByIds_alreadyDeleting_skipped() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        resource.changeStatus(ResourceStatus.DELETING);
+        when(resourceRepository.lockAllById(List.of(1L))).thenReturn(List.of(resource));
+
+        assertEquals(List.of(), resourceService.deleteResourcesByIds("1"));
+        verify(storedObjectRepository, never()).releaseAll(anyList());
+        verifyNoInteractions(songServiceClient);
+    }
+
     @Test
     void getResourceById_notFound_throwsException() {
         when(resourceRepository.findById(2L)).thenReturn(Optional.empty());
@@ -82,39 +335,331 @@ class ResourceServiceImplTest {
         Resource resource = new Resource();
         resource.setId(1L);
         resource.setS3Url("https://bucket.s3.amazonaws.com/file.mp3");
-        when(resourceRepository.findById(1L)).thenReturn(Optional.of(resource));
+        when(resourceRepository.lockAllById(List.of(1L))).thenReturn(List.of(resource));
+        when(storedObjectRepository.lockReleasable(List.of(resource))).thenReturn(Set.of(resource.getS3Url()));
+
+        List<Long> deleted = resourceService.deleteResourcesByIds("1");
+
+        assertEquals(List.of(1L), deleted);
+        verify(s3Service).deleteFiles(List.of("file.mp3"));
+        verify(storedObjectRepository).releaseAll(List.of(resource));
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(songServiceClient).deleteSongsByIds(List.of(1L));
+    }
+
+    @Test
+    void deleteResourcesByIds_manyIds_usesOneCallPerStep() {
+        List<Resource> resources = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Resource resource = new Resource("https://bucket.s3.amazonaws.com/file" + id + ".mp3");
+            resource.setId(id);
+            resources.add(resource);
+        }
+        when(resourceRepository.lockAllById(List.of(1L, 2L, 3L, 4L))).thenReturn(resources);
+        when(storedObjectRepository.lockReleasable(resources)).thenReturn(
+                resources.stream().map(Resource::getS3Url).collect(Collectors.toSet()));
+        when(s3Service.deleteFiles(anyCollection())).thenReturn(Set.of("file2.mp3"));
+
+        List<Long> deleted = resourceService.deleteResourcesByIds("1,2,3,4,1");
+
+        // 4 does not exist and 2 could not be removed from S3, so it waits for the reconciler
+        assertEquals(List.of(1L, 3L), deleted);
+        assertEquals(ResourceStatus.DELETING, resources.get(1).getStatus());
+        verify(resourceRepository, times(1)).lockAllById(anyCollection());
+        verify(s3Service, times(1)).deleteFiles(anyCollection());
+        verify(s3Service, never()).deleteFile(anyString());
+        verify(storedObjectRepository).releaseAll(resources);
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(1L, 3L));
+        verify(songServiceClient, times(1)).deleteSongsByIds(List.of(1L, 3L));
+    }
+
+    @Test
+    void deleteResourcesByIds_songServiceDown_stillDeletesResources() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        when(resourceRepository.lockAllById(List.of(1L))).thenReturn(List.of(resource));
+        doThrow(new RuntimeException("song-service down")).when(songServiceClient).deleteSongsByIds(anyList());
+
+        assertEquals(List.of(1L), resourceService.deleteResourcesByIds("1"));
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void uploadResource_duplicateContent_reusesStoredObject() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        String existingUrl = "https://bucket.s3.amazonaws.com/existing.mp3";
+        when(storedObjectRepository.acquire(anyString())).thenReturn(Optional.of(existingUrl));
+        ArgumentCaptor<Resource> saved = ArgumentCaptor.forClass(Resource.class);
+        when(resourceRepository.save(saved.capture())).thenAnswer(inv -> {
+            Resource r = inv.getArgument(0);
+            r.setId(2L);
+            return r;
+        });
+
+        Long id = resourceService.uploadResource(mp3Data);
+
+        assertEquals(2L, id);
+        assertEquals(existingUrl, saved.getValue().getS3Url());
+        String expectedChecksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(mp3Data));
+        verify(storedObjectRepository).acquire(expectedChecksum);
+        verify(s3Service, never()).uploadMp3(any(byte[].class), anyString());
+    }
+
+    @Test
+    void uploadResource_streamingDuplicate_deletesFreshObject() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+        String existingUrl = "https://bucket.s3.amazonaws.com/existing.mp3";
+        when(s3Service.uploadMp3(any(InputStream.class), anyString())).thenAnswer(inv -> {
+            inv.getArgument(0, InputStream.class).transferTo(OutputStream.nullOutputStream());
+            return "https://bucket.s3.amazonaws.com/" + inv.getArgument(1);
+        });
+        when(storedObjectRepository.register(anyString(), anyString(), anyLong())).thenReturn(existingUrl);
+        when(s3Service.deleteFileAsync(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        List<Resource> saved = stubSavedRows(3L);
+
+        resourceService.uploadResource(new ByteArrayInputStream(mp3Data));
+
+        assertEquals(existingUrl, saved.get(0).getS3Url());
+        verify(s3Service).deleteFileAsync(argThat(name -> name.startsWith("mp3_")));
+        verify(s3Service, never()).deleteFileAsync("existing.mp3");
+    }
+
+    @Test
+    void deleteResourcesByIds_sharedObject_keptWhileReferenced() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/shared.mp3");
+        resource.setId(1L);
+        resource.setChecksum("abc");
+        when(resourceRepository.lockAllById(List.of(1L))).thenReturn(List.of(resource));
+        when(storedObjectRepository.lockReleasable(List.of(resource))).thenReturn(Set.of());
 
-        when(s3Service.fileExists("file.mp3")).thenReturn(false, false);
-        doNothing().when(songServiceClient).deleteSongById(1L);
         List<Long> deleted = resourceService.deleteResourcesByIds("1");
 
         assertEquals(List.of(1L), deleted);
-        verify(s3Service).deleteFile("file.mp3");
-        verify(resourceRepository).delete(resource);
+        verify(s3Service, never()).deleteFiles(anyCollection());
+        verify(storedObjectRepository).releaseAll(List.of(resource));
+        verify(resourceRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void deleteResourcesByIds_lastReference_deletesObject() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/shared.mp3");
+        resource.setId(1L);
+        resource.setChecksum("abc");
+        when(resourceRepository.lockAllById(List.of(1L))).thenReturn(List.of(resource));
+        when(storedObjectRepository.lockReleasable(List.of(resource))).thenReturn(Set.of(resource.getS3Url()));
+
+        resourceService.deleteResourcesByIds("1");
+
+        verify(s3Service).deleteFiles(List.of("shared.mp3"));
     }
 
     @Test
-    void getResourceContent_success() throws Exception {
+    void findContentResource_noS3Url_throwsException() {
         Resource resource = new Resource();
         resource.setId(1L);
-        resource.setS3Url("https://bucket.s3.amazonaws.com/file.mp3");
         when(resourceRepository.findById(1L)).thenReturn(Optional.of(resource));
-        // Load a valid MP3 file for Tika validation
-        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
-        when(s3Service.downloadFile(anyString())).thenReturn(mp3Data);
 
-        byte[] content = resourceService.getResourceContent(1L);
+        assertThrows(RuntimeException.class, () -> resourceService.findContentResource(1L));
+    }
 
-        assertNotNull(content);
-        assertArrayEquals(mp3Data, content);
+    @Test
+    void openResourceContentAsync_success_streamsWithoutRevalidating() throws Exception {
+        Resource resource = new Resource();
+        resource.setId(1L);
+        resource.setS3Url("https://bucket.s3.amazonaws.com/file.mp3");
+        byte[] data = new byte[]{1, 2, 3, 4};
+        when(s3Service.openAsync("file.mp3")).thenReturn(CompletableFuture.completedFuture(s3Stream(data)));
+
+        try (ResourceContent content = resourceService.openResourceContentAsync(resource).join()) {
+            assertEquals(data.length, content.getContentLength());
+            assertSame(resource, content.getResource());
+            assertArrayEquals(data, content.getInputStream().readAllBytes());
+        }
+        verify(s3Service, never()).downloadFile(anyString());
+        verify(s3Service, never()).downloadFileAsync(anyString());
     }
 
     @Test
-    void getResourceContent_noS3Url_throwsException() {
+    void findContentResource_notFound_throwsException() {
+        when(resourceRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> resourceService.findContentResource(1L));
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    void openResourceContentAsync_noS3Url_failsFuture() {
         Resource resource = new Resource();
         resource.setId(1L);
+
+        CompletableFuture<ResourceContent> future = resourceService.openResourceContentAsync(resource);
+
+        assertThrows(CompletionException.class, future::join);
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    void openResourceContentAsync_s3Failure_wrapsError() {
+        Resource resource = new Resource();
+        resource.setId(1L);
+        resource.setS3Url("https://bucket.s3.amazonaws.com/file.mp3");
+        when(s3Service.openAsync("file.mp3"))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("S3 down")));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> resourceService.openResourceContentAsync(resource).join());
+
+        assertTrue(exception.getCause().getMessage().contains("Failed to retrieve resource content for ID=1"));
+    }
+
+    @Test
+    void openResourceContentAsync_range_opensRangedStream() throws Exception {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        resource.setSize(100L);
+        byte[] slice = new byte[]{7, 8, 9};
+        when(s3Service.openAsync("file.mp3", 10L, 12L)).thenReturn(CompletableFuture.completedFuture(s3Stream(slice)));
+
+        try (ResourceContent content = resourceService.openResourceContentAsync(resource, 10L, 12L).join()) {
+            assertEquals(3, content.getContentLength());
+            assertArrayEquals(slice, content.getInputStream().readAllBytes());
+        }
+        verify(s3Service, never()).openAsync("file.mp3");
+        verifyNoInteractions(resourceRepository);
+    }
+
+    @Test
+    void findContentResource_doesNotTouchS3() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
         when(resourceRepository.findById(1L)).thenReturn(Optional.of(resource));
 
-        assertThrows(RuntimeException.class, () -> resourceService.getResourceContent(1L));
+        assertSame(resource, resourceService.findContentResource(1L));
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    void openResourceContentAsync_cacheable_servesRegionOfCachedFile() throws Exception {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        resource.setSize(6L);
+        Path cached = Files.createTempFile("cached", ".mp3");
+        Files.write(cached, new byte[]{0, 1, 2, 3, 4, 5});
+        when(contentCache.accepts(6L)).thenReturn(true);
+        when(contentCache.openIfCached("file.mp3"))
+                .thenReturn(Optional.of(FileChannel.open(cached, StandardOpenOption.READ)));
+
+        ResourceContent content = resourceService.openResourceContentAsync(resource, 2L, 4L).join();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.writeTo(out);
+
+        assertArrayEquals(new byte[]{2, 3, 4}, out.toByteArray());
+        verify(contentCache).recordServed(3L);
+        verifyNoInteractions(s3Service);
+        Files.delete(cached);
+    }
+
+    @Test
+    void openResourceContentAsync_rangeCacheMiss_readsRangeFromS3AndFillsInBackground() throws Exception {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        resource.setSize(6L);
+        when(contentCache.accepts(6L)).thenReturn(true);
+        when(contentCache.openIfCached("file.mp3")).thenReturn(Optional.empty());
+        byte[] range = new byte[]{2, 3, 4};
+        when(s3Service.openAsync("file.mp3", 2L, 4L)).thenReturn(CompletableFuture.completedFuture(s3Stream(range)));
+
+        try (ResourceContent content = resourceService.openResourceContentAsync(resource, 2L, 4L).join()) {
+            assertArrayEquals(range, content.getInputStream().readAllBytes());
+        }
+        verify(contentCache).prefetch("file.mp3");
+        verify(contentCache, never()).openAsync(anyString());
+        verify(s3Service, never()).openAsync("file.mp3");
+    }
+
+    @Test
+    void openResourceContentAsync_cacheFailure_fallsBackToS3() throws Exception {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        resource.setSize(3L);
+        when(contentCache.accepts(3L)).thenReturn(true);
+        when(contentCache.openAsync("file.mp3")).thenReturn(CompletableFuture.failedFuture(new RuntimeException("disk full")));
+        byte[] data = new byte[]{1, 2, 3};
+        when(s3Service.openAsync("file.mp3")).thenReturn(CompletableFuture.completedFuture(s3Stream(data)));
+
+        try (ResourceContent content = resourceService.openResourceContentAsync(resource).join()) {
+            assertArrayEquals(data, content.getInputStream().readAllBytes());
+        }
+    }
+
+    @Test
+    void deleteResourcesByIds_lastReference_invalidatesCachedCopy() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        when(resourceRepository.lockAllById(List.of(1L))).thenReturn(List.of(resource));
+        when(storedObjectRepository.lockReleasable(List.of(resource))).thenReturn(Set.of(resource.getS3Url()));
+
+        resourceService.deleteResourcesByIds("1");
+
+        verify(s3Service).deleteFiles(List.of("file.mp3"));
+        verify(contentCache).invalidate("file.mp3");
+    }
+
+    @Test
+    void getResourceById_repeatedCalls_servedFromMetadataCache() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        when(resourceRepository.findById(1L)).thenReturn(Optional.of(resource));
+        when(s3Service.fileExists("file.mp3")).thenReturn(true);
+
+        assertSame(resource, resourceService.getResourceById(1L));
+        assertSame(resource, resourceService.getResourceById(1L));
+
+        verify(resourceRepository, times(1)).findById(1L);
+        verify(s3Service, times(1)).fileExists("file.mp3");
+    }
+
+    @Test
+    void getResourceById_afterDelete_reloads() {
+        Resource resource = new Resource("https://bucket.s3.amazonaws.com/file.mp3");
+        resource.setId(1L);
+        when(resourceRepository.findById(1L)).thenReturn(Optional.of(resource));
+        when(s3Service.fileExists("file.mp3")).thenReturn(true);
+        resourceService.getResourceById(1L);
+        when(resourceRepository.lockAllById(List.of(1L))).thenReturn(List.of(resource));
+
+        resourceService.deleteResourcesByIds("1");
+        when(resourceRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> resourceService.getResourceById(1L));
+    }
+
+    // Uploads save a PENDING row, then lock it again to mark it STORED
+    private List<Resource> stubSavedRows(long id) {
+        List<Resource> saved = new ArrayList<>();
+        when(resourceRepository.save(any())).thenAnswer(inv -> {
+            Resource resource = inv.getArgument(0);
+            resource.setId(id);
+            if (!saved.contains(resource)) {
+                saved.add(resource);
+            }
+            return resource;
+        });
+        when(resourceRepository.lockAllById(List.of(id))).thenAnswer(inv -> List.copyOf(saved));
+        return saved;
+    }
+
+    private static ObjectContent s3Stream(byte[] data) {
+        return ObjectContent.ofStream(new ByteArrayInputStream(data), data.length);
+    }
+
+    private void reserveIds(Long... ids) {
+        when(resourceBatchRepository.reserveAll(anyList())).thenAnswer(inv -> {
+            List<Resource> resources = inv.getArgument(0);
+            for (int i = 0; i < resources.size(); i++) {
+                resources.get(i).setId(ids[i]);
+            }
+            return List.of(ids);
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package com.learn.resource_service.unit.storage;
+
+import com.learn.resource_service.config.LocalStorageProperties;
+import com.learn.resource_service.storage.LocalFileStorageService;
+import com.learn.resource_service.storage.ObjectContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileStorageServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private LocalFileStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = newStorage();
+    }
+
+    @Test
+    void uploadBytes_roundTrip() {
+        byte[] data = randomBytes(64 * 1024);
+
+        String url = storage.uploadMp3(data, "bytes.mp3");
+
+        assertTrue(url.startsWith("file:"));
+        assertTrue(url.endsWith("/bytes.mp3"));
+        assertEquals(url, storage.objectUrl("bytes.mp3"));
+        assertTrue(storage.fileExists("bytes.mp3"));
+        assertArrayEquals(data, storage.downloadFile("bytes.mp3"));
+    }
+
+    @Test
+    void uploadStream_largerThanOneTransfer_leavesNoPartialFiles() throws IOException {
+        byte[] data = randomBytes(9 * 1024 * 1024);
+
+        storage.uploadMp3(new ByteArrayInputStream(data), "stream.mp3");
+
+        assertArrayEquals(data, storage.downloadFile("stream.mp3"));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("stream.mp3"), files.map(path -> path.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void openAsync_returnsFileRegion() throws IOException {
+        byte[] data = randomBytes(4096);
+        storage.uploadMp3(data, "whole.mp3");
+
+        try (ObjectContent content = storage.openAsync("whole.mp3").join()) {
+            assertNull(content.getInputStream());
+            assertEquals(data.length, content.getContentLength());
+            assertArrayEquals(data, read(content));
+        }
+    }
+
+    @Test
+    void openAsync_range_isClampedToObjectEnd() throws IOException {
+        byte[] data = randomBytes(100);
+        storage.uploadMp3(data, "ranged.mp3");
+
+        try (ObjectContent content = storage.openAsync("ranged.mp3", 90, 199).join()) {
+            assertEquals(90, content.getPosition());
+            assertEquals(10, content.getContentLength());
+            assertArrayEquals(Arrays.copyOfRange(data, 90, 100), read(content));
+        }
+        assertThrows(CompletionException.class, () -> storage.openAsync("ranged.mp3", 100, 120).join());
+    }
+
+    @Test
+    void openAsync_invalidRange_failsFutureInsteadOfThrowing() {
+        storage.uploadMp3(randomBytes(10), "ranged.mp3");
+
+        CompletableFuture<ObjectContent> opened = storage.openAsync("ranged.mp3", 5, 2);
+
+        CompletionException exception = assertThrows(CompletionException.class, opened::join);
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void openAsync_missingFile_failsFuture() {
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> storage.openAsync("missing.mp3").join());
+
+        assertTrue(exception.getCause().getMessage().contains("File not found in storage"));
+        assertFalse(storage.fileExists("missing.mp3"));
+    }
+
+    @Test
+    void deleteFiles_removesEveryFileAndIgnoresMissingOnes() {
+        storage.uploadMp3(randomBytes(10), "a.mp3");
+        storage.uploadMp3(randomBytes(10), "b.mp3");
+
+        Set<String> failed = storage.deleteFiles(List.of("a.mp3", "b.mp3", "missing.mp3"));
+
+        assertTrue(failed.isEmpty());
+        assertFalse(storage.fileExists("a.mp3"));
+        assertFalse(storage.fileExists("b.mp3"));
+    }
+
+    @Test
+    void fileNamesOutsideTheDirectory_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> storage.uploadMp3(randomBytes(10), "../escape.mp3"));
+        assertThrows(IllegalArgumentException.class, () -> storage.downloadFile("nested/file.mp3"));
+        assertThrows(IllegalArgumentException.class, () -> storage.deleteFile(".."));
+    }
+
+    @Test
+    void startup_removesPartialUploadsButKeepsObjects() throws IOException {
+        storage.uploadMp3(randomBytes(10), "kept.mp3");
+        Files.write(directory.resolve("upload-123.part"), new byte[]{1});
+
+        newStorage();
+
+        assertTrue(Files.exists(directory.resolve("kept.mp3")));
+        assertFalse(Files.exists(directory.resolve("upload-123.part")));
+    }
+
+    private LocalFileStorageService newStorage() {
+        LocalStorageProperties properties = new LocalStorageProperties();
+        properties.setDirectory(directory);
+        return new LocalFileStorageService(properties);
+    }
+
+    private static byte[] read(ObjectContent content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.getFileChannel().transferTo(content.getPosition(), content.getContentLength(), Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+}
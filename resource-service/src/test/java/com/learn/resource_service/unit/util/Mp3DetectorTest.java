@@ -0,0 +1,83 @@
+package com.learn.resource_service.unit.util;
+
+import com.learn.resource_service.util.Mp3Detector;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp3DetectorTest {
+
+    @Test
+    void isMp3_taggedFile_accepted() throws Exception {
+        byte[] mp3Data = getClass().getResourceAsStream("/test.mp3").readAllBytes();
+
+        assertTrue(Mp3Detector.isMp3(mp3Data));
+    }
+
+    @Test
+    void isMp3_bareFrameHeader_accepted() {
+        byte[] frameOnly = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00, 0x00, 0x00};
+
+        assertTrue(Mp3Detector.isMp3(frameOnly));
+    }
+
+    @Test
+    void isMp3_tagLargerThanSniffWindow_accepted() {
+        byte[] data = id3Header(64 * 1024);
+
+        assertTrue(Mp3Detector.isMp3(data));
+    }
+
+    @Test
+    void isMp3_textFile_rejected() {
+        assertFalse(Mp3Detector.isMp3("not mp3 data".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void isMp3_emptyOrNull_rejected() {
+        assertFalse(Mp3Detector.isMp3(new byte[0]));
+        assertFalse(Mp3Detector.isMp3(null));
+    }
+
+    @Test
+    void isMp3_id3TagWithoutAudioFrame_rejected() {
+        byte[] data = id3Header(16);
+
+        assertFalse(Mp3Detector.isMp3(data));
+    }
+
+    @Test
+    void isMp3_id3HeaderWithInvalidSize_rejected() {
+        byte[] data = id3Header(16);
+        data[9] = (byte) 0x80;
+
+        assertFalse(Mp3Detector.isMp3(data));
+    }
+
+    @Test
+    void isMp3_reservedHeaderBits_rejected() {
+        byte[] badBitrate = {(byte) 0xFF, (byte) 0xFB, (byte) 0xF0, 0x00};
+        byte[] badSampleRate = {(byte) 0xFF, (byte) 0xFB, (byte) 0x9C, 0x00};
+        byte[] reservedVersion = {(byte) 0xFF, (byte) 0xEB, (byte) 0x90, 0x00};
+
+        assertFalse(Mp3Detector.isMp3(badBitrate));
+        assertFalse(Mp3Detector.isMp3(badSampleRate));
+        assertFalse(Mp3Detector.isMp3(reservedVersion));
+    }
+
+    // ID3v2.3 header declaring a tag of the given size, followed by zeroed tag bytes
+    private static byte[] id3Header(int tagSize) {
+        byte[] data = new byte[Math.min(10 + tagSize + 64, Mp3Detector.SNIFF_LENGTH)];
+        data[0] = 'I';
+        data[1] = 'D';
+        data[2] = '3';
+        data[3] = 3;
+        data[6] = (byte) ((tagSize >> 21) & 0x7F);
+        data[7] = (byte) ((tagSize >> 14) & 0x7F);
+        data[8] = (byte) ((tagSize >> 7) & 0x7F);
+        data[9] = (byte) (tagSize & 0x7F);
+        return data;
+    }
+}
@@ -32,6 +32,12 @@ public class SongController {
         return ResponseEntity.ok(song);
     }
 
+    @GetMapping(params = "checksum")
+    public ResponseEntity<?> getSongByChecksum(@RequestParam("checksum") String checksum) {
+        Song song = songService.getSongByChecksum(checksum);
+        return ResponseEntity.ok(song);
+    }
+
     @DeleteMapping
     public ResponseEntity<?> deleteSongs(@RequestParam("id") String csvIds) {
         List<Long> deletedIds = songService.deleteSongs(csvIds);
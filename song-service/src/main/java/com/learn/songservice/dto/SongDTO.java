@@ -34,4 +34,7 @@ public class SongDTO {
     @NotBlank(message = "Year is required")
     @Pattern(regexp = "^(19\\d{2}|20\\d{2}|2099)$", message = "Year must be between 1900 and 2099")
     private String year;
+
+    @Pattern(regexp = "^[0-9a-f]{64}$", message = "Checksum must be a lowercase hex SHA-256")
+    private String checksum;
 }
@@ -3,12 +3,13 @@ package com.learn.songservice.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "songs")
+@Table(name = "songs", indexes = @Index(name = "idx_songs_checksum", columnList = "checksum"))
 @Getter
 @Setter
 public class Song {
@@ -31,6 +32,10 @@ public class Song {
     @Column(nullable = false, length = 4)
     private String year;
 
+    /** SHA-256 of the audio the metadata was parsed from; null for songs saved before it was recorded. */
+    @Column(length = 64)
+    private String checksum;
+
     public Song() {
     }
 
@@ -4,6 +4,10 @@ import com.learn.songservice.entity.Song;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface SongRepository extends JpaRepository<Song, Long> {
+
+    Optional<Song> findFirstByChecksum(String checksum);
 }
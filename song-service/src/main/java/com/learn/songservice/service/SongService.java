@@ -10,5 +10,7 @@ public interface SongService {
 
     Song getSong(Long id);
 
+    Song getSongByChecksum(String checksum);
+
     List<Long> deleteSongs(String csvIds);
 }
@@ -36,6 +36,13 @@ public class SongServiceImpl implements SongService {
                 .orElseThrow(() -> new NoSuchElementException("Song with ID=" + id + " not found"));
     }
 
+    @Override
+    public Song getSongByChecksum(String checksum) {
+        validateChecksum(checksum);
+        return songRepository.findFirstByChecksum(checksum)
+                .orElseThrow(() -> new NoSuchElementException("Song with checksum=" + checksum + " not found"));
+    }
+
     @Override
     public List<Long> deleteSongs(String csvIds) {
         validateCsvIds(csvIds);
@@ -62,6 +69,7 @@ public class SongServiceImpl implements SongService {
         song.setAlbum(dto.getAlbum());
         song.setDuration(dto.getDuration());
         song.setYear(dto.getYear());
+        song.setChecksum(dto.getChecksum());
         return song;
     }
 
@@ -71,6 +79,12 @@ public class SongServiceImpl implements SongService {
         }
     }
 
+    public void validateChecksum(String checksum) {
+        if (checksum == null || !checksum.matches("^[0-9a-f]{64}$")) {
+            throw new IllegalArgumentException("Invalid checksum");
+        }
+    }
+
     public void validateCsvIds(String csvIds) {
         if (csvIds == null || csvIds.isEmpty()) {
             throw new IllegalArgumentException("CSV IDs are required");
@@ -63,6 +63,18 @@ class SongControllerTest {
         verify(songService).getSong(1L);
     }
 
+    @Test
+    void getSongByChecksum_success() {
+        String checksum = "ab".repeat(32);
+        when(songService.getSongByChecksum(checksum)).thenReturn(song);
+
+        ResponseEntity<?> response = songController.getSongByChecksum(checksum);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(song, response.getBody());
+        verify(songService).getSongByChecksum(checksum);
+    }
+
     @Test
     void deleteSongs_success() {
         List<Long> ids = List.of(1L, 2L);
@@ -67,6 +67,20 @@ class SongServiceImplTest {
         verify(songRepository).save(any(Song.class));
     }
 
+    @Test
+    void createSong_storesChecksum() {
+        // Arrange
+        songDTO.setChecksum("ab".repeat(32));
+        when(songRepository.existsById(1L)).thenReturn(false);
+        when(songRepository.save(any(Song.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        Song result = songService.createSong(songDTO);
+
+        // Assert
+        assertEquals("ab".repeat(32), result.getChecksum());
+    }
+
     @Test
     void createSong_throwsConflictException_whenSongExists() {
         // Arrange
@@ -111,6 +125,40 @@ class SongServiceImplTest {
         verify(songRepository, never()).findById(any());
     }
 
+    @Test
+    void getSongByChecksum_success() {
+        // Arrange
+        String checksum = "ab".repeat(32);
+        song.setChecksum(checksum);
+        when(songRepository.findFirstByChecksum(checksum)).thenReturn(Optional.of(song));
+
+        // Act
+        Song result = songService.getSongByChecksum(checksum);
+
+        // Assert
+        assertEquals(song.getId(), result.getId());
+        assertEquals(checksum, result.getChecksum());
+    }
+
+    @Test
+    void getSongByChecksum_throwsNoSuchElementException_whenNoSongHasIt() {
+        // Arrange
+        String checksum = "ab".repeat(32);
+        when(songRepository.findFirstByChecksum(checksum)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> songService.getSongByChecksum(checksum));
+    }
+
+    @Test
+    void getSongByChecksum_throwsIllegalArgumentException_whenInvalidChecksum() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> songService.getSongByChecksum(null));
+        assertThrows(IllegalArgumentException.class, () -> songService.getSongByChecksum("abc"));
+        assertThrows(IllegalArgumentException.class, () -> songService.getSongByChecksum("AB".repeat(32)));
+        verifyNoInteractions(songRepository);
+    }
+
     @Test
     void deleteSongs_success() {
         // Arrange